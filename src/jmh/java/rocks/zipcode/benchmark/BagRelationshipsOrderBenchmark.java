@@ -0,0 +1,48 @@
+package rocks.zipcode.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import rocks.zipcode.domain.UserProfile;
+import rocks.zipcode.repository.UserProfileRepositoryWithBagRelationshipsImpl;
+
+/**
+ * Restores the order of the user profiles returned by the bag relationship fetch queries of
+ * {@link UserProfileRepositoryWithBagRelationshipsImpl}, for large lists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BagRelationshipsOrderBenchmark {
+
+    @Param({ "100", "10000" })
+    private int size;
+
+    private List<UserProfile> userProfiles;
+
+    private List<UserProfile> shuffled;
+
+    @Setup
+    public void setup() {
+        userProfiles = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            userProfiles.add(new UserProfile().id(id));
+        }
+        shuffled = new ArrayList<>(userProfiles);
+        Collections.shuffle(shuffled, new Random(42));
+    }
+
+    /**
+     * The sort is done in place, so each invocation works on a fresh copy of the shuffled list.
+     */
+    @Benchmark
+    public List<UserProfile> sortInOrderOf() {
+        return UserProfileRepositoryWithBagRelationshipsImpl.sortInOrderOf(new ArrayList<>(shuffled), userProfiles);
+    }
+}
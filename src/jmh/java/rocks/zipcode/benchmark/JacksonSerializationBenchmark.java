@@ -0,0 +1,90 @@
+package rocks.zipcode.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import rocks.zipcode.config.JacksonConfiguration;
+import rocks.zipcode.domain.Channel;
+import rocks.zipcode.domain.Mention;
+import rocks.zipcode.domain.Message;
+import rocks.zipcode.domain.UserProfile;
+import rocks.zipcode.domain.Workspace;
+
+/**
+ * Serializes lists of {@link Message}, {@link Channel} and {@link UserProfile} graphs with an {@link ObjectMapper}
+ * configured with the modules of {@link JacksonConfiguration} (Hibernate 6, JSR-310, JDK 8), as the REST endpoints do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonSerializationBenchmark {
+
+    @Param({ "10", "1000" })
+    private int size;
+
+    private ObjectMapper objectMapper;
+
+    private List<Message> messages;
+
+    private List<Channel> channels;
+
+    private List<UserProfile> userProfiles;
+
+    @Setup
+    public void setup() {
+        JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modules(jacksonConfiguration.javaTimeModule(), jacksonConfiguration.jdk8TimeModule(), jacksonConfiguration.hibernate6Module())
+            .build();
+
+        messages = new ArrayList<>(size);
+        channels = new ArrayList<>(size);
+        userProfiles = new ArrayList<>(size);
+        Workspace workspace = new Workspace().id(1L).name("zipcode").status("active");
+        for (long id = 1; id <= size; id++) {
+            Channel channel = new Channel().id(id).name("channel-" + id).description("Channel number " + id);
+            UserProfile userProfile = new UserProfile()
+                .id(id)
+                .name("user-" + id)
+                .email("user-" + id + "@example.com")
+                .timezone(-5)
+                .phone(5550100)
+                .addWorkspaces(workspace)
+                .addChannels(channel);
+            Mention mention = new Mention().id(id).userName("user-" + id).text("@user-" + id + " have a look");
+            Message message = new Message()
+                .id(id)
+                .uploads("https://example.com/uploads/" + id)
+                .pinned(0)
+                .timestamp(1_700_000_000 + (int) id)
+                .mentions(mention)
+                .addSender(userProfile)
+                .addChannel(channel);
+            channel.addMembers(userProfile);
+            messages.add(message);
+            channels.add(channel);
+            userProfiles.add(userProfile);
+        }
+    }
+
+    @Benchmark
+    public byte[] messages() throws Exception {
+        return objectMapper.writeValueAsBytes(messages);
+    }
+
+    @Benchmark
+    public byte[] channels() throws Exception {
+        return objectMapper.writeValueAsBytes(channels);
+    }
+
+    @Benchmark
+    public byte[] userProfiles() throws Exception {
+        return objectMapper.writeValueAsBytes(userProfiles);
+    }
+}
@@ -0,0 +1,71 @@
+package rocks.zipcode.benchmark;
+
+import static rocks.zipcode.security.SecurityUtils.AUTHORITIES_KEY;
+import static rocks.zipcode.security.SecurityUtils.JWT_ALGORITHM;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.nimbusds.jose.util.Base64;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import rocks.zipcode.security.CachingJwtDecoder;
+
+/**
+ * Compares the cost of decoding a bearer token with a plain {@link NimbusJwtDecoder} (parse + HMAC verification on
+ * every call) against the {@link CachingJwtDecoder} used by {@code SecurityJwtConfiguration}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtDecoderBenchmark {
+
+    private static final String BASE64_SECRET =
+        "YWUzMjU0MWVjOTQxNzFjOTE4NzBiYzM3ZjUyYjA3OTFiNGQ0MjcyZDQ2ODhiZmQ0OTZlMTMxNDdkMmU1NzIxYzkwNDdjZjU1NGI1MjM1ODgwNTY0NWE1YWUxYjdlZjE5MTMxYzBhNWM5ODFhN2EyMDllYjUzMjU1ZDBlMjNkYTM=";
+
+    private JwtDecoder verifyingDecoder;
+
+    private JwtDecoder cachingDecoder;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        byte[] keyBytes = Base64.from(BASE64_SECRET).decode();
+        SecretKey secretKey = new SecretKeySpec(keyBytes, 0, keyBytes.length, JWT_ALGORITHM.getName());
+        verifyingDecoder = NimbusJwtDecoder.withSecretKey(secretKey).macAlgorithm(JWT_ALGORITHM).build();
+        cachingDecoder = new CachingJwtDecoder(verifyingDecoder, 10_000);
+
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+            .issuedAt(now)
+            .expiresAt(now.plusSeconds(3600))
+            .subject("user")
+            .claim(AUTHORITIES_KEY, "ROLE_USER")
+            .build();
+        token = new NimbusJwtEncoder(new ImmutableSecret<>(secretKey))
+            .encode(JwtEncoderParameters.from(JwsHeader.with(JWT_ALGORITHM).build(), claims))
+            .getTokenValue();
+    }
+
+    @Benchmark
+    public Jwt decodeWithoutCache() {
+        return verifyingDecoder.decode(token);
+    }
+
+    @Benchmark
+    public Jwt decodeWithCache() {
+        return cachingDecoder.decode(token);
+    }
+}
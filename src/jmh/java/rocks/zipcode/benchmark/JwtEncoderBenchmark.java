@@ -0,0 +1,56 @@
+package rocks.zipcode.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+import rocks.zipcode.config.ApplicationProperties;
+import rocks.zipcode.config.SecurityJwtConfiguration;
+import rocks.zipcode.management.SecurityMetersService;
+import rocks.zipcode.security.AuthoritiesConstants;
+import rocks.zipcode.web.rest.AuthenticateController;
+
+/**
+ * Issues a token with {@link AuthenticateController#createToken}, with the encoder of {@link SecurityJwtConfiguration}.
+ * Decoding is measured by {@link JwtDecoderBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtEncoderBenchmark {
+
+    private static final String BASE64_SECRET =
+        "YWUzMjU0MWVjOTQxNzFjOTE4NzBiYzM3ZjUyYjA3OTFiNGQ0MjcyZDQ2ODhiZmQ0OTZlMTMxNDdkMmU1NzIxYzkwNDdjZjU1NGI1MjM1ODgwNTY0NWE1YWUxYjdlZjE5MTMxYzBhNWM5ODFhN2EyMDllYjUzMjU1ZDBlMjNkYTM=";
+
+    private AuthenticateController authenticateController;
+
+    private Authentication authentication;
+
+    @Setup
+    public void setup() {
+        SecurityJwtConfiguration securityJwtConfiguration = new SecurityJwtConfiguration(new ApplicationProperties());
+        ReflectionTestUtils.setField(securityJwtConfiguration, "jwtKey", BASE64_SECRET);
+        SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
+
+        authenticateController = new AuthenticateController(securityJwtConfiguration.jwtEncoder(), null, securityMetersService);
+        ReflectionTestUtils.setField(authenticateController, "tokenValidityInSeconds", 86_400L);
+
+        authentication = new UsernamePasswordAuthenticationToken(
+            "user",
+            null,
+            List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+    }
+
+    @Benchmark
+    public String createToken() {
+        return authenticateController.createToken(authentication, false);
+    }
+}
@@ -0,0 +1,46 @@
+package rocks.zipcode.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import rocks.zipcode.web.filter.TokenBucketRateLimiter;
+
+/**
+ * Measures the cost of a {@link TokenBucketRateLimiter} decision, which is on the path of every rate limited request:
+ * one hot key shared by all threads, and keys spread over a large population of users.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RateLimiterBenchmark {
+
+    private static final int USERS = 50_000;
+
+    private TokenBucketRateLimiter limiter;
+
+    private String[] keys;
+
+    @Setup
+    public void setup() {
+        limiter = new TokenBucketRateLimiter(1_000, Duration.ofSeconds(1), 100_000);
+        keys = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            keys[i] = "user:" + i;
+        }
+    }
+
+    @Benchmark
+    public long hotKey() {
+        return limiter.tryAcquire(keys[0]);
+    }
+
+    @Benchmark
+    public long spreadKeys() {
+        return limiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(USERS)]);
+    }
+}
@@ -0,0 +1,62 @@
+package rocks.zipcode.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import rocks.zipcode.domain.Authority;
+import rocks.zipcode.domain.User;
+import rocks.zipcode.security.AuthoritiesConstants;
+import rocks.zipcode.service.dto.AdminUserDTO;
+import rocks.zipcode.service.dto.UserDTO;
+import rocks.zipcode.service.mapper.UserMapper;
+
+/**
+ * Maps large lists of users with {@link UserMapper}, as the public and admin user listings do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    @Param({ "100", "10000" })
+    private int size;
+
+    private UserMapper userMapper;
+
+    private List<User> users;
+
+    @Setup
+    public void setup() {
+        userMapper = new UserMapper();
+        Authority userAuthority = new Authority();
+        userAuthority.setName(AuthoritiesConstants.USER);
+        users = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setLogin("user-" + id);
+            user.setFirstName("First" + id);
+            user.setLastName("Last" + id);
+            user.setEmail("user-" + id + "@example.com");
+            user.setActivated(true);
+            user.setLangKey("en");
+            user.setAuthorities(Set.of(userAuthority));
+            users.add(user);
+        }
+    }
+
+    @Benchmark
+    public List<UserDTO> usersToUserDTOs() {
+        return userMapper.usersToUserDTOs(users);
+    }
+
+    @Benchmark
+    public List<AdminUserDTO> usersToAdminUserDTOs() {
+        return userMapper.usersToAdminUserDTOs(users);
+    }
+}
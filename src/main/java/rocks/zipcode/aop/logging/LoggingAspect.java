@@ -1,30 +1,73 @@
 package rocks.zipcode.aop.logging;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.env.Environment;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Repository;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
 import tech.jhipster.config.JHipsterConstants;
 
 /**
  * Aspect for logging execution of service and repository Spring components.
  *
  * By default, it only runs with the "dev" profile.
+ * <p>
+ * In timing mode, arguments and results are not logged: each method gets a {@value #TIMER_NAME} timer tagged with its
+ * class, method, layer and outcome, and calls slower than a threshold are logged, at most once per method and interval.
+ * Exceptions are only logged with the "dev" profile, as they are logged again by each layer they go through; the
+ * timers publish no percentile histogram, one per advised method being too many series.
  */
 @Aspect
 public class LoggingAspect {
 
+    public static final String TIMER_NAME = "method.timed";
+
     private final Environment env;
 
+    private final MeterRegistry meterRegistry;
+
+    private final long slowCallThresholdNanos;
+
+    private final long slowCallLogIntervalNanos;
+
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Method, MethodTimer>> timers = new ConcurrentHashMap<>();
+
     public LoggingAspect(Environment env) {
         this.env = env;
+        this.meterRegistry = null;
+        this.slowCallThresholdNanos = 0;
+        this.slowCallLogIntervalNanos = 0;
+    }
+
+    /**
+     * Creates the aspect in timing mode.
+     */
+    public LoggingAspect(Environment env, Duration slowCallThreshold, Duration slowCallLogInterval, MeterRegistry meterRegistry) {
+        this.env = env;
+        this.meterRegistry = meterRegistry;
+        this.slowCallThresholdNanos = slowCallThreshold.toNanos();
+        this.slowCallLogIntervalNanos = slowCallLogInterval.toNanos();
     }
 
     /**
@@ -65,7 +108,11 @@ public class LoggingAspect {
      */
     @AfterThrowing(pointcut = "applicationPackagePointcut() && springBeanPointcut()", throwing = "e")
     public void logAfterThrowing(JoinPoint joinPoint, Throwable e) {
-        if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT))) {
+        boolean development = env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT));
+        if (meterRegistry != null && !development) {
+            return;
+        }
+        if (development) {
             logger(joinPoint).error(
                 "Exception in {}() with cause = '{}' and exception = '{}'",
                 joinPoint.getSignature().getName(),
@@ -91,6 +138,9 @@ public class LoggingAspect {
      */
     @Around("applicationPackagePointcut() && springBeanPointcut()")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (meterRegistry != null) {
+            return timeAround(joinPoint);
+        }
         Logger log = logger(joinPoint);
         if (log.isDebugEnabled()) {
             log.debug("Enter: {}() with argument[s] = {}", joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
@@ -106,5 +156,111 @@ public class LoggingAspect {
             throw e;
         }
     }
+
+    private Object timeAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodTimer timer = timer(joinPoint);
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            timer.record(start, true);
+            return result;
+        } catch (Throwable e) {
+            timer.record(start, false);
+            throw e;
+        }
+    }
+
+    /**
+     * The timer of the called method, cached by target class and method so that a call does not build any tag.
+     */
+    private MethodTimer timer(ProceedingJoinPoint joinPoint) {
+        Class<?> targetClass = joinPoint.getTarget().getClass();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return timers
+            .computeIfAbsent(targetClass, key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(method, key -> new MethodTimer(typeOf(targetClass, method), method.getName()));
+    }
+
+    /**
+     * The application type behind a target class, looking through CGLIB proxies and the JDK proxies of Spring Data.
+     */
+    private static Class<?> typeOf(Class<?> targetClass, Method method) {
+        Class<?> type = ClassUtils.getUserClass(targetClass);
+        if (Proxy.isProxyClass(type)) {
+            for (Class<?> candidate : type.getInterfaces()) {
+                if (AnnotatedElementUtils.hasAnnotation(candidate, Repository.class)) {
+                    return candidate;
+                }
+            }
+            return method.getDeclaringClass();
+        }
+        return type;
+    }
+
+    private static String layerOf(Class<?> type) {
+        if (AnnotatedElementUtils.hasAnnotation(type, Repository.class)) {
+            return "repository";
+        }
+        if (AnnotatedElementUtils.hasAnnotation(type, Service.class)) {
+            return "service";
+        }
+        return "rest";
+    }
+
+    private final class MethodTimer {
+
+        private final Logger log;
+
+        private final String method;
+
+        private final Timer success;
+
+        private final Timer failure;
+
+        private final AtomicLong nextSlowCallLog = new AtomicLong(System.nanoTime());
+
+        private final LongAdder unloggedSlowCalls = new LongAdder();
+
+        private MethodTimer(Class<?> type, String method) {
+            this.log = LoggerFactory.getLogger(type);
+            this.method = method;
+            this.success = timer(type, method, "success");
+            this.failure = timer(type, method, "error");
+        }
+
+        private Timer timer(Class<?> type, String method, String outcome) {
+            return Timer.builder(TIMER_NAME)
+                .description("Execution time of the repository, service and REST methods")
+                .tag("class", type.getSimpleName())
+                .tag("method", method)
+                .tag("layer", layerOf(type))
+                .tag("outcome", outcome)
+                .publishPercentileHistogram(false)
+                .register(meterRegistry);
+        }
+
+        private void record(long start, boolean succeeded) {
+            long duration = System.nanoTime() - start;
+            (succeeded ? success : failure).record(duration, TimeUnit.NANOSECONDS);
+            if (duration > slowCallThresholdNanos) {
+                slowCall(duration);
+            }
+        }
+
+        private void slowCall(long duration) {
+            long now = System.nanoTime();
+            long next = nextSlowCallLog.get();
+            if (now - next < 0 || !nextSlowCallLog.compareAndSet(next, now + slowCallLogIntervalNanos)) {
+                unloggedSlowCalls.increment();
+                return;
+            }
+            log.warn(
+                "Slow call: {}() took {} ms ({} more slow calls not logged since the previous one)",
+                method,
+                TimeUnit.NANOSECONDS.toMillis(duration),
+                unloggedSlowCalls.sumThenReset()
+            );
+        }
+    }
 }
 //ethan was here
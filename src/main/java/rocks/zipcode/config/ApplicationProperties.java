@@ -1,6 +1,12 @@
 package rocks.zipcode.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Table Talk.
@@ -13,12 +19,132 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final Async async = new Async();
+
+    private final Attachments attachments = new Attachments();
+
+    private final Coalescing coalescing = new Coalescing();
+
+    private final ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
+    private final Jfr jfr = new Jfr();
+
+    private final Jobs jobs = new Jobs();
+
+    private final MailOutbox mailOutbox = new MailOutbox();
+
+    private final MessagePartitions messagePartitions = new MessagePartitions();
+
+    private final MessageStore messageStore = new MessageStore();
+
+    private final MethodTiming methodTiming = new MethodTiming();
+
+    private final QueryShapes queryShapes = new QueryShapes();
+
+    private final RateLimit rateLimit = new RateLimit();
+
+    private final ReadReplica readReplica = new ReadReplica();
+
+    private final ResourceAccounting resourceAccounting = new ResourceAccounting();
+
+    private final Security security = new Security();
+
+    private final StatementCounting statementCounting = new StatementCounting();
+
+    private final Thumbnails thumbnails = new Thumbnails();
+
+    private final UserCleanup userCleanup = new UserCleanup();
+
+    private final VirtualThreads virtualThreads = new VirtualThreads();
+
+    private final WorkspaceExport workspaceExport = new WorkspaceExport();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public Async getAsync() {
+        return async;
+    }
+
+    public Attachments getAttachments() {
+        return attachments;
+    }
+
+    public Coalescing getCoalescing() {
+        return coalescing;
+    }
+
+    public ConcurrencyLimit getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    public Jfr getJfr() {
+        return jfr;
+    }
+
+    public Jobs getJobs() {
+        return jobs;
+    }
+
+    public MailOutbox getMailOutbox() {
+        return mailOutbox;
+    }
+
+    public MessagePartitions getMessagePartitions() {
+        return messagePartitions;
+    }
+
+    public MessageStore getMessageStore() {
+        return messageStore;
+    }
+
+    public MethodTiming getMethodTiming() {
+        return methodTiming;
+    }
+
+    public QueryShapes getQueryShapes() {
+        return queryShapes;
+    }
+
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    public ReadReplica getReadReplica() {
+        return readReplica;
+    }
+
+    public ResourceAccounting getResourceAccounting() {
+        return resourceAccounting;
+    }
+
+    public Security getSecurity() {
+        return security;
+    }
+
+    public StatementCounting getStatementCounting() {
+        return statementCounting;
+    }
+
+    public Thumbnails getThumbnails() {
+        return thumbnails;
+    }
+
+    public UserCleanup getUserCleanup() {
+        return userCleanup;
+    }
+
+    public VirtualThreads getVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public WorkspaceExport getWorkspaceExport() {
+        return workspaceExport;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +159,1109 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    /**
+     * Pooled {@code @Async} executor, see {@link AsyncConfiguration}.
+     */
+    public static class Async {
+
+        private RejectionPolicy rejectionPolicy = RejectionPolicy.ABORT;
+
+        public RejectionPolicy getRejectionPolicy() {
+            return rejectionPolicy;
+        }
+
+        public void setRejectionPolicy(RejectionPolicy rejectionPolicy) {
+            this.rejectionPolicy = rejectionPolicy;
+        }
+
+        /**
+         * What to do with a task submitted while all threads are busy and the queue is full.
+         */
+        public enum RejectionPolicy {
+            /** Fail the submission with a {@code TaskRejectedException}. */
+            ABORT,
+            /** Run the task on the submitting thread, slowing the producer down. */
+            CALLER_RUNS,
+            /** Drop the task. */
+            DISCARD,
+            /** Drop the oldest queued task and retry the submission. */
+            DISCARD_OLDEST,
+        }
+    }
+
+    /**
+     * Files attached to messages, see {@link rocks.zipcode.service.AttachmentService}.
+     */
+    public static class Attachments {
+
+        private String directory = "data/attachments";
+
+        private DataSize maxSize = DataSize.ofMegabytes(100);
+
+        private Duration cacheMaxAge = Duration.ofDays(365);
+
+        private Duration blobGracePeriod = Duration.ofHours(1);
+
+        private boolean reuseDeclaredHash = false;
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getCacheMaxAge() {
+            return cacheMaxAge;
+        }
+
+        public void setCacheMaxAge(Duration cacheMaxAge) {
+            this.cacheMaxAge = cacheMaxAge;
+        }
+
+        public Duration getBlobGracePeriod() {
+            return blobGracePeriod;
+        }
+
+        public void setBlobGracePeriod(Duration blobGracePeriod) {
+            this.blobGracePeriod = blobGracePeriod;
+        }
+
+        public boolean isReuseDeclaredHash() {
+            return reuseDeclaredHash;
+        }
+
+        public void setReuseDeclaredHash(boolean reuseDeclaredHash) {
+            this.reuseDeclaredHash = reuseDeclaredHash;
+        }
+    }
+
+    /**
+     * Single-flight execution of identical concurrent reads, see {@link rocks.zipcode.web.filter.RequestCoalescingFilter}.
+     */
+    public static class Coalescing {
+
+        private boolean enabled = true;
+
+        private Duration waitTimeout = Duration.ofSeconds(5);
+
+        private final Map<String, Route> routes = new LinkedHashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getWaitTimeout() {
+            return waitTimeout;
+        }
+
+        public void setWaitTimeout(Duration waitTimeout) {
+            this.waitTimeout = waitTimeout;
+        }
+
+        public Map<String, Route> getRoutes() {
+            return routes;
+        }
+
+        public enum Scope {
+            USER,
+            AUTHORITIES,
+        }
+
+        public static class Route {
+
+            private List<String> paths = new ArrayList<>();
+
+            private Scope scope = Scope.USER;
+
+            public List<String> getPaths() {
+                return paths;
+            }
+
+            public void setPaths(List<String> paths) {
+                this.paths = paths;
+            }
+
+            public Scope getScope() {
+                return scope;
+            }
+
+            public void setScope(Scope scope) {
+                this.scope = scope;
+            }
+        }
+    }
+
+    /**
+     * Adaptive concurrency limit in front of {@code /api}, see {@link rocks.zipcode.web.filter.AdaptiveConcurrencyLimitFilter}.
+     */
+    public static class ConcurrencyLimit {
+
+        private boolean enabled = true;
+
+        private int initialLimit = 50;
+
+        private int minLimit = 10;
+
+        private int maxLimit = 400;
+
+        private Duration latencyThreshold = Duration.ofSeconds(1);
+
+        private double backoffRatio = 0.9;
+
+        private Duration backoffInterval = Duration.ofSeconds(1);
+
+        private Duration retryAfter = Duration.ofSeconds(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public Duration getLatencyThreshold() {
+            return latencyThreshold;
+        }
+
+        public void setLatencyThreshold(Duration latencyThreshold) {
+            this.latencyThreshold = latencyThreshold;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+
+        public Duration getBackoffInterval() {
+            return backoffInterval;
+        }
+
+        public void setBackoffInterval(Duration backoffInterval) {
+            this.backoffInterval = backoffInterval;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+
+        public void setRetryAfter(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+        }
+    }
+
+    /**
+     * On-demand JFR recordings, see {@link rocks.zipcode.management.JfrRecordingEndpoint}.
+     */
+    public static class Jfr {
+
+        private boolean enabled = true;
+
+        private String directory = System.getProperty("java.io.tmpdir") + "/tabletalk-jfr";
+
+        private Duration maxDuration = Duration.ofMinutes(10);
+
+        private int maxRecordings = 5;
+
+        private int summaryTop = 20;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public Duration getMaxDuration() {
+            return maxDuration;
+        }
+
+        public void setMaxDuration(Duration maxDuration) {
+            this.maxDuration = maxDuration;
+        }
+
+        public int getMaxRecordings() {
+            return maxRecordings;
+        }
+
+        public void setMaxRecordings(int maxRecordings) {
+            this.maxRecordings = maxRecordings;
+        }
+
+        public int getSummaryTop() {
+            return summaryTop;
+        }
+
+        public void setSummaryTop(int summaryTop) {
+            this.summaryTop = summaryTop;
+        }
+    }
+
+    /**
+     * Clustered jobs, see {@link rocks.zipcode.service.job.ClusteredJob}.
+     */
+    public static class Jobs {
+
+        private Duration historyRetention = Duration.ofDays(30);
+
+        public Duration getHistoryRetention() {
+            return historyRetention;
+        }
+
+        public void setHistoryRetention(Duration historyRetention) {
+            this.historyRetention = historyRetention;
+        }
+    }
+
+    /**
+     * Token bucket rate limits per route group, see {@link rocks.zipcode.web.filter.RateLimitFilter}.
+     */
+    public static class RateLimit {
+
+        private boolean enabled = true;
+
+        private int maxKeys = 100_000;
+
+        private final Map<String, Group> groups = new LinkedHashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxKeys() {
+            return maxKeys;
+        }
+
+        public void setMaxKeys(int maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+
+        public Map<String, Group> getGroups() {
+            return groups;
+        }
+
+        public enum KeyBy {
+            USER,
+            IP,
+        }
+
+        public static class Group {
+
+            private List<String> paths = new ArrayList<>();
+
+            private List<String> methods = new ArrayList<>();
+
+            private KeyBy keyBy = KeyBy.USER;
+
+            private long capacity = 60;
+
+            private Duration period = Duration.ofMinutes(1);
+
+            public List<String> getPaths() {
+                return paths;
+            }
+
+            public void setPaths(List<String> paths) {
+                this.paths = paths;
+            }
+
+            public List<String> getMethods() {
+                return methods;
+            }
+
+            public void setMethods(List<String> methods) {
+                this.methods = methods;
+            }
+
+            public KeyBy getKeyBy() {
+                return keyBy;
+            }
+
+            public void setKeyBy(KeyBy keyBy) {
+                this.keyBy = keyBy;
+            }
+
+            public long getCapacity() {
+                return capacity;
+            }
+
+            public void setCapacity(long capacity) {
+                this.capacity = capacity;
+            }
+
+            public Duration getPeriod() {
+                return period;
+            }
+
+            public void setPeriod(Duration period) {
+                this.period = period;
+            }
+        }
+    }
+
+    /**
+     * Transactional mail outbox, see {@link rocks.zipcode.service.MailOutboxDispatcher}.
+     */
+    public static class MailOutbox {
+
+        private Duration pollInterval = Duration.ofSeconds(5);
+
+        private int batchSize = 50;
+
+        private int maxAttempts = 8;
+
+        private Duration initialBackoff = Duration.ofSeconds(30);
+
+        private Duration maxBackoff = Duration.ofHours(1);
+
+        private Duration retention = Duration.ofDays(7);
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+    }
+
+    /**
+     * Monthly partitions of the message table on MySQL, see {@link rocks.zipcode.service.job.MessagePartitionRotationJob}.
+     */
+    public static class MessagePartitions {
+
+        private int monthsAhead = 3;
+
+        private int retentionMonths = 0;
+
+        private ExpiredAction expiredAction = ExpiredAction.DROP;
+
+        public int getMonthsAhead() {
+            return monthsAhead;
+        }
+
+        public void setMonthsAhead(int monthsAhead) {
+            this.monthsAhead = monthsAhead;
+        }
+
+        public int getRetentionMonths() {
+            return retentionMonths;
+        }
+
+        public void setRetentionMonths(int retentionMonths) {
+            this.retentionMonths = retentionMonths;
+        }
+
+        public ExpiredAction getExpiredAction() {
+            return expiredAction;
+        }
+
+        public void setExpiredAction(ExpiredAction expiredAction) {
+            this.expiredAction = expiredAction;
+        }
+
+        /**
+         * What to do with a partition older than the retention.
+         */
+        public enum ExpiredAction {
+            /** Drop the partition and its messages. */
+            DROP,
+            /** Move the partition to its own {@code message_archive_*} table. */
+            ARCHIVE,
+        }
+    }
+
+    /**
+     * Storage of the messages, see {@link rocks.zipcode.repository.MessageStore}.
+     */
+    public static class MessageStore {
+
+        private Type type = Type.JPA;
+
+        private String directory = "data/messages";
+
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        private int segmentRecords = 1_000_000;
+
+        private FsyncPolicy fsync = FsyncPolicy.INTERVAL;
+
+        private Duration fsyncInterval = Duration.ofMillis(200);
+
+        private Duration compactionInterval = Duration.ofMinutes(10);
+
+        private double compactionThreshold = 0.5;
+
+        public Type getType() {
+            return type;
+        }
+
+        public void setType(Type type) {
+            this.type = type;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public DataSize getSegmentSize() {
+            return segmentSize;
+        }
+
+        public void setSegmentSize(DataSize segmentSize) {
+            this.segmentSize = segmentSize;
+        }
+
+        public int getSegmentRecords() {
+            return segmentRecords;
+        }
+
+        public void setSegmentRecords(int segmentRecords) {
+            this.segmentRecords = segmentRecords;
+        }
+
+        public FsyncPolicy getFsync() {
+            return fsync;
+        }
+
+        public void setFsync(FsyncPolicy fsync) {
+            this.fsync = fsync;
+        }
+
+        public Duration getFsyncInterval() {
+            return fsyncInterval;
+        }
+
+        public void setFsyncInterval(Duration fsyncInterval) {
+            this.fsyncInterval = fsyncInterval;
+        }
+
+        public Duration getCompactionInterval() {
+            return compactionInterval;
+        }
+
+        public void setCompactionInterval(Duration compactionInterval) {
+            this.compactionInterval = compactionInterval;
+        }
+
+        public double getCompactionThreshold() {
+            return compactionThreshold;
+        }
+
+        public void setCompactionThreshold(double compactionThreshold) {
+            this.compactionThreshold = compactionThreshold;
+        }
+
+        public enum Type {
+            /** The message table, through {@link rocks.zipcode.repository.MessageRepository}. */
+            JPA,
+            /** Append-only segment files, see {@link rocks.zipcode.repository.log.LogStructuredMessageStore}. */
+            LOG,
+        }
+
+        /**
+         * When the appended messages are forced to the disk.
+         */
+        public enum FsyncPolicy {
+            /** After every write: no acknowledged message is lost, at the cost of one fsync per write. */
+            ALWAYS,
+            /** Every {@code fsync-interval}: a crash loses at most the writes of the last interval. */
+            INTERVAL,
+            /** Left to the operating system, only forced when a segment is sealed or closed. */
+            NEVER,
+        }
+    }
+
+    /**
+     * Latency of the repository, service and REST methods, see {@link rocks.zipcode.aop.logging.LoggingAspect}.
+     */
+    public static class MethodTiming {
+
+        private boolean enabled = false;
+
+        private Duration slowCallThreshold = Duration.ofMillis(500);
+
+        private Duration slowCallLogInterval = Duration.ofSeconds(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getSlowCallThreshold() {
+            return slowCallThreshold;
+        }
+
+        public void setSlowCallThreshold(Duration slowCallThreshold) {
+            this.slowCallThreshold = slowCallThreshold;
+        }
+
+        public Duration getSlowCallLogInterval() {
+            return slowCallLogInterval;
+        }
+
+        public void setSlowCallLogInterval(Duration slowCallLogInterval) {
+            this.slowCallLogInterval = slowCallLogInterval;
+        }
+    }
+
+    /**
+     * Statistics per JDBC statement shape, see {@link rocks.zipcode.management.jdbc.QueryShapeStatistics}.
+     */
+    public static class QueryShapes {
+
+        private boolean enabled = true;
+
+        private Duration slowThreshold = Duration.ofMillis(200);
+
+        private int maxShapes = 500;
+
+        private int top = 20;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getSlowThreshold() {
+            return slowThreshold;
+        }
+
+        public void setSlowThreshold(Duration slowThreshold) {
+            this.slowThreshold = slowThreshold;
+        }
+
+        public int getMaxShapes() {
+            return maxShapes;
+        }
+
+        public void setMaxShapes(int maxShapes) {
+            this.maxShapes = maxShapes;
+        }
+
+        public int getTop() {
+            return top;
+        }
+
+        public void setTop(int top) {
+            this.top = top;
+        }
+    }
+
+    /**
+     * Read-only transactions sent to a read replica, see {@link rocks.zipcode.config.ReadReplicaRoutingDataSource}.
+     */
+    public static class ReadReplica {
+
+        private boolean enabled = false;
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int maximumPoolSize = 10;
+
+        private int minimumIdle = 2;
+
+        private Duration connectionTimeout = Duration.ofSeconds(2);
+
+        private Duration stickiness = Duration.ofSeconds(5);
+
+        private Duration maxLag = Duration.ofSeconds(2);
+
+        private Duration checkInterval = Duration.ofSeconds(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+
+        public int getMinimumIdle() {
+            return minimumIdle;
+        }
+
+        public void setMinimumIdle(int minimumIdle) {
+            this.minimumIdle = minimumIdle;
+        }
+
+        public Duration getConnectionTimeout() {
+            return connectionTimeout;
+        }
+
+        public void setConnectionTimeout(Duration connectionTimeout) {
+            this.connectionTimeout = connectionTimeout;
+        }
+
+        public Duration getStickiness() {
+            return stickiness;
+        }
+
+        public void setStickiness(Duration stickiness) {
+            this.stickiness = stickiness;
+        }
+
+        public Duration getMaxLag() {
+            return maxLag;
+        }
+
+        public void setMaxLag(Duration maxLag) {
+            this.maxLag = maxLag;
+        }
+
+        public Duration getCheckInterval() {
+            return checkInterval;
+        }
+
+        public void setCheckInterval(Duration checkInterval) {
+            this.checkInterval = checkInterval;
+        }
+    }
+
+    /**
+     * Heap and CPU time per request, see {@link rocks.zipcode.web.filter.ResourceAccountingFilter}.
+     */
+    public static class ResourceAccounting {
+
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    public static class Security {
+
+        private final JwtCache jwtCache = new JwtCache();
+
+        private final PasswordEncoder passwordEncoder = new PasswordEncoder();
+
+        public JwtCache getJwtCache() {
+            return jwtCache;
+        }
+
+        public PasswordEncoder getPasswordEncoder() {
+            return passwordEncoder;
+        }
+
+        /**
+         * Cache of already verified JWTs, see {@link rocks.zipcode.security.CachingJwtDecoder}.
+         */
+        public static class JwtCache {
+
+            private boolean enabled = true;
+
+            private int maxEntries = 10_000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(int maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+        }
+
+        /**
+         * Bounded pool hashing passwords, see {@link rocks.zipcode.security.BoundedPasswordEncoder}.
+         * A pool size of {@code 0} means half of the available processors.
+         */
+        public static class PasswordEncoder {
+
+            private int poolSize = 0;
+
+            private int queueCapacity = 32;
+
+            private Duration queueTimeout = Duration.ofSeconds(2);
+
+            private Duration retryAfter = Duration.ofSeconds(5);
+
+            public int getPoolSize() {
+                return poolSize;
+            }
+
+            public void setPoolSize(int poolSize) {
+                this.poolSize = poolSize;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public Duration getQueueTimeout() {
+                return queueTimeout;
+            }
+
+            public void setQueueTimeout(Duration queueTimeout) {
+                this.queueTimeout = queueTimeout;
+            }
+
+            public Duration getRetryAfter() {
+                return retryAfter;
+            }
+
+            public void setRetryAfter(Duration retryAfter) {
+                this.retryAfter = retryAfter;
+            }
+        }
+    }
+
+    /**
+     * JDBC statements counted per request, see {@link rocks.zipcode.web.filter.StatementCountingFilter}.
+     */
+    public static class StatementCounting {
+
+        private boolean enabled = true;
+
+        private int warnThreshold = 25;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getWarnThreshold() {
+            return warnThreshold;
+        }
+
+        public void setWarnThreshold(int warnThreshold) {
+            this.warnThreshold = warnThreshold;
+        }
+    }
+
+    /**
+     * Background generation of the thumbnails and previews of image attachments, see
+     * {@link rocks.zipcode.service.ThumbnailService}.
+     */
+    public static class Thumbnails {
+
+        private boolean enabled = true;
+
+        private int poolSize = 2;
+
+        private int queueCapacity = 100;
+
+        private int thumbnailSize = 200;
+
+        private int previewSize = 1024;
+
+        private float jpegQuality = 0.8f;
+
+        private long maxPixels = 40_000_000L;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getThumbnailSize() {
+            return thumbnailSize;
+        }
+
+        public void setThumbnailSize(int thumbnailSize) {
+            this.thumbnailSize = thumbnailSize;
+        }
+
+        public int getPreviewSize() {
+            return previewSize;
+        }
+
+        public void setPreviewSize(int previewSize) {
+            this.previewSize = previewSize;
+        }
+
+        public float getJpegQuality() {
+            return jpegQuality;
+        }
+
+        public void setJpegQuality(float jpegQuality) {
+            this.jpegQuality = jpegQuality;
+        }
+
+        public long getMaxPixels() {
+            return maxPixels;
+        }
+
+        public void setMaxPixels(long maxPixels) {
+            this.maxPixels = maxPixels;
+        }
+    }
+
+    /**
+     * Nightly deletion of not activated users, see {@link rocks.zipcode.service.job.NotActivatedUsersCleanupJob}.
+     */
+    public static class UserCleanup {
+
+        private String cron = "0 0 1 * * ?";
+
+        private int shards = 1;
+
+        private int chunkSize = 500;
+
+        public String getCron() {
+            return cron;
+        }
+
+        public void setCron(String cron) {
+            this.cron = cron;
+        }
+
+        public int getShards() {
+            return shards;
+        }
+
+        public void setShards(int shards) {
+            this.shards = shards;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    /**
+     * Virtual thread support, enabled with {@code spring.threads.virtual.enabled}, see {@link VirtualThreadsConfiguration}.
+     */
+    public static class VirtualThreads {
+
+        private Duration pinnedThreshold = Duration.ofMillis(20);
+
+        public Duration getPinnedThreshold() {
+            return pinnedThreshold;
+        }
+
+        public void setPinnedThreshold(Duration pinnedThreshold) {
+            this.pinnedThreshold = pinnedThreshold;
+        }
+    }
+
+    /**
+     * Exports of the workspaces to ZIP archives, see {@link rocks.zipcode.service.WorkspaceExportService}.
+     */
+    public static class WorkspaceExport {
+
+        private String directory = "data/exports";
+
+        private int fetchSize = 500;
+
+        private int compressionLevel = 6;
+
+        private Duration retention = Duration.ofDays(7);
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+
+        public int getCompressionLevel() {
+            return compressionLevel;
+        }
+
+        public void setCompressionLevel(int compressionLevel) {
+            this.compressionLevel = compressionLevel;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
@@ -0,0 +1,19 @@
+package rocks.zipcode.config;
+
+import java.nio.file.Path;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import rocks.zipcode.service.storage.ContentStore;
+import rocks.zipcode.service.storage.FileSystemContentStore;
+
+/**
+ * Storage of the attachment contents, in {@code application.attachments.directory}.
+ */
+@Configuration
+public class AttachmentConfiguration {
+
+    @Bean
+    public ContentStore contentStore(ApplicationProperties applicationProperties) {
+        return new FileSystemContentStore(Path.of(applicationProperties.getAttachments().getDirectory()));
+    }
+}
@@ -1,8 +1,13 @@
 package rocks.zipcode.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import java.sql.SQLException;
+import javax.sql.DataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -10,6 +15,9 @@ import org.springframework.core.env.Environment;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import rocks.zipcode.management.jdbc.InstrumentedDataSource;
+import rocks.zipcode.management.jdbc.QueryShapeStatistics;
+import rocks.zipcode.management.jdbc.QueryShapesEndpoint;
 import tech.jhipster.config.JHipsterConstants;
 import tech.jhipster.config.h2.H2ConfigurationHelper;
 
@@ -19,6 +27,8 @@ import tech.jhipster.config.h2.H2ConfigurationHelper;
 @EnableTransactionManagement
 public class DatabaseConfiguration {
 
+    private static final String APPLICATION_DATA_SOURCE = "dataSource";
+
     private final Logger log = LoggerFactory.getLogger(DatabaseConfiguration.class);
 
     private final Environment env;
@@ -41,6 +51,42 @@ public class DatabaseConfiguration {
         return H2ConfigurationHelper.createServer(port);
     }
 
+    /**
+     * Wraps the data source so that the JDBC statements of each request can be counted, and timed per shape.
+     */
+    @Bean
+    public static BeanPostProcessor instrumentedDataSourcePostProcessor(
+        Environment env,
+        ObjectProvider<QueryShapeStatistics> queryShapeStatistics
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // only the data source used by the application, not the pools behind a read replica routing one
+                if (bean instanceof DataSource dataSource && APPLICATION_DATA_SOURCE.equals(beanName)) {
+                    QueryShapeStatistics statistics = queryShapeStatistics.getIfAvailable();
+                    if (statistics != null || env.getProperty("application.statement-counting.enabled", Boolean.class, true)) {
+                        return new InstrumentedDataSource(dataSource, statistics);
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.query-shapes", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public QueryShapeStatistics queryShapeStatistics(MeterRegistry meterRegistry, ApplicationProperties applicationProperties) {
+        ApplicationProperties.QueryShapes properties = applicationProperties.getQueryShapes();
+        return new QueryShapeStatistics(meterRegistry, properties.getSlowThreshold(), properties.getMaxShapes());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.query-shapes", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public QueryShapesEndpoint queryShapesEndpoint(QueryShapeStatistics queryShapeStatistics, ApplicationProperties applicationProperties) {
+        return new QueryShapesEndpoint(queryShapeStatistics, applicationProperties.getQueryShapes().getTop());
+    }
+
     private String getValidPortForH2() {
         int port = Integer.parseInt(env.getProperty("server.port"));
         if (port < 10000) {
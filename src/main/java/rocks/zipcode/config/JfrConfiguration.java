@@ -0,0 +1,26 @@
+package rocks.zipcode.config;
+
+import java.nio.file.Path;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import rocks.zipcode.management.JfrRecordingEndpoint;
+
+/**
+ * On-demand JFR recordings, at {@code /management/jfr}, which is restricted to admins like the other management routes.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.jfr", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class JfrConfiguration {
+
+    @Bean
+    public JfrRecordingEndpoint jfrRecordingEndpoint(ApplicationProperties applicationProperties) {
+        ApplicationProperties.Jfr properties = applicationProperties.getJfr();
+        return new JfrRecordingEndpoint(
+            Path.of(properties.getDirectory()),
+            properties.getMaxDuration(),
+            properties.getMaxRecordings(),
+            properties.getSummaryTop()
+        );
+    }
+}
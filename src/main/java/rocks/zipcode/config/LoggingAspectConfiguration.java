@@ -1,5 +1,7 @@
 package rocks.zipcode.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
 import rocks.zipcode.aop.logging.LoggingAspect;
@@ -11,7 +13,18 @@ public class LoggingAspectConfiguration {
 
     @Bean
     @Profile(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)
+    @ConditionalOnProperty(prefix = "application.method-timing", name = "enabled", havingValue = "false", matchIfMissing = true)
     public LoggingAspect loggingAspect(Environment env) {
         return new LoggingAspect(env);
     }
+
+    /**
+     * The aspect in timing mode, which is cheap enough for production.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.method-timing", name = "enabled", havingValue = "true")
+    public LoggingAspect timingLoggingAspect(Environment env, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.MethodTiming properties = applicationProperties.getMethodTiming();
+        return new LoggingAspect(env, properties.getSlowCallThreshold(), properties.getSlowCallLogInterval(), meterRegistry);
+    }
 }
@@ -0,0 +1,35 @@
+package rocks.zipcode.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+import rocks.zipcode.repository.MessageIdRepository;
+import rocks.zipcode.repository.log.LogStructuredMessageStore;
+
+/**
+ * With {@code application.message-store.type=log}, the messages are stored in segment files instead of the message
+ * table, see {@link LogStructuredMessageStore}; it replaces the {@link rocks.zipcode.repository.JpaMessageStore}
+ * wherever a {@link rocks.zipcode.repository.MessageStore} is used.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.message-store", name = "type", havingValue = "log")
+public class MessageStoreConfiguration {
+
+    @Bean
+    public LogStructuredMessageStore logStructuredMessageStore(
+        ApplicationProperties applicationProperties,
+        MessageIdRepository messageIdRepository,
+        ObjectProvider<TaskScheduler> taskScheduler,
+        MeterRegistry meterRegistry
+    ) {
+        return new LogStructuredMessageStore(
+            applicationProperties.getMessageStore(),
+            messageIdRepository::allocate,
+            taskScheduler.getIfUnique(),
+            meterRegistry
+        );
+    }
+}
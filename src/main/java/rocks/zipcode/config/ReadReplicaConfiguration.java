@@ -0,0 +1,95 @@
+package rocks.zipcode.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.TaskScheduler;
+import rocks.zipcode.management.jdbc.ReplicaHealthMonitor;
+
+/**
+ * Routes read-only transactions to a read replica, see {@link ReadReplicaRoutingDataSource}.
+ * <p>
+ * The primary pool is configured with the usual {@code spring.datasource} properties and the replica pool with
+ * {@code application.read-replica}; the application sees a single {@code dataSource} routing between the two.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.read-replica", name = "enabled", havingValue = "true")
+public class ReadReplicaConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(ReadReplicaConfiguration.class);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties dataSourceProperties, ApplicationProperties applicationProperties) {
+        ApplicationProperties.ReadReplica properties = applicationProperties.getReadReplica();
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("Hikari-replica");
+        replica.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        replica.setJdbcUrl(properties.getUrl());
+        replica.setUsername(properties.getUsername());
+        replica.setPassword(properties.getPassword());
+        replica.setMaximumPoolSize(properties.getMaximumPoolSize());
+        replica.setMinimumIdle(properties.getMinimumIdle());
+        replica.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+        replica.setAutoCommit(false);
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    public ReplicaHealthMonitor replicaHealthMonitor(
+        @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+        @Qualifier("replicaDataSource") HikariDataSource replicaDataSource,
+        TaskScheduler taskScheduler,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.ReadReplica properties = applicationProperties.getReadReplica();
+        return new ReplicaHealthMonitor(
+            primaryDataSource,
+            replicaDataSource,
+            taskScheduler,
+            properties.getCheckInterval(),
+            properties.getMaxLag(),
+            Clock.systemUTC(),
+            meterRegistry
+        );
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+        @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+        @Qualifier("replicaDataSource") HikariDataSource replicaDataSource,
+        ReplicaHealthMonitor replicaHealthMonitor,
+        ApplicationProperties applicationProperties
+    ) {
+        log.info("Routing read-only transactions to the read replica at {}", replicaDataSource.getJdbcUrl());
+        ApplicationProperties.ReadReplica properties = applicationProperties.getReadReplica();
+        return new LazyConnectionDataSourceProxy(
+            new ReadReplicaRoutingDataSource(
+                primaryDataSource,
+                replicaDataSource,
+                replicaHealthMonitor::isAvailable,
+                properties.getStickiness(),
+                System::nanoTime
+            )
+        );
+    }
+}
@@ -0,0 +1,108 @@
+package rocks.zipcode.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import rocks.zipcode.security.SecurityUtils;
+
+/**
+ * Sends the connections of read-only transactions to the read replica, and everything else to the primary.
+ * <p>
+ * Reads fall back to the primary while the replica is unavailable and, for {@code stickiness} after a user committed a
+ * read-write transaction, for that user's own transactions so that they read their writes. This stickiness is kept per
+ * node. The routing relies on the transaction being known when the connection is fetched, so this data source must be
+ * wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY,
+        REPLICA,
+    }
+
+    private static final int EVICTION_THRESHOLD = 10_000;
+
+    private final BooleanSupplier replicaAvailable;
+
+    private final long stickinessNanos;
+
+    private final LongSupplier nanoTime;
+
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadReplicaRoutingDataSource(
+        DataSource primary,
+        DataSource replica,
+        BooleanSupplier replicaAvailable,
+        Duration stickiness,
+        LongSupplier nanoTime
+    ) {
+        this.replicaAvailable = replicaAvailable;
+        this.stickinessNanos = stickiness.toNanos();
+        this.nanoTime = nanoTime;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Target determineCurrentLookupKey() {
+        String login = SecurityUtils.getCurrentUserLogin().orElse(null);
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (login != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new WriteSynchronization(login));
+            }
+            return Target.PRIMARY;
+        }
+        if (!replicaAvailable.getAsBoolean() || isSticky(login)) {
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+
+    private boolean isSticky(String login) {
+        if (login == null) {
+            return false;
+        }
+        Long lastWrite = lastWrites.get(login);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (nanoTime.getAsLong() - lastWrite < stickinessNanos) {
+            return true;
+        }
+        lastWrites.remove(login, lastWrite);
+        return false;
+    }
+
+    /**
+     * Forgets the users whose stickiness expired without them reading again.
+     */
+    private void evictExpired() {
+        long now = nanoTime.getAsLong();
+        lastWrites.values().removeIf(lastWrite -> now - lastWrite >= stickinessNanos);
+    }
+
+    private final class WriteSynchronization implements TransactionSynchronization {
+
+        private final String login;
+
+        private WriteSynchronization(String login) {
+            this.login = login;
+        }
+
+        @Override
+        public void afterCommit() {
+            if (lastWrites.size() >= EVICTION_THRESHOLD) {
+                evictExpired();
+            }
+            lastWrites.put(login, nanoTime.getAsLong());
+        }
+    }
+}
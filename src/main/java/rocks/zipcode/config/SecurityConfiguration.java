@@ -3,6 +3,7 @@ package rocks.zipcode.config;
 import static org.springframework.security.config.Customizer.withDefaults;
 import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
@@ -34,14 +35,28 @@ public class SecurityConfiguration {
 
     private final JHipsterProperties jHipsterProperties;
 
-    public SecurityConfiguration(Environment env, JHipsterProperties jHipsterProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    public SecurityConfiguration(Environment env, JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         this.env = env;
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        ApplicationProperties.Security.PasswordEncoder properties = applicationProperties.getSecurity().getPasswordEncoder();
+        int poolSize = properties.getPoolSize() > 0
+            ? properties.getPoolSize()
+            : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(
+            new BCryptPasswordEncoder(),
+            poolSize,
+            properties.getQueueCapacity(),
+            properties.getQueueTimeout(),
+            properties.getRetryAfter(),
+            meterRegistry
+        );
     }
 
     @Bean
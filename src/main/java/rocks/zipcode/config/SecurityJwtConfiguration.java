@@ -19,6 +19,7 @@ import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import rocks.zipcode.management.SecurityMetersService;
+import rocks.zipcode.security.CachingJwtDecoder;
 
 @Configuration
 public class SecurityJwtConfiguration {
@@ -28,8 +29,24 @@ public class SecurityJwtConfiguration {
     @Value("${jhipster.security.authentication.jwt.base64-secret}")
     private String jwtKey;
 
+    private final ApplicationProperties applicationProperties;
+
+    public SecurityJwtConfiguration(ApplicationProperties applicationProperties) {
+        this.applicationProperties = applicationProperties;
+    }
+
     @Bean
     public JwtDecoder jwtDecoder(SecurityMetersService metersService) {
+        JwtDecoder verifyingDecoder = verifyingJwtDecoder(metersService);
+        ApplicationProperties.Security.JwtCache jwtCache = applicationProperties.getSecurity().getJwtCache();
+        if (jwtCache.isEnabled()) {
+            log.debug("Caching up to {} verified JWTs", jwtCache.getMaxEntries());
+            return new CachingJwtDecoder(verifyingDecoder, jwtCache.getMaxEntries());
+        }
+        return verifyingDecoder;
+    }
+
+    private JwtDecoder verifyingJwtDecoder(SecurityMetersService metersService) {
         NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withSecretKey(getSecretKey()).macAlgorithm(JWT_ALGORITHM).build();
         return token -> {
             try {
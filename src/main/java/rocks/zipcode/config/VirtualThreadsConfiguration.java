@@ -0,0 +1,38 @@
+package rocks.zipcode.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.embedded.undertow.UndertowDeploymentInfoCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import rocks.zipcode.management.VirtualThreadPinningMonitor;
+
+/**
+ * Runs servlet request handling on virtual threads when {@code spring.threads.virtual.enabled} is set and the JVM
+ * supports them (Java 21+). {@code @Async} tasks follow the same switch, see {@link AsyncConfiguration}.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(VirtualThreadsConfiguration.class);
+
+    /**
+     * Undertow dispatches blocking servlet work to the deployment executor when one is set, instead of its XNIO worker
+     * pool; the IO threads are unaffected.
+     */
+    @Bean
+    public UndertowDeploymentInfoCustomizer virtualThreadsUndertowDeploymentInfoCustomizer() {
+        log.debug("Dispatching servlet requests to virtual threads");
+        return deploymentInfo -> deploymentInfo.setExecutor(new VirtualThreadTaskExecutor("undertow-virtual-"));
+    }
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry meterRegistry, ApplicationProperties applicationProperties) {
+        return new VirtualThreadPinningMonitor(meterRegistry, applicationProperties.getVirtualThreads().getPinnedThreshold());
+    }
+}
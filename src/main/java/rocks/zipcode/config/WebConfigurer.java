@@ -2,13 +2,19 @@ package rocks.zipcode.config;
 
 import static java.net.URLDecoder.decode;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.*;
 import java.io.File;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
 import org.springframework.boot.web.server.*;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.boot.web.servlet.ServletContextInitializer;
 import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
 import org.springframework.context.annotation.Bean;
@@ -19,6 +25,12 @@ import org.springframework.util.CollectionUtils;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
+import rocks.zipcode.web.filter.AdaptiveConcurrencyLimitFilter;
+import rocks.zipcode.web.filter.AdaptiveConcurrencyLimiter;
+import rocks.zipcode.web.filter.RateLimitFilter;
+import rocks.zipcode.web.filter.RequestCoalescingFilter;
+import rocks.zipcode.web.filter.ResourceAccountingFilter;
+import rocks.zipcode.web.filter.StatementCountingFilter;
 import tech.jhipster.config.JHipsterConstants;
 import tech.jhipster.config.JHipsterProperties;
 import tech.jhipster.config.h2.H2ConfigurationHelper;
@@ -100,6 +112,129 @@ public class WebConfigurer implements ServletContextInitializer, WebServerFactor
         return new CorsFilter(source);
     }
 
+    /**
+     * Sheds {@code /api} requests beyond the adaptive concurrency limit, before any authentication work is done.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.concurrency-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<AdaptiveConcurrencyLimitFilter> concurrencyLimitFilter(
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.ConcurrencyLimit properties = applicationProperties.getConcurrencyLimit();
+        log.debug("Registering adaptive concurrency limit filter");
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+            properties.getInitialLimit(),
+            properties.getMinLimit(),
+            properties.getMaxLimit(),
+            properties.getLatencyThreshold(),
+            properties.getBackoffRatio(),
+            properties.getBackoffInterval()
+        );
+        FilterRegistrationBean<AdaptiveConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+            new AdaptiveConcurrencyLimitFilter(limiter, properties.getRetryAfter(), meterRegistry)
+        );
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    /**
+     * Rate limits {@code /api} requests per route group; runs after Spring Security so that requests can be keyed by user.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.RateLimit properties = applicationProperties.getRateLimit();
+        List<RateLimitFilter.Rule> rules = properties
+            .getGroups()
+            .entrySet()
+            .stream()
+            .map(group ->
+                new RateLimitFilter.Rule(
+                    group.getKey(),
+                    List.copyOf(group.getValue().getPaths()),
+                    new HashSet<>(group.getValue().getMethods()),
+                    RateLimitFilter.KeyBy.valueOf(group.getValue().getKeyBy().name()),
+                    group.getValue().getCapacity(),
+                    group.getValue().getPeriod()
+                )
+            )
+            .toList();
+        log.debug("Registering rate limit filter with groups {}", properties.getGroups().keySet());
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(
+            new RateLimitFilter(rules, properties.getMaxKeys(), meterRegistry)
+        );
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+
+    /**
+     * Coalesces identical concurrent reads; runs after rate limiting so that throttled clients do not join a flight.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.coalescing", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<RequestCoalescingFilter> requestCoalescingFilter(
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.Coalescing properties = applicationProperties.getCoalescing();
+        List<RequestCoalescingFilter.Route> routes = properties
+            .getRoutes()
+            .entrySet()
+            .stream()
+            .map(route ->
+                new RequestCoalescingFilter.Route(
+                    route.getKey(),
+                    List.copyOf(route.getValue().getPaths()),
+                    RequestCoalescingFilter.Scope.valueOf(route.getValue().getScope().name())
+                )
+            )
+            .toList();
+        log.debug("Registering request coalescing filter with routes {}", properties.getRoutes().keySet());
+        FilterRegistrationBean<RequestCoalescingFilter> registration = new FilterRegistrationBean<>(
+            new RequestCoalescingFilter(routes, properties.getWaitTimeout(), meterRegistry)
+        );
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 2);
+        return registration;
+    }
+
+    /**
+     * Counts the JDBC statements of each {@code /api} request; runs before the other filters, so that the statements of the
+     * whole chain count.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.statement-counting", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<StatementCountingFilter> statementCountingFilter(
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        log.debug("Registering JDBC statement counting filter");
+        FilterRegistrationBean<StatementCountingFilter> registration = new FilterRegistrationBean<>(
+            new StatementCountingFilter(applicationProperties.getStatementCounting().getWarnThreshold(), meterRegistry)
+        );
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 2);
+        return registration;
+    }
+
+    /**
+     * Accounts the heap allocated and the CPU time of each {@code /api} request; runs first, so that the whole chain counts.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.resource-accounting", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<ResourceAccountingFilter> resourceAccountingFilter(MeterRegistry meterRegistry) {
+        log.debug("Registering resource accounting filter");
+        FilterRegistrationBean<ResourceAccountingFilter> registration = new FilterRegistrationBean<>(
+            new ResourceAccountingFilter(meterRegistry)
+        );
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 3);
+        return registration;
+    }
+
     /**
      * Initializes H2 console.
      */
@@ -0,0 +1,265 @@
+package rocks.zipcode.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import rocks.zipcode.domain.enumeration.AttachmentStatus;
+import rocks.zipcode.domain.enumeration.PreviewStatus;
+
+/**
+ * A file attached to a message, its content is uploaded in chunks to the
+ * {@link rocks.zipcode.service.storage.ContentStore} under {@code storageKey}.
+ * <p>
+ * The message is referenced by id only: the message table has no foreign keys once partitioned, and messages may live
+ * in the log-structured store.
+ */
+@Entity
+@Table(name = "attachment")
+@JsonIgnoreProperties(
+    value = { "received", "status", "createdDate", "completedDate", "previewStatus", "thumbnailUrl", "previewUrl" },
+    allowGetters = true
+)
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class Attachment implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Shown instead of the thumbnail and the preview until they are generated.
+     */
+    public static final String PREVIEW_PLACEHOLDER_URL = "/content/images/attachment-preview-pending.svg";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Size(max = 255)
+    @Column(name = "filename", length = 255, nullable = false)
+    private String filename;
+
+    @NotNull
+    @Size(max = 255)
+    @Column(name = "content_type", length = 255, nullable = false)
+    private String contentType;
+
+    @NotNull
+    @Min(0)
+    @Column(name = "content_length", nullable = false)
+    private Long contentLength;
+
+    @Column(name = "received", nullable = false)
+    private long received;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private AttachmentStatus status = AttachmentStatus.UPLOADING;
+
+    @JsonIgnore
+    @Size(max = 255)
+    @Column(name = "storage_key", length = 255)
+    private String storageKey;
+
+    @Column(name = "message_id")
+    private Long messageId;
+
+    /**
+     * SHA-256 of the content, in hex, once it is complete; may be declared on creation, to skip the upload of a content
+     * that is already stored.
+     */
+    @Size(max = 64)
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "preview_status", length = 20, nullable = false)
+    private PreviewStatus previewStatus = PreviewStatus.NONE;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false, updatable = false)
+    private Instant createdDate = Instant.now();
+
+    @Column(name = "completed_date")
+    private Instant completedDate;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public Attachment id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFilename() {
+        return this.filename;
+    }
+
+    public Attachment filename(String filename) {
+        this.setFilename(filename);
+        return this;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public String getContentType() {
+        return this.contentType;
+    }
+
+    public Attachment contentType(String contentType) {
+        this.setContentType(contentType);
+        return this;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Long getContentLength() {
+        return this.contentLength;
+    }
+
+    public Attachment contentLength(Long contentLength) {
+        this.setContentLength(contentLength);
+        return this;
+    }
+
+    public void setContentLength(Long contentLength) {
+        this.contentLength = contentLength;
+    }
+
+    public long getReceived() {
+        return this.received;
+    }
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    public AttachmentStatus getStatus() {
+        return this.status;
+    }
+
+    public void setStatus(AttachmentStatus status) {
+        this.status = status;
+    }
+
+    public String getStorageKey() {
+        return this.storageKey;
+    }
+
+    public void setStorageKey(String storageKey) {
+        this.storageKey = storageKey;
+    }
+
+    public Long getMessageId() {
+        return this.messageId;
+    }
+
+    public Attachment messageId(Long messageId) {
+        this.setMessageId(messageId);
+        return this;
+    }
+
+    public void setMessageId(Long messageId) {
+        this.messageId = messageId;
+    }
+
+    public String getContentHash() {
+        return this.contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public PreviewStatus getPreviewStatus() {
+        return this.previewStatus;
+    }
+
+    public void setPreviewStatus(PreviewStatus previewStatus) {
+        this.previewStatus = previewStatus;
+    }
+
+    /**
+     * The URL of the thumbnail, the placeholder while it is generated, or {@code null} if there is none.
+     */
+    public String getThumbnailUrl() {
+        return derivativeUrl("thumbnail");
+    }
+
+    /**
+     * The URL of the preview, the placeholder while it is generated, or {@code null} if there is none.
+     */
+    public String getPreviewUrl() {
+        return derivativeUrl("preview");
+    }
+
+    private String derivativeUrl(String variant) {
+        return switch (previewStatus) {
+            case READY -> "/api/attachments/" + id + "/" + variant;
+            case PENDING -> PREVIEW_PLACEHOLDER_URL;
+            case NONE, FAILED -> null;
+        };
+    }
+
+    public Instant getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getCompletedDate() {
+        return this.completedDate;
+    }
+
+    public void setCompletedDate(Instant completedDate) {
+        this.completedDate = completedDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Attachment)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((Attachment) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "Attachment{" +
+            "id=" + getId() +
+            ", filename='" + getFilename() + "'" +
+            ", contentType='" + getContentType() + "'" +
+            ", contentLength=" + getContentLength() +
+            ", received=" + getReceived() +
+            ", status='" + getStatus() + "'" +
+            ", messageId=" + getMessageId() +
+            ", previewStatus='" + getPreviewStatus() + "'" +
+            "}";
+    }
+}
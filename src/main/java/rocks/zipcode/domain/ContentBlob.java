@@ -0,0 +1,147 @@
+package rocks.zipcode.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * A content stored once for all the attachments with the same SHA-256, with the number of attachments referencing it.
+ * <p>
+ * A blob that is no longer referenced is kept until it is collected, and reused if the same content is uploaded again
+ * in the meantime.
+ */
+@Entity
+@Table(name = "content_blob")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class ContentBlob implements Serializable, Persistable<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    @Size(min = 64, max = 64)
+    @Id
+    @Column(name = "hash", length = 64, nullable = false)
+    private String hash;
+
+    @NotNull
+    @Column(name = "content_length", nullable = false)
+    private Long contentLength;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false, updatable = false)
+    private Instant createdDate = Instant.now();
+
+    /**
+     * When the last reference was released, {@code null} while the blob is referenced.
+     */
+    @Column(name = "released_date")
+    private Instant releasedDate;
+
+    @Transient
+    private boolean isPersisted;
+
+    public String getHash() {
+        return this.hash;
+    }
+
+    public ContentBlob hash(String hash) {
+        this.setHash(hash);
+        return this;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public Long getContentLength() {
+        return this.contentLength;
+    }
+
+    public ContentBlob contentLength(Long contentLength) {
+        this.setContentLength(contentLength);
+        return this;
+    }
+
+    public void setContentLength(Long contentLength) {
+        this.contentLength = contentLength;
+    }
+
+    public int getRefCount() {
+        return this.refCount;
+    }
+
+    public ContentBlob refCount(int refCount) {
+        this.setRefCount(refCount);
+        return this;
+    }
+
+    public void setRefCount(int refCount) {
+        this.refCount = refCount;
+    }
+
+    public Instant getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getReleasedDate() {
+        return this.releasedDate;
+    }
+
+    public void setReleasedDate(Instant releasedDate) {
+        this.releasedDate = releasedDate;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void updateEntityState() {
+        this.isPersisted = true;
+    }
+
+    @Override
+    public String getId() {
+        return this.hash;
+    }
+
+    @Transient
+    @Override
+    public boolean isNew() {
+        return !this.isPersisted;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ContentBlob)) {
+            return false;
+        }
+        return getHash() != null && getHash().equals(((ContentBlob) o).getHash());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getHash());
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ContentBlob{" +
+            "hash='" + getHash() + "'" +
+            ", contentLength=" + getContentLength() +
+            ", refCount=" + getRefCount() +
+            ", releasedDate='" + getReleasedDate() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,101 @@
+package rocks.zipcode.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A lease on a clustered job (or one of its shards): only the node owning an unexpired lease may run it.
+ */
+@Entity
+@Table(name = "job_lease")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class JobLease implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    @Size(max = 150)
+    @Id
+    @Column(name = "lease_key", length = 150, nullable = false)
+    private String leaseKey;
+
+    @Size(max = 255)
+    @Column(name = "owner")
+    private String owner;
+
+    @Column(name = "locked_at")
+    private Instant lockedAt;
+
+    @NotNull
+    @Column(name = "locked_until", nullable = false)
+    private Instant lockedUntil;
+
+    public JobLease() {}
+
+    public JobLease(String leaseKey) {
+        this.leaseKey = leaseKey;
+        this.lockedUntil = Instant.EPOCH;
+    }
+
+    public String getLeaseKey() {
+        return this.leaseKey;
+    }
+
+    public void setLeaseKey(String leaseKey) {
+        this.leaseKey = leaseKey;
+    }
+
+    public String getOwner() {
+        return this.owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public Instant getLockedAt() {
+        return this.lockedAt;
+    }
+
+    public void setLockedAt(Instant lockedAt) {
+        this.lockedAt = lockedAt;
+    }
+
+    public Instant getLockedUntil() {
+        return this.lockedUntil;
+    }
+
+    public void setLockedUntil(Instant lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof JobLease)) {
+            return false;
+        }
+        return getLeaseKey() != null && getLeaseKey().equals(((JobLease) o).getLeaseKey());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "JobLease{" +
+            "leaseKey='" + getLeaseKey() + "'" +
+            ", owner='" + getOwner() + "'" +
+            ", lockedAt='" + getLockedAt() + "'" +
+            ", lockedUntil='" + getLockedUntil() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,183 @@
+package rocks.zipcode.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import rocks.zipcode.domain.enumeration.JobRunStatus;
+
+/**
+ * One execution of a clustered job shard, kept as run history.
+ */
+@Entity
+@Table(name = "job_run")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class JobRun implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Size(max = 100)
+    @Column(name = "job_name", length = 100, nullable = false)
+    private String jobName;
+
+    @Column(name = "shard_index", nullable = false)
+    private int shardIndex;
+
+    @Column(name = "shard_count", nullable = false)
+    private int shardCount;
+
+    @NotNull
+    @Size(max = 255)
+    @Column(name = "node", nullable = false)
+    private String node;
+
+    @NotNull
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @NotNull
+    @Column(name = "finished_at", nullable = false)
+    private Instant finishedAt;
+
+    @Column(name = "duration_ms", nullable = false)
+    private long durationMs;
+
+    @Column(name = "rows_processed", nullable = false)
+    private long rowsProcessed;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private JobRunStatus status;
+
+    @Size(max = 1024)
+    @Column(name = "error", length = 1024)
+    private String error;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getJobName() {
+        return this.jobName;
+    }
+
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+
+    public int getShardIndex() {
+        return this.shardIndex;
+    }
+
+    public void setShardIndex(int shardIndex) {
+        this.shardIndex = shardIndex;
+    }
+
+    public int getShardCount() {
+        return this.shardCount;
+    }
+
+    public void setShardCount(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    public String getNode() {
+        return this.node;
+    }
+
+    public void setNode(String node) {
+        this.node = node;
+    }
+
+    public Instant getStartedAt() {
+        return this.startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return this.finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public long getDurationMs() {
+        return this.durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public long getRowsProcessed() {
+        return this.rowsProcessed;
+    }
+
+    public void setRowsProcessed(long rowsProcessed) {
+        this.rowsProcessed = rowsProcessed;
+    }
+
+    public JobRunStatus getStatus() {
+        return this.status;
+    }
+
+    public void setStatus(JobRunStatus status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return this.error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof JobRun)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((JobRun) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "JobRun{" +
+            "id=" + getId() +
+            ", jobName='" + getJobName() + "'" +
+            ", shardIndex=" + getShardIndex() +
+            ", shardCount=" + getShardCount() +
+            ", node='" + getNode() + "'" +
+            ", startedAt='" + getStartedAt() + "'" +
+            ", durationMs=" + getDurationMs() +
+            ", rowsProcessed=" + getRowsProcessed() +
+            ", status='" + getStatus() + "'" +
+            "}";
+    }
+}
@@ -3,6 +3,7 @@ package rocks.zipcode.domain;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 import org.hibernate.annotations.Cache;
@@ -14,6 +15,7 @@ import org.hibernate.annotations.CacheConcurrencyStrategy;
 @Entity
 @Table(name = "message")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@JsonIgnoreProperties(value = { "createdDate" }, allowGetters = true)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Message implements Serializable {
 
@@ -33,6 +35,12 @@ public class Message implements Serializable {
     @Column(name = "timestamp")
     private Integer timestamp;
 
+    /**
+     * Partitioning key of the message table, see {@link rocks.zipcode.repository.MessagePartitionRepository}.
+     */
+    @Column(name = "created_date", nullable = false, updatable = false)
+    private Instant createdDate = Instant.now();
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties(value = { "messages" }, allowSetters = true)
     private Mention mentions;
@@ -101,6 +109,19 @@ public class Message implements Serializable {
         this.timestamp = timestamp;
     }
 
+    public Instant getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public Message createdDate(Instant createdDate) {
+        this.setCreatedDate(createdDate);
+        return this;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
     public Mention getMentions() {
         return this.mentions;
     }
@@ -203,6 +224,7 @@ public class Message implements Serializable {
             ", uploads='" + getUploads() + "'" +
             ", pinned=" + getPinned() +
             ", timestamp=" + getTimestamp() +
+            ", createdDate='" + getCreatedDate() + "'" +
             "}";
     }
 }
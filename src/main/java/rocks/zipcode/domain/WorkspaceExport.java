@@ -0,0 +1,167 @@
+package rocks.zipcode.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import rocks.zipcode.domain.enumeration.WorkspaceExportStatus;
+
+/**
+ * An export of the workspaces and their content to a ZIP archive of NDJSON files, with its progress.
+ */
+@Entity
+@Table(name = "workspace_export")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class WorkspaceExport implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private WorkspaceExportStatus status = WorkspaceExportStatus.RUNNING;
+
+    @NotNull
+    @Size(max = 50)
+    @Column(name = "requested_by", length = 50, nullable = false)
+    private String requestedBy;
+
+    /**
+     * The entry of the archive being written.
+     */
+    @Size(max = 50)
+    @Column(name = "current_entry", length = 50)
+    private String currentEntry;
+
+    @Column(name = "rows_exported", nullable = false)
+    private long rowsExported;
+
+    /**
+     * The size of the archive, once complete.
+     */
+    @Column(name = "archive_size")
+    private Long archiveSize;
+
+    @Size(max = 1024)
+    @Column(name = "error", length = 1024)
+    private String error;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false, updatable = false)
+    private Instant createdDate = Instant.now();
+
+    @Column(name = "completed_date")
+    private Instant completedDate;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public WorkspaceExportStatus getStatus() {
+        return this.status;
+    }
+
+    public void setStatus(WorkspaceExportStatus status) {
+        this.status = status;
+    }
+
+    public String getRequestedBy() {
+        return this.requestedBy;
+    }
+
+    public WorkspaceExport requestedBy(String requestedBy) {
+        this.setRequestedBy(requestedBy);
+        return this;
+    }
+
+    public void setRequestedBy(String requestedBy) {
+        this.requestedBy = requestedBy;
+    }
+
+    public String getCurrentEntry() {
+        return this.currentEntry;
+    }
+
+    public void setCurrentEntry(String currentEntry) {
+        this.currentEntry = currentEntry;
+    }
+
+    public long getRowsExported() {
+        return this.rowsExported;
+    }
+
+    public void setRowsExported(long rowsExported) {
+        this.rowsExported = rowsExported;
+    }
+
+    public Long getArchiveSize() {
+        return this.archiveSize;
+    }
+
+    public void setArchiveSize(Long archiveSize) {
+        this.archiveSize = archiveSize;
+    }
+
+    public String getError() {
+        return this.error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Instant getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getCompletedDate() {
+        return this.completedDate;
+    }
+
+    public void setCompletedDate(Instant completedDate) {
+        this.completedDate = completedDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof WorkspaceExport)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((WorkspaceExport) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "WorkspaceExport{" +
+            "id=" + getId() +
+            ", status='" + getStatus() + "'" +
+            ", requestedBy='" + getRequestedBy() + "'" +
+            ", currentEntry='" + getCurrentEntry() + "'" +
+            ", rowsExported=" + getRowsExported() +
+            ", archiveSize=" + getArchiveSize() +
+            "}";
+    }
+}
@@ -0,0 +1,9 @@
+package rocks.zipcode.domain.enumeration;
+
+/**
+ * The AttachmentStatus enumeration.
+ */
+public enum AttachmentStatus {
+    UPLOADING,
+    COMPLETE,
+}
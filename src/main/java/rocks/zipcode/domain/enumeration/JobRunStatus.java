@@ -0,0 +1,9 @@
+package rocks.zipcode.domain.enumeration;
+
+/**
+ * The JobRunStatus enumeration.
+ */
+public enum JobRunStatus {
+    SUCCEEDED,
+    FAILED,
+}
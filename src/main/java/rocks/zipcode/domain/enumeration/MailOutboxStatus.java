@@ -0,0 +1,10 @@
+package rocks.zipcode.domain.enumeration;
+
+/**
+ * The MailOutboxStatus enumeration.
+ */
+public enum MailOutboxStatus {
+    PENDING,
+    SENT,
+    FAILED,
+}
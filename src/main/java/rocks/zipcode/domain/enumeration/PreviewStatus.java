@@ -0,0 +1,12 @@
+package rocks.zipcode.domain.enumeration;
+
+/**
+ * The PreviewStatus enumeration.
+ */
+public enum PreviewStatus {
+    /** Not an image, or not complete yet. */
+    NONE,
+    PENDING,
+    READY,
+    FAILED,
+}
@@ -0,0 +1,11 @@
+package rocks.zipcode.domain.enumeration;
+
+/**
+ * The WorkspaceExportStatus enumeration.
+ */
+public enum WorkspaceExportStatus {
+    RUNNING,
+    /** The archive can be downloaded. */
+    COMPLETE,
+    FAILED,
+}
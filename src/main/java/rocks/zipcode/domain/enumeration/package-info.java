@@ -0,0 +1,4 @@
+/**
+ * This package contains enumerations used by the domain.
+ */
+package rocks.zipcode.domain.enumeration;
@@ -0,0 +1,105 @@
+package rocks.zipcode.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.TimeUnit;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Micrometer instrumentation of an application task executor, using the same meter names as Micrometer's
+ * {@code ExecutorServiceMetrics} (tagged with the executor {@code name}):
+ * <ul>
+ *     <li>{@code executor.idle}: time a task waited between its submission and the start of its execution;</li>
+ *     <li>{@code executor}: execution time of the tasks;</li>
+ *     <li>{@code executor.queued}, {@code executor.queue.remaining}, {@code executor.active} and {@code executor.pool.size};</li>
+ *     <li>{@code executor.rejected}: tasks handed to the rejection policy because the pool and its queue were full.</li>
+ * </ul>
+ */
+public class AsyncExecutorMetrics {
+
+    public static final String REJECTED_METER_NAME = "executor.rejected";
+
+    private final MeterRegistry registry;
+
+    private final Tags tags;
+
+    private final Timer waitTimer;
+
+    private final Timer executionTimer;
+
+    private final Counter rejectedCounter;
+
+    public AsyncExecutorMetrics(MeterRegistry registry, String executorName) {
+        this.registry = registry;
+        this.tags = Tags.of("name", executorName);
+        this.waitTimer = Timer.builder("executor.idle")
+            .description("Time tasks waited in the queue before being executed")
+            .tags(tags)
+            .register(registry);
+        this.executionTimer = Timer.builder("executor").description("Timer for the execution of tasks").tags(tags).register(registry);
+        this.rejectedCounter = Counter.builder(REJECTED_METER_NAME)
+            .description("Tasks rejected because the executor was saturated")
+            .baseUnit("tasks")
+            .tags(tags)
+            .register(registry);
+    }
+
+    /**
+     * Records the wait and execution times of every task.
+     */
+    public TaskDecorator taskDecorator() {
+        return task -> {
+            long submitted = System.nanoTime();
+            return () -> {
+                long started = System.nanoTime();
+                waitTimer.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    task.run();
+                } finally {
+                    executionTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            };
+        };
+    }
+
+    /**
+     * Counts rejections before applying the given policy.
+     */
+    public RejectedExecutionHandler rejectedExecutionHandler(RejectedExecutionHandler policy) {
+        return (task, executor) -> {
+            rejectedCounter.increment();
+            policy.rejectedExecution(task, executor);
+        };
+    }
+
+    /**
+     * Registers the pool gauges; they read zero until the executor is initialized.
+     */
+    public void bindTo(ThreadPoolTaskExecutor executor) {
+        Gauge.builder("executor.queued", executor, ThreadPoolTaskExecutor::getQueueSize)
+            .description("The approximate number of tasks that are queued for execution")
+            .baseUnit("tasks")
+            .tags(tags)
+            .register(registry);
+        Gauge.builder("executor.queue.remaining", executor, e -> Math.max(0, e.getQueueCapacity() - e.getQueueSize()))
+            .description("The number of additional elements that this queue can ideally accept without blocking")
+            .baseUnit("tasks")
+            .tags(tags)
+            .register(registry);
+        Gauge.builder("executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+            .description("The approximate number of threads that are actively executing tasks")
+            .baseUnit("threads")
+            .tags(tags)
+            .register(registry);
+        Gauge.builder("executor.pool.size", executor, ThreadPoolTaskExecutor::getPoolSize)
+            .description("The current number of threads in the pool")
+            .baseUnit("threads")
+            .tags(tags)
+            .register(registry);
+    }
+}
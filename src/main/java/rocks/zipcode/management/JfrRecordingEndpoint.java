@@ -0,0 +1,184 @@
+package rocks.zipcode.management;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+
+/**
+ * Actuator endpoint starting JFR recordings on demand, at {@code /management/jfr}.
+ * <ul>
+ * <li>{@code POST /management/jfr} with {@code settings} ({@code default} or {@code profile}) and {@code duration}
+ * starts a recording; only one can run at a time.</li>
+ * <li>{@code GET /management/jfr} lists the recordings.</li>
+ * <li>{@code GET /management/jfr/{id}} downloads a finished recording, to open in JDK Mission Control; a running
+ * recording gets a 409.</li>
+ * <li>{@code GET /management/jfr/{id}/summary} lists its top allocation sites and hottest methods.</li>
+ * <li>{@code DELETE /management/jfr/{id}} stops a recording and deletes its file.</li>
+ * </ul>
+ * Only the {@code maxRecordings} most recent recordings are kept.
+ */
+@Endpoint(id = "jfr")
+public class JfrRecordingEndpoint implements DisposableBean {
+
+    private static final String SUMMARY = "summary";
+
+    private static final int STATUS_CONFLICT = 409;
+
+    private final Logger log = LoggerFactory.getLogger(JfrRecordingEndpoint.class);
+
+    private final Path directory;
+
+    private final Duration maxDuration;
+
+    private final int maxRecordings;
+
+    private final int summaryTop;
+
+    private final ConcurrentSkipListMap<Long, Recording> recordings = new ConcurrentSkipListMap<>();
+
+    public JfrRecordingEndpoint(Path directory, Duration maxDuration, int maxRecordings, int summaryTop) {
+        this.directory = directory;
+        this.maxDuration = maxDuration;
+        this.maxRecordings = maxRecordings;
+        this.summaryTop = summaryTop;
+    }
+
+    @ReadOperation
+    public List<RecordingDescriptor> recordings() {
+        return recordings.values().stream().map(RecordingDescriptor::of).toList();
+    }
+
+    @WriteOperation
+    public synchronized RecordingDescriptor start(@Nullable String settings, @Nullable Duration duration) {
+        String configurationName = settings == null ? "profile" : settings;
+        Duration recordingDuration = duration == null ? Duration.ofMinutes(1) : duration;
+        if (recordingDuration.isNegative() || recordingDuration.isZero() || recordingDuration.compareTo(maxDuration) > 0) {
+            throw new InvalidEndpointRequestException("Invalid duration " + recordingDuration, "The duration must be at most " + maxDuration);
+        }
+        if (recordings.values().stream().anyMatch(recording -> recording.getState() == RecordingState.RUNNING)) {
+            throw new InvalidEndpointRequestException("A recording is already running", "Only one recording can run at a time");
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(configurationName);
+        } catch (IOException | ParseException e) {
+            throw new InvalidEndpointRequestException("Unknown settings " + configurationName, "Use 'default' or 'profile'");
+        }
+        Recording recording = new Recording(configuration);
+        recording.setName("management-" + Instant.now());
+        recording.setToDisk(true);
+        recording.setDuration(recordingDuration);
+        try {
+            Files.createDirectories(directory);
+            recording.setDestination(directory.resolve("recording-" + recording.getId() + ".jfr"));
+        } catch (IOException e) {
+            recording.close();
+            throw new UncheckedIOException(e);
+        }
+        recording.start();
+        recordings.put(recording.getId(), recording);
+        log.info("Started JFR recording {} with the '{}' settings for {}", recording.getId(), configurationName, recordingDuration);
+        evictOldRecordings();
+        return RecordingDescriptor.of(recording);
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> download(@Selector long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recording.getState() != RecordingState.STOPPED) {
+            return new WebEndpointResponse<>(STATUS_CONFLICT);
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(recording.getDestination()));
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<JfrRecordingSummary> summary(@Selector long id, @Selector String view) {
+        Recording recording = recordings.get(id);
+        if (recording == null || !SUMMARY.equals(view)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recording.getState() != RecordingState.STOPPED) {
+            return new WebEndpointResponse<>(STATUS_CONFLICT);
+        }
+        try {
+            return new WebEndpointResponse<>(JfrRecordingSummary.of(recording.getDestination(), summaryTop));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DeleteOperation
+    public synchronized WebEndpointResponse<Void> delete(@Selector long id) {
+        Recording recording = recordings.remove(id);
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        close(recording);
+        return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NO_CONTENT);
+    }
+
+    @Override
+    public synchronized void destroy() {
+        recordings.values().forEach(this::close);
+        recordings.clear();
+    }
+
+    private void evictOldRecordings() {
+        while (recordings.size() > maxRecordings) {
+            close(recordings.pollFirstEntry().getValue());
+        }
+    }
+
+    private void close(Recording recording) {
+        Path destination = recording.getDestination();
+        recording.close();
+        try {
+            if (destination != null) {
+                Files.deleteIfExists(destination);
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete JFR recording {}: {}", destination, e.getMessage());
+        }
+    }
+
+    /**
+     * A recording, as listed by the endpoint.
+     */
+    public record RecordingDescriptor(long id, String name, String state, Instant startTime, Duration duration, long size) {
+        static RecordingDescriptor of(Recording recording) {
+            return new RecordingDescriptor(
+                recording.getId(),
+                recording.getName(),
+                recording.getState().name(),
+                recording.getStartTime(),
+                recording.getDuration(),
+                recording.getSize()
+            );
+        }
+    }
+}
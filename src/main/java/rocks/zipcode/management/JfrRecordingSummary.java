@@ -0,0 +1,88 @@
+package rocks.zipcode.management;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Top allocation sites and hottest methods of a JFR recording.
+ * <p>
+ * Allocation sites are weighted with the {@code jdk.ObjectAllocationSample} events, which estimate the bytes allocated
+ * since the previous sample, and methods are ranked by the number of {@code jdk.ExecutionSample} events in which they
+ * are on top of the stack. Both are read as a stream, the recording is never loaded in memory.
+ *
+ * @param events the number of events in the recording.
+ * @param allocations the top allocation sites, in bytes.
+ * @param hotMethods the hottest methods, in execution samples.
+ */
+public record JfrRecordingSummary(long events, List<Site> allocations, List<Site> hotMethods) {
+    private static final String ALLOCATION_SAMPLE_EVENT = "jdk.ObjectAllocationSample";
+
+    private static final String EXECUTION_SAMPLE_EVENT = "jdk.ExecutionSample";
+
+    /**
+     * A frame and its weight.
+     *
+     * @param frame the top frame, as {@code type.method:line}.
+     * @param value the bytes or samples of the frame.
+     * @param share the share of the total, between 0 and 1.
+     */
+    public record Site(String frame, long value, double share) {}
+
+    /**
+     * Reads the given recording.
+     */
+    public static JfrRecordingSummary of(Path recording, int top) throws IOException {
+        Map<String, Long> allocations = new HashMap<>();
+        Map<String, Long> hotMethods = new HashMap<>();
+        long events = 0;
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                events++;
+                String name = event.getEventType().getName();
+                if (ALLOCATION_SAMPLE_EVENT.equals(name)) {
+                    allocations.merge(topFrame(event), event.getLong("weight"), Long::sum);
+                } else if (EXECUTION_SAMPLE_EVENT.equals(name)) {
+                    hotMethods.merge(topFrame(event), 1L, Long::sum);
+                }
+            }
+        }
+        return new JfrRecordingSummary(events, top(allocations, top), top(hotMethods, top));
+    }
+
+    private static String topFrame(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return "unknown";
+        }
+        return stackTrace
+            .getFrames()
+            .stream()
+            .filter(RecordedFrame::isJavaFrame)
+            .findFirst()
+            .map(frame -> {
+                RecordedMethod method = frame.getMethod();
+                return method.getType().getName() + "." + method.getName() + ":" + frame.getLineNumber();
+            })
+            .orElse("unknown");
+    }
+
+    private static List<Site> top(Map<String, Long> weights, int top) {
+        long total = weights.values().stream().mapToLong(Long::longValue).sum();
+        return weights
+            .entrySet()
+            .stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .limit(top)
+            .map(entry -> new Site(entry.getKey(), entry.getValue(), (double) entry.getValue() / total))
+            .toList();
+    }
+}
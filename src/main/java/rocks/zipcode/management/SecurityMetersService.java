@@ -2,6 +2,8 @@ package rocks.zipcode.management;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -13,16 +15,28 @@ public class SecurityMetersService {
     public static final String INVALID_TOKENS_METER_BASE_UNIT = "errors";
     public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
 
+    public static final String LOGIN_METER_NAME = "security.authentication.login";
+    public static final String LOGIN_METER_DESCRIPTION = "Indicates the latency of login attempts, including the wait for password hashing.";
+    public static final String LOGIN_METER_OUTCOME_DIMENSION = "outcome";
+
     private final Counter tokenInvalidSignatureCounter;
     private final Counter tokenExpiredCounter;
     private final Counter tokenUnsupportedCounter;
     private final Counter tokenMalformedCounter;
 
+    private final Timer loginSuccessTimer;
+    private final Timer loginFailureTimer;
+    private final Timer loginRejectedTimer;
+
     public SecurityMetersService(MeterRegistry registry) {
         this.tokenInvalidSignatureCounter = invalidTokensCounterForCauseBuilder("invalid-signature").register(registry);
         this.tokenExpiredCounter = invalidTokensCounterForCauseBuilder("expired").register(registry);
         this.tokenUnsupportedCounter = invalidTokensCounterForCauseBuilder("unsupported").register(registry);
         this.tokenMalformedCounter = invalidTokensCounterForCauseBuilder("malformed").register(registry);
+
+        this.loginSuccessTimer = loginTimerForOutcomeBuilder("success").register(registry);
+        this.loginFailureTimer = loginTimerForOutcomeBuilder("failure").register(registry);
+        this.loginRejectedTimer = loginTimerForOutcomeBuilder("rejected").register(registry);
     }
 
     private Counter.Builder invalidTokensCounterForCauseBuilder(String cause) {
@@ -32,6 +46,12 @@ public class SecurityMetersService {
             .tag(INVALID_TOKENS_METER_CAUSE_DIMENSION, cause);
     }
 
+    private Timer.Builder loginTimerForOutcomeBuilder(String outcome) {
+        return Timer.builder(LOGIN_METER_NAME)
+            .description(LOGIN_METER_DESCRIPTION)
+            .tag(LOGIN_METER_OUTCOME_DIMENSION, outcome);
+    }
+
     public void trackTokenInvalidSignature() {
         this.tokenInvalidSignatureCounter.increment();
     }
@@ -47,4 +67,16 @@ public class SecurityMetersService {
     public void trackTokenMalformed() {
         this.tokenMalformedCounter.increment();
     }
+
+    public void trackLoginSuccess(long durationNanos) {
+        this.loginSuccessTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void trackLoginFailure(long durationNanos) {
+        this.loginFailureTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void trackLoginRejected(long durationNanos) {
+        this.loginRejectedTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
 }
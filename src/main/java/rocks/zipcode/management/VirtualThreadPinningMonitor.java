@@ -0,0 +1,90 @@
+package rocks.zipcode.management;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Watches the {@code jdk.VirtualThreadPinned} JFR event, which is emitted when a virtual thread blocks while holding a
+ * monitor (typically inside a {@code synchronized} block of a JDBC driver) and therefore keeps its carrier thread busy.
+ * <p>
+ * Every pinning longer than the threshold is recorded in the {@code jvm.threads.virtual.pinned} timer, and each distinct
+ * pinning site is logged once with its stack trace so it can be fixed or worked around.
+ */
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    public static final String PINNED_METER_NAME = "jvm.threads.virtual.pinned";
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final int MAX_LOGGED_SITES = 100;
+
+    private static final int LOGGED_FRAMES = 8;
+
+    private final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private final Duration threshold;
+
+    private final Timer pinnedTimer;
+
+    private final Set<String> loggedSites = ConcurrentHashMap.newKeySet();
+
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry registry, Duration threshold) {
+        this.threshold = threshold;
+        this.pinnedTimer = Timer.builder(PINNED_METER_NAME)
+            .description("Time virtual threads spent blocked while pinned to their carrier thread")
+            .register(registry);
+    }
+
+    @Override
+    public synchronized void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("Monitoring virtual thread pinning longer than {} ms", threshold.toMillis());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+            recordingStream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedTimer.record(event.getDuration());
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || loggedSites.size() >= MAX_LOGGED_SITES) {
+            return;
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames().stream().filter(RecordedFrame::isJavaFrame).limit(LOGGED_FRAMES).toList();
+        String site = frames.stream().map(VirtualThreadPinningMonitor::format).collect(Collectors.joining("\n\tat "));
+        if (loggedSites.add(site)) {
+            log.warn("Virtual thread pinned to its carrier for {} ms:\n\tat {}", event.getDuration().toMillis(), site);
+        }
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,211 @@
+package rocks.zipcode.management.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * {@link DataSource} decorator reporting each executed statement to the {@link StatementCounter} of the current thread
+ * and, when given, to the {@link QueryShapeStatistics}.
+ * <p>
+ * Connections, statements and result sets are wrapped in JDK proxies; only the {@code execute*} methods of the
+ * statements and the {@code next} and {@code close} methods of the result sets are intercepted, everything else goes
+ * straight to the pooled JDBC objects.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    private final QueryShapeStatistics queryShapeStatistics;
+
+    public InstrumentedDataSource(DataSource targetDataSource) {
+        this(targetDataSource, null);
+    }
+
+    public InstrumentedDataSource(DataSource targetDataSource, QueryShapeStatistics queryShapeStatistics) {
+        super(targetDataSource);
+        this.queryShapeStatistics = queryShapeStatistics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(super.getConnection(username, password));
+    }
+
+    private Connection proxy(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+            InstrumentedDataSource.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            new ConnectionHandler(connection)
+        );
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> null;
+        };
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object identity = identity(proxy, method, args);
+            if (identity != null) {
+                return identity;
+            }
+            Object result = InstrumentedDataSource.invoke(target, method, args);
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                Class<?> type = result instanceof CallableStatement
+                    ? CallableStatement.class
+                    : result instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                return Proxy.newProxyInstance(
+                    InstrumentedDataSource.class.getClassLoader(),
+                    new Class<?>[] { type },
+                    new StatementHandler(statement, sql)
+                );
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+
+        private final String preparedSql;
+
+        private String lastSql;
+
+        private StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object identity = identity(proxy, method, args);
+            if (identity != null) {
+                return identity;
+            }
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                lastSql = sql != null ? sql : name;
+                StatementCounter.record(lastSql);
+                if (queryShapeStatistics != null) {
+                    return execute(method, args);
+                }
+            } else if (queryShapeStatistics != null && lastSql != null && name.equals("getResultSet")) {
+                return rows(InstrumentedDataSource.invoke(target, method, args));
+            }
+            return InstrumentedDataSource.invoke(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            long start = System.nanoTime();
+            Object result = InstrumentedDataSource.invoke(target, method, args);
+            queryShapeStatistics.executed(lastSql, System.nanoTime() - start);
+            if (result instanceof ResultSet) {
+                return rows(result);
+            }
+            if (result instanceof Integer updated) {
+                queryShapeStatistics.rows(lastSql, Math.max(updated, 0));
+            } else if (result instanceof Long updated) {
+                queryShapeStatistics.rows(lastSql, Math.max(updated, 0));
+            } else if (result instanceof int[] batch) {
+                long updated = 0;
+                for (int count : batch) {
+                    updated += Math.max(count, 0);
+                }
+                queryShapeStatistics.rows(lastSql, updated);
+            }
+            return result;
+        }
+
+        private Object rows(Object resultSet) {
+            if (!(resultSet instanceof ResultSet)) {
+                return resultSet;
+            }
+            return Proxy.newProxyInstance(
+                InstrumentedDataSource.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class },
+                new ResultSetHandler((ResultSet) resultSet, lastSql)
+            );
+        }
+    }
+
+    /**
+     * Counts the rows read from a result set, which are reported when it is closed.
+     */
+    private final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+
+        private final String sql;
+
+        private long rows;
+
+        private boolean closed;
+
+        private ResultSetHandler(ResultSet target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object identity = identity(proxy, method, args);
+            if (identity != null) {
+                return identity;
+            }
+            Object result = InstrumentedDataSource.invoke(target, method, args);
+            switch (method.getName()) {
+                case "next" -> {
+                    if (Boolean.TRUE.equals(result)) {
+                        rows++;
+                    }
+                }
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        queryShapeStatistics.rows(sql, rows);
+                    }
+                }
+                default -> {
+                    // not instrumented
+                }
+            }
+            return result;
+        }
+    }
+}
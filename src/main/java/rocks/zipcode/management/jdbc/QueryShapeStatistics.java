@@ -0,0 +1,202 @@
+package rocks.zipcode.management.jdbc;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Execution statistics of the JDBC statements, grouped by {@link StatementCounter#shapeOf(String) shape}.
+ * <p>
+ * Each shape gets a {@value #QUERY_METER_NAME} timer and a {@value #ROWS_METER_NAME} distribution, tagged with a short
+ * id of the shape rather than its SQL; {@link #top(int, Order)} maps the ids back to the SQL. Executions slower than
+ * {@code slowThreshold} are logged with their shape and number of bind parameters, never with their values. At most
+ * {@code maxShapes} shapes are tracked, the statements of any further shape are counted under {@value #OTHER_SHAPE}.
+ */
+public class QueryShapeStatistics {
+
+    public static final String QUERY_METER_NAME = "jdbc.query";
+    public static final String ROWS_METER_NAME = "jdbc.query.rows";
+    public static final String OTHER_SHAPE = "other";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private final Logger log = LoggerFactory.getLogger(QueryShapeStatistics.class);
+
+    private final MeterRegistry meterRegistry;
+
+    private final long slowThresholdNanos;
+
+    private final int maxShapes;
+
+    private final ConcurrentMap<String, Shape> shapesBySql = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Shape> shapes = new ConcurrentHashMap<>();
+
+    private final Shape other;
+
+    public QueryShapeStatistics(MeterRegistry meterRegistry, Duration slowThreshold, int maxShapes) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.maxShapes = maxShapes;
+        this.other = new Shape(OTHER_SHAPE, OTHER_SHAPE);
+    }
+
+    /**
+     * Records an execution of the given statement.
+     */
+    void executed(String sql, long nanos) {
+        Shape shape = shapeOf(sql);
+        shape.executed(nanos);
+        if (nanos > slowThresholdNanos) {
+            log.warn(
+                "Slow query: {} ms with {} bind parameters, shape {}: {}",
+                TimeUnit.NANOSECONDS.toMillis(nanos),
+                parameterCountOf(sql),
+                shape.id,
+                shape.sql
+            );
+        }
+    }
+
+    /**
+     * Records the number of rows read or written by an execution of the given statement.
+     */
+    void rows(String sql, long rows) {
+        shapeOf(sql).rows(rows);
+    }
+
+    /**
+     * The shapes taking the most time, in the given order.
+     */
+    public List<ShapeSummary> top(int limit, Order order) {
+        return Stream.concat(shapes.values().stream(), Stream.of(other))
+            .map(Shape::summary)
+            .filter(summary -> summary.count() > 0)
+            .sorted(order.comparator.reversed())
+            .limit(limit)
+            .toList();
+    }
+
+    static int parameterCountOf(String sql) {
+        String withoutLiterals = STRING_LITERAL.matcher(sql).replaceAll("");
+        int count = 0;
+        for (int i = 0; i < withoutLiterals.length(); i++) {
+            if (withoutLiterals.charAt(i) == '?') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private Shape shapeOf(String sql) {
+        Shape shape = shapesBySql.get(sql);
+        if (shape != null) {
+            return shape;
+        }
+        String normalized = StatementCounter.shapeOf(sql);
+        shape = shapes.get(normalized);
+        if (shape == null) {
+            if (shapes.size() >= maxShapes) {
+                return other;
+            }
+            shape = shapes.computeIfAbsent(normalized, key -> new Shape(String.format("%08x", key.hashCode()), key));
+        }
+        // statements with literals have as many SQL strings as values, only their shape is kept then
+        if (shapesBySql.size() < maxShapes * 4) {
+            shapesBySql.putIfAbsent(sql, shape);
+        }
+        return shape;
+    }
+
+    /**
+     * How to order the shapes.
+     */
+    public enum Order {
+        TOTAL(Comparator.comparingDouble(ShapeSummary::totalMillis)),
+        MEAN(Comparator.comparingDouble(ShapeSummary::meanMillis)),
+        MAX(Comparator.comparingDouble(ShapeSummary::maxMillis)),
+        COUNT(Comparator.comparingLong(ShapeSummary::count));
+
+        private final Comparator<ShapeSummary> comparator;
+
+        Order(Comparator<ShapeSummary> comparator) {
+            this.comparator = comparator;
+        }
+    }
+
+    /**
+     * Statistics of a shape since the application started.
+     */
+    public record ShapeSummary(String id, String sql, long count, double totalMillis, double meanMillis, double maxMillis, long rows) {}
+
+    private final class Shape {
+
+        private final String id;
+
+        private final String sql;
+
+        private final Timer timer;
+
+        private final DistributionSummary rowsSummary;
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private final LongAdder rows = new LongAdder();
+
+        private Shape(String id, String sql) {
+            this.id = id;
+            this.sql = sql;
+            this.timer = Timer.builder(QUERY_METER_NAME)
+                .description("Execution time of the JDBC statements, per shape")
+                .tag("shape", id)
+                .register(meterRegistry);
+            this.rowsSummary = DistributionSummary.builder(ROWS_METER_NAME)
+                .description("Rows read or written by the JDBC statements, per shape")
+                .baseUnit("rows")
+                .tag("shape", id)
+                .register(meterRegistry);
+        }
+
+        private void executed(long nanos) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        private void rows(long rows) {
+            rowsSummary.record(rows);
+            this.rows.add(rows);
+        }
+
+        private ShapeSummary summary() {
+            long executions = count.sum();
+            double totalMillis = totalNanos.sum() / 1_000_000d;
+            return new ShapeSummary(
+                id,
+                sql,
+                executions,
+                totalMillis,
+                executions == 0 ? 0 : totalMillis / executions,
+                maxNanos.get() / 1_000_000d,
+                rows.sum()
+            );
+        }
+    }
+}
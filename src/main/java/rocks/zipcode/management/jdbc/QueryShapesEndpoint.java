@@ -0,0 +1,33 @@
+package rocks.zipcode.management.jdbc;
+
+import java.util.List;
+import java.util.Locale;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+/**
+ * Actuator endpoint listing the JDBC statement shapes that take the most time, at {@code /management/queryshapes}.
+ * <p>
+ * The {@code order} parameter is one of {@code total} (the default), {@code mean}, {@code max} or {@code count}.
+ */
+@Endpoint(id = "queryshapes")
+public class QueryShapesEndpoint {
+
+    private final QueryShapeStatistics queryShapeStatistics;
+
+    private final int defaultLimit;
+
+    public QueryShapesEndpoint(QueryShapeStatistics queryShapeStatistics, int defaultLimit) {
+        this.queryShapeStatistics = queryShapeStatistics;
+        this.defaultLimit = defaultLimit;
+    }
+
+    @ReadOperation
+    public List<QueryShapeStatistics.ShapeSummary> top(@Nullable Integer limit, @Nullable String order) {
+        QueryShapeStatistics.Order sortOrder = order == null
+            ? QueryShapeStatistics.Order.TOTAL
+            : QueryShapeStatistics.Order.valueOf(order.toUpperCase(Locale.ROOT));
+        return queryShapeStatistics.top(limit == null ? defaultLimit : limit, sortOrder);
+    }
+}
@@ -0,0 +1,165 @@
+package rocks.zipcode.management.jdbc;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ScheduledFuture;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.TaskScheduler;
+
+/**
+ * Measures the replication lag of the read replica with a heartbeat.
+ * <p>
+ * Every {@code checkInterval}, the current time is written to the {@code replica_heartbeat} table of the primary and
+ * read back from the replica; the difference is the lag, published as {@value #LAG_METER_NAME}. The replica is
+ * available while it answers and its lag stays under {@code maxLag}; it is unavailable until the first check passes.
+ */
+public class ReplicaHealthMonitor implements SmartLifecycle {
+
+    public static final String LAG_METER_NAME = "jdbc.replica.lag";
+    public static final String AVAILABLE_METER_NAME = "jdbc.replica.available";
+
+    private static final int HEARTBEAT_ID = 1;
+
+    private final Logger log = LoggerFactory.getLogger(ReplicaHealthMonitor.class);
+
+    private final DataSource primary;
+
+    private final DataSource replica;
+
+    private final TaskScheduler taskScheduler;
+
+    private final Duration checkInterval;
+
+    private final Duration maxLag;
+
+    private final Clock clock;
+
+    private volatile boolean available;
+
+    private volatile Duration lag;
+
+    private ScheduledFuture<?> scheduledCheck;
+
+    public ReplicaHealthMonitor(
+        DataSource primary,
+        DataSource replica,
+        TaskScheduler taskScheduler,
+        Duration checkInterval,
+        Duration maxLag,
+        Clock clock,
+        MeterRegistry meterRegistry
+    ) {
+        this.primary = primary;
+        this.replica = replica;
+        this.taskScheduler = taskScheduler;
+        this.checkInterval = checkInterval;
+        this.maxLag = maxLag;
+        this.clock = clock;
+        Gauge.builder(LAG_METER_NAME, this, monitor -> monitor.lag == null ? Double.NaN : monitor.lag.toMillis() / 1000d)
+            .description("Replication lag of the read replica, measured with a heartbeat")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        Gauge.builder(AVAILABLE_METER_NAME, this, monitor -> monitor.available ? 1 : 0)
+            .description("Whether read-only transactions are sent to the read replica")
+            .register(meterRegistry);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Override
+    public synchronized void start() {
+        scheduledCheck = taskScheduler.scheduleAtFixedRate(this::check, checkInterval);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduledCheck != null) {
+            scheduledCheck.cancel(false);
+            scheduledCheck = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduledCheck != null;
+    }
+
+    /**
+     * Writes a heartbeat to the primary and reads the last one replicated.
+     */
+    void check() {
+        Instant now = clock.instant();
+        try {
+            writeHeartbeat(now);
+        } catch (SQLException e) {
+            // the primary being down is not the replica's concern, its lag is measured on the next check
+            log.debug("Could not write the replica heartbeat: {}", e.getMessage());
+        }
+        Instant replicated;
+        try {
+            replicated = readHeartbeat();
+        } catch (SQLException e) {
+            log.debug("Could not read the replica heartbeat: {}", e.getMessage());
+            replicated = null;
+        }
+        record(now, replicated);
+    }
+
+    /**
+     * Updates the availability of the replica from its last replicated heartbeat, {@code null} when it did not answer.
+     */
+    void record(Instant now, Instant replicated) {
+        boolean wasAvailable = available;
+        lag = replicated == null ? null : Duration.between(replicated, now);
+        available = lag != null && lag.compareTo(maxLag) <= 0;
+        if (wasAvailable && !available) {
+            log.warn("Read replica unavailable (lag: {}), read-only transactions go to the primary", lag == null ? "unreachable" : lag);
+        } else if (!wasAvailable && available) {
+            log.info("Read replica available, lag: {} ms", lag.toMillis());
+        }
+    }
+
+    private void writeHeartbeat(Instant now) throws SQLException {
+        try (Connection connection = primary.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement update = connection.prepareStatement("update replica_heartbeat set beat_at = ? where id = ?")) {
+                update.setTimestamp(1, Timestamp.from(now));
+                update.setInt(2, HEARTBEAT_ID);
+                if (update.executeUpdate() == 0) {
+                    try (PreparedStatement insert = connection.prepareStatement("insert into replica_heartbeat (id, beat_at) values (?, ?)")) {
+                        insert.setInt(1, HEARTBEAT_ID);
+                        insert.setTimestamp(2, Timestamp.from(now));
+                        insert.executeUpdate();
+                    }
+                }
+            }
+            connection.commit();
+        }
+    }
+
+    private Instant readHeartbeat() throws SQLException {
+        try (
+            Connection connection = replica.getConnection();
+            PreparedStatement select = connection.prepareStatement("select beat_at from replica_heartbeat where id = ?")
+        ) {
+            select.setQueryTimeout((int) Math.max(1, checkInterval.toSeconds()));
+            select.setInt(1, HEARTBEAT_ID);
+            try (ResultSet resultSet = select.executeQuery()) {
+                return resultSet.next() ? resultSet.getTimestamp(1).toInstant() : null;
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package rocks.zipcode.management.jdbc;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Counts the JDBC statements executed by the current thread between {@link #open()} and {@link Scope#close()}.
+ * <p>
+ * Statements are reported by {@link InstrumentedDataSource}; outside of a scope, they are not counted.
+ */
+public final class StatementCounter {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+
+    private static final Pattern IN_LIST = Pattern.compile("\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private StatementCounter() {}
+
+    /**
+     * Starts counting the statements of the current thread; scopes can be nested.
+     */
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static void record(String sql) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.record(sql);
+        }
+    }
+
+    /**
+     * Shape of a statement: its SQL with literals replaced by {@code ?} and {@code IN} lists collapsed, so that the
+     * executions of the same query with different parameters are grouped.
+     */
+    public static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("in (...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    /**
+     * The statements counted since a scope was opened.
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope parent;
+
+        private final Map<String, Integer> statements = new HashMap<>();
+
+        private int count;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        private void record(String sql) {
+            count++;
+            statements.merge(sql, 1, Integer::sum);
+            if (parent != null) {
+                parent.record(sql);
+            }
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * The statement shapes of this scope, the most executed first.
+         */
+        public List<Map.Entry<String, Integer>> getShapes() {
+            Map<String, Integer> shapes = new HashMap<>();
+            statements.forEach((sql, executions) -> shapes.merge(shapeOf(sql), executions, Integer::sum));
+            return shapes.entrySet().stream().sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())).toList();
+        }
+
+        @Override
+        public void close() {
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+}
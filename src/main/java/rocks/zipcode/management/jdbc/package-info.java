@@ -0,0 +1,4 @@
+/**
+ * JDBC instrumentation.
+ */
+package rocks.zipcode.management.jdbc;
@@ -0,0 +1,34 @@
+package rocks.zipcode.repository;
+
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import rocks.zipcode.domain.Attachment;
+import rocks.zipcode.domain.enumeration.PreviewStatus;
+
+/**
+ * Spring Data JPA repository for the {@link Attachment} entity.
+ */
+@Repository
+public interface AttachmentRepository extends JpaRepository<Attachment, Long> {
+    List<Attachment> findByMessageIdOrderById(Long messageId);
+
+    List<Attachment> findByPreviewStatusOrderById(PreviewStatus previewStatus, Pageable pageable);
+
+    boolean existsByContentHash(String contentHash);
+
+    boolean existsByContentHashAndPreviewStatus(String contentHash, PreviewStatus previewStatus);
+
+    /**
+     * Moves the previews of the attachment from one status to another, without touching the rest of it, which may have
+     * been updated or deleted in the meantime.
+     *
+     * @return {@code 1} if the attachment was in the expected status.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Attachment a set a.previewStatus = :to where a.id = :id and a.previewStatus = :from")
+    int updatePreviewStatus(Long id, PreviewStatus from, PreviewStatus to);
+}
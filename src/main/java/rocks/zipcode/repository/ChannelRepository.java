@@ -1,5 +1,10 @@
 package rocks.zipcode.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+import jakarta.persistence.QueryHint;
+import java.util.stream.Stream;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 import rocks.zipcode.domain.Channel;
@@ -9,4 +14,8 @@ import rocks.zipcode.domain.Channel;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ChannelRepository extends JpaRepository<Channel, Long> {}
+public interface ChannelRepository extends JpaRepository<Channel, Long> {
+    @Query("select channel from Channel channel order by channel.id")
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true") })
+    Stream<Channel> streamAll();
+}
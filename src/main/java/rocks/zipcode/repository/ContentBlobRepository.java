@@ -0,0 +1,47 @@
+package rocks.zipcode.repository;
+
+import jakarta.persistence.LockModeType;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import rocks.zipcode.domain.ContentBlob;
+
+/**
+ * Spring Data JPA repository for the {@link ContentBlob} entity.
+ */
+@Repository
+public interface ContentBlobRepository extends JpaRepository<ContentBlob, String> {
+    /**
+     * Atomically adds a reference to the blob, if it exists with this length.
+     *
+     * @return {@code 1} if the reference was added, {@code 0} if there is no such blob.
+     */
+    @Transactional
+    @Modifying
+    @Query(
+        "update ContentBlob b set b.refCount = b.refCount + 1, b.releasedDate = null" +
+        " where b.hash = :hash and b.contentLength = :contentLength"
+    )
+    int retain(String hash, Long contentLength);
+
+    /**
+     * Atomically removes a reference to the blob.
+     *
+     * @return {@code 1} if a reference was removed, {@code 0} if the blob was not referenced.
+     */
+    @Transactional
+    @Modifying
+    @Query("update ContentBlob b set b.refCount = b.refCount - 1, b.releasedDate = :now where b.hash = :hash and b.refCount > 0")
+    int release(String hash, Instant now);
+
+    @Query("select b.hash from ContentBlob b where b.refCount = 0 and b.releasedDate < :releasedBefore order by b.releasedDate")
+    List<String> findUnreferencedHashes(Instant releasedBefore, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from ContentBlob b where b.hash = :hash")
+    Optional<ContentBlob> findByHashForUpdate(String hash);
+}
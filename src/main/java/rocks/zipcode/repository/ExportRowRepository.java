@@ -0,0 +1,69 @@
+package rocks.zipcode.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reads whole tables row by row for the workspace export, with a forward-only cursor: the rows are fetched
+ * {@code fetchSize} at a time and never held all in memory, nor attached to a persistence context.
+ * <p>
+ * On MySQL, the cursor is only used with {@code useCursorFetch=true} in the JDBC URL; otherwise the driver reads the
+ * whole result set.
+ */
+@Repository
+public class ExportRowRepository {
+
+    /**
+     * The exported tables, in the order they are written; the messages are read from the
+     * {@link rocks.zipcode.repository.MessageStore} instead.
+     */
+    public enum ExportedTable {
+        WORKSPACES("workspace", "id"),
+        USER_PROFILES("user_profile", "id"),
+        WORKSPACE_MEMBERSHIPS("rel_user_profile__workspaces", "workspaces_id, user_profile_id"),
+        CHANNELS("channel", "id"),
+        CHANNEL_MEMBERSHIPS("rel_user_profile__channels", "channels_id, user_profile_id"),
+        MESSAGES("message", "id"),
+        MENTIONS("mention", "id");
+
+        private final String tableName;
+
+        private final String orderBy;
+
+        ExportedTable(String tableName, String orderBy) {
+            this.tableName = tableName;
+            this.orderBy = orderBy;
+        }
+
+        public String getTableName() {
+            return tableName;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExportRowRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Hands every row of the table to the handler, in primary key order.
+     */
+    public void scroll(ExportedTable table, int fetchSize, RowCallbackHandler handler) {
+        jdbcTemplate.query(
+            connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                    "select * from " + table.tableName + " order by " + table.orderBy,
+                    ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY
+                );
+                statement.setFetchSize(fetchSize);
+                return statement;
+            },
+            handler
+        );
+    }
+}
@@ -0,0 +1,28 @@
+package rocks.zipcode.repository;
+
+import java.time.Instant;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+import rocks.zipcode.domain.JobLease;
+
+/**
+ * Spring Data JPA repository for the {@link JobLease} entity.
+ */
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+    /**
+     * Atomically takes the lease if it has expired.
+     *
+     * @return {@code 1} if the lease was taken, {@code 0} if another node holds it.
+     */
+    @Modifying
+    @Query(
+        "update JobLease l set l.owner = :owner, l.lockedAt = :now, l.lockedUntil = :lockedUntil" +
+        " where l.leaseKey = :leaseKey and l.lockedUntil <= :now"
+    )
+    int tryAcquire(String leaseKey, String owner, Instant now, Instant lockedUntil);
+
+    @Modifying
+    @Query("update JobLease l set l.lockedUntil = :lockedUntil where l.leaseKey = :leaseKey and l.owner = :owner")
+    int release(String leaseKey, String owner, Instant lockedUntil);
+}
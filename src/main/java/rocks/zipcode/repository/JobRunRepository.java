@@ -0,0 +1,19 @@
+package rocks.zipcode.repository;
+
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+import rocks.zipcode.domain.JobRun;
+
+/**
+ * Spring Data JPA repository for the {@link JobRun} entity.
+ */
+@Repository
+public interface JobRunRepository extends JpaRepository<JobRun, Long> {
+    List<JobRun> findTop20ByJobNameOrderByStartedAtDesc(String jobName);
+
+    @Modifying
+    @Query("delete from JobRun r where r.startedAt < :startedAt")
+    int deleteByStartedAtBefore(Instant startedAt);
+}
@@ -0,0 +1,52 @@
+package rocks.zipcode.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import rocks.zipcode.domain.Message;
+
+/**
+ * {@link MessageStore} on the message table, through the {@link MessageRepository}.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "application.message-store", name = "type", havingValue = "jpa", matchIfMissing = true)
+public class JpaMessageStore implements MessageStore {
+
+    private final MessageRepository messageRepository;
+
+    public JpaMessageStore(MessageRepository messageRepository) {
+        this.messageRepository = messageRepository;
+    }
+
+    @Override
+    public <S extends Message> S save(S message) {
+        return messageRepository.save(message);
+    }
+
+    @Override
+    public Optional<Message> findById(Long id) {
+        return messageRepository.findById(id);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return messageRepository.existsById(id);
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        messageRepository.deleteById(id);
+    }
+
+    @Override
+    public Stream<Message> streamAll() {
+        return messageRepository.streamAll();
+    }
+
+    @Override
+    public Stream<Message> streamAllCreatedBetween(Instant from, Instant to) {
+        return messageRepository.streamAllCreatedBetween(from, to);
+    }
+}
@@ -0,0 +1,27 @@
+package rocks.zipcode.repository;
+
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+import rocks.zipcode.domain.MailOutboxEntry;
+import rocks.zipcode.domain.enumeration.MailOutboxStatus;
+
+/**
+ * Spring Data JPA repository for the {@link MailOutboxEntry} entity.
+ */
+@Repository
+public interface MailOutboxEntryRepository extends JpaRepository<MailOutboxEntry, Long> {
+    List<MailOutboxEntry> findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+        MailOutboxStatus status,
+        Instant nextAttemptAt,
+        Pageable pageable
+    );
+
+    long countByStatus(MailOutboxStatus status);
+
+    @Modifying
+    @Query("delete from MailOutboxEntry e where e.status = :status and e.sentDate < :sentDate")
+    int deleteByStatusAndSentDateBefore(MailOutboxStatus status, Instant sentDate);
+}
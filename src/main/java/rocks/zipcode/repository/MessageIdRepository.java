@@ -0,0 +1,36 @@
+package rocks.zipcode.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The {@code message_id_sequence} row, from which the {@link rocks.zipcode.repository.log.LogStructuredMessageStore}
+ * reserves the ids of its messages, so that they never collide with the ids of the message table.
+ */
+@Repository
+public class MessageIdRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MessageIdRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Reserves {@code count} consecutive ids, above the ids of the message table and not below {@code atLeast}; the row
+     * stays locked only for the reservation.
+     *
+     * @return the first id reserved.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long allocate(int count, long atLeast) {
+        jdbcTemplate.update(
+            "update message_id_sequence set next_val = greatest(next_val, (select coalesce(max(id), 0) + 1 from message), ?) + ?",
+            atLeast,
+            count
+        );
+        return jdbcTemplate.queryForObject("select next_val from message_id_sequence", Long.class) - count;
+    }
+}
@@ -0,0 +1,107 @@
+package rocks.zipcode.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Partitions of the {@code message} table, which is range partitioned by month of {@code created_date} on MySQL only.
+ * <p>
+ * The partitions are named after the month they hold ({@code p202611} for November 2026). {@code p_legacy} holds the
+ * messages created before the table was partitioned, dated 1970-01-01, and {@code p_future} catches the rows beyond
+ * the last month; neither is a monthly partition.
+ */
+@Repository
+public class MessagePartitionRepository {
+
+    public static final String LEGACY_PARTITION = "p_legacy";
+
+    public static final String FUTURE_PARTITION = "p_future";
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("p\\d{6}");
+
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MessagePartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * A monthly partition and its exclusive upper bound.
+     */
+    public record MessagePartition(String name, LocalDate lessThan) {}
+
+    /**
+     * The monthly partitions in order, without {@code p_legacy}, empty when the table is not partitioned (H2).
+     */
+    public List<MessagePartition> findMonthlyPartitions() {
+        if (!isMySql()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(
+            "select partition_name, partition_description from information_schema.partitions" +
+            " where table_schema = database() and table_name = 'message' and partition_name is not null" +
+            " and partition_name <> ? and partition_description <> 'MAXVALUE' order by partition_ordinal_position",
+            (resultSet, rowNum) -> new MessagePartition(resultSet.getString(1), parseBound(resultSet.getString(2))),
+            LEGACY_PARTITION
+        );
+    }
+
+    /**
+     * Splits the month ending at {@code lessThan} out of {@code p_future}.
+     */
+    public void addPartition(String name, LocalDate lessThan) {
+        jdbcTemplate.execute(
+            "ALTER TABLE message REORGANIZE PARTITION " +
+            FUTURE_PARTITION +
+            " INTO (PARTITION " +
+            checked(name) +
+            " VALUES LESS THAN ('" +
+            BOUND_FORMAT.format(lessThan) +
+            "'), PARTITION " +
+            FUTURE_PARTITION +
+            " VALUES LESS THAN (MAXVALUE))"
+        );
+    }
+
+    public void dropPartition(String name) {
+        jdbcTemplate.execute("ALTER TABLE message DROP PARTITION " + checked(name));
+    }
+
+    /**
+     * Moves the rows of the partition to a {@code message_archive_<name>} table, then drops the partition; both are
+     * metadata operations that do not copy the rows.
+     */
+    public void archivePartition(String name) {
+        String archive = "message_archive_" + checked(name);
+        jdbcTemplate.execute("CREATE TABLE " + archive + " LIKE message");
+        jdbcTemplate.execute("ALTER TABLE " + archive + " REMOVE PARTITIONING");
+        jdbcTemplate.execute("ALTER TABLE message EXCHANGE PARTITION " + name + " WITH TABLE " + archive);
+        jdbcTemplate.execute("ALTER TABLE message DROP PARTITION " + name);
+    }
+
+    private boolean isMySql() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return "MySQL".equalsIgnoreCase(product);
+    }
+
+    private static LocalDate parseBound(String description) {
+        // e.g. '2026-11-01' or '2026-11-01 00:00:00'
+        String bound = description.replace("'", "").trim();
+        return bound.length() > 10 ? LocalDateTime.parse(bound.replace(' ', 'T')).toLocalDate() : LocalDate.parse(bound);
+    }
+
+    private static String checked(String name) {
+        if (!PARTITION_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid partition name: " + name);
+        }
+        return name;
+    }
+}
@@ -1,6 +1,13 @@
 package rocks.zipcode.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.stream.Stream;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import rocks.zipcode.domain.Message;
 
@@ -9,4 +16,18 @@ import rocks.zipcode.domain.Message;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface MessageRepository extends JpaRepository<Message, Long> {}
+public interface MessageRepository extends JpaRepository<Message, Long> {
+    @Query("select message from Message message order by message.id")
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true") })
+    Stream<Message> streamAll();
+
+    /**
+     * Messages created in {@code [from, to)}; on MySQL, the range on {@code created_date} only reads the partitions of
+     * these months.
+     */
+    @Query(
+        "select message from Message message where message.createdDate >= :from and message.createdDate < :to order by message.createdDate, message.id"
+    )
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true") })
+    Stream<Message> streamAllCreatedBetween(@Param("from") Instant from, @Param("to") Instant to);
+}
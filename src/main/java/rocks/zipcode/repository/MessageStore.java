@@ -0,0 +1,33 @@
+package rocks.zipcode.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.stream.Stream;
+import rocks.zipcode.domain.Message;
+
+/**
+ * Storage of the messages, as used to create, edit and read them; every reader of the messages goes through it, since
+ * they are not in the message table with the log store.
+ * <p>
+ * {@link JpaMessageStore} implements it on the message table; with {@code application.message-store.type=log}, the
+ * {@link rocks.zipcode.repository.log.LogStructuredMessageStore} takes over.
+ */
+public interface MessageStore {
+    <S extends Message> S save(S message);
+
+    Optional<Message> findById(Long id);
+
+    boolean existsById(Long id);
+
+    void deleteById(Long id);
+
+    /**
+     * All the messages, by id; the stream must be closed.
+     */
+    Stream<Message> streamAll();
+
+    /**
+     * Messages created in {@code [from, to)}, by creation date; the stream must be closed.
+     */
+    Stream<Message> streamAllCreatedBetween(Instant from, Instant to);
+}
@@ -52,8 +52,6 @@ public class UserProfileRepositoryWithBagRelationshipsImpl implements UserProfil
     }
 
     List<UserProfile> fetchWorkspaces(List<UserProfile> userProfiles) {
-        HashMap<Object, Integer> order = new HashMap<>();
-        IntStream.range(0, userProfiles.size()).forEach(index -> order.put(userProfiles.get(index).getId(), index));
         List<UserProfile> result = entityManager
             .createQuery(
                 "select userProfile from UserProfile userProfile left join fetch userProfile.workspaces where userProfile in :userProfiles",
@@ -61,8 +59,7 @@ public class UserProfileRepositoryWithBagRelationshipsImpl implements UserProfil
             )
             .setParameter(USERPROFILES_PARAMETER, userProfiles)
             .getResultList();
-        Collections.sort(result, (o1, o2) -> Integer.compare(order.get(o1.getId()), order.get(o2.getId())));
-        return result;
+        return sortInOrderOf(result, userProfiles);
     }
 
     UserProfile fetchChannels(UserProfile result) {
@@ -76,8 +73,6 @@ public class UserProfileRepositoryWithBagRelationshipsImpl implements UserProfil
     }
 
     List<UserProfile> fetchChannels(List<UserProfile> userProfiles) {
-        HashMap<Object, Integer> order = new HashMap<>();
-        IntStream.range(0, userProfiles.size()).forEach(index -> order.put(userProfiles.get(index).getId(), index));
         List<UserProfile> result = entityManager
             .createQuery(
                 "select userProfile from UserProfile userProfile left join fetch userProfile.channels where userProfile in :userProfiles",
@@ -85,6 +80,15 @@ public class UserProfileRepositoryWithBagRelationshipsImpl implements UserProfil
             )
             .setParameter(USERPROFILES_PARAMETER, userProfiles)
             .getResultList();
+        return sortInOrderOf(result, userProfiles);
+    }
+
+    /**
+     * Sorts {@code result} in the order of the ids of {@code userProfiles}, as the fetch queries do not keep it.
+     */
+    public static List<UserProfile> sortInOrderOf(List<UserProfile> result, List<UserProfile> userProfiles) {
+        HashMap<Object, Integer> order = new HashMap<>();
+        IntStream.range(0, userProfiles.size()).forEach(index -> order.put(userProfiles.get(index).getId(), index));
         Collections.sort(result, (o1, o2) -> Integer.compare(order.get(o1.getId()), order.get(o2.getId())));
         return result;
     }
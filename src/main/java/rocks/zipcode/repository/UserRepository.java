@@ -1,12 +1,15 @@
 package rocks.zipcode.repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import rocks.zipcode.domain.User;
 
@@ -33,4 +36,47 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
     Page<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
+
+    /**
+     * Keyset-paginated lookup of the not activated users, returning only what is needed to delete them.
+     */
+    @Query(
+        "select u.id as id, u.login as login, u.email as email from User u" +
+        " where u.activated = false and u.activationKey is not null and u.createdDate < :createdBefore" +
+        " and u.id > :afterId and u.id < :beforeId" +
+        " order by u.id"
+    )
+    List<NotActivatedUser> findNotActivatedUsersCreatedBefore(Instant createdBefore, Long afterId, Long beforeId, Pageable pageable);
+
+    @Query("select max(u.id) from User u")
+    Long findMaxId();
+
+    /**
+     * Locks the users of the given ids that are still not activated, so that none of them is activated while it is
+     * being deleted.
+     *
+     * @return the ids of the locked users.
+     */
+    @Query(value = "select id from jhi_user where id in (:ids) and activated = false for update", nativeQuery = true)
+    List<Long> lockNotActivatedUsers(Collection<Long> ids);
+
+    @Modifying
+    @Query(
+        value = "delete from jhi_user_authority where user_id in (:ids)" +
+        " and user_id in (select u.id from jhi_user u where u.activated = false)",
+        nativeQuery = true
+    )
+    int deleteNotActivatedUserAuthorities(Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from User u where u.id in :ids and u.activated = false")
+    int deleteNotActivatedUsers(Collection<Long> ids);
+
+    interface NotActivatedUser {
+        Long getId();
+
+        String getLogin();
+
+        String getEmail();
+    }
 }
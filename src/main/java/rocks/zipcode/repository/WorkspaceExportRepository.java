@@ -0,0 +1,28 @@
+package rocks.zipcode.repository;
+
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import rocks.zipcode.domain.WorkspaceExport;
+
+/**
+ * Spring Data JPA repository for the {@link WorkspaceExport} entity.
+ */
+@Repository
+public interface WorkspaceExportRepository extends JpaRepository<WorkspaceExport, Long> {
+    List<WorkspaceExport> findAllByOrderByIdDesc();
+
+    List<WorkspaceExport> findByCreatedDateBefore(Instant createdDate);
+
+    /**
+     * Records the progress of a running export, committed on its own while the export reads in its read-only
+     * transaction.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("update WorkspaceExport e set e.currentEntry = :currentEntry, e.rowsExported = :rowsExported where e.id = :id")
+    int updateProgress(Long id, String currentEntry, long rowsExported);
+}
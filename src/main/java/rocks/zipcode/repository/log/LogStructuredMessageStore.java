@@ -0,0 +1,387 @@
+package rocks.zipcode.repository.log;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.TaskScheduler;
+import rocks.zipcode.config.ApplicationProperties;
+import rocks.zipcode.domain.Message;
+import rocks.zipcode.repository.MessageStore;
+
+/**
+ * {@link MessageStore} appending the messages to segment files instead of the message table.
+ * <p>
+ * Every write, including an edit or a deletion (written as a tombstone), is appended to the last segment, which is
+ * sealed and replaced by a new one once it reaches {@code segment-size} or {@code segment-records}. The location of
+ * the last version of each message is kept in memory, rebuilt on startup from the segment indexes; the last segment is
+ * re-read and cut after its last complete record, which is how a crash in the middle of a write is recovered from.
+ * <p>
+ * The sealed segments in which less than {@code compaction-threshold} of the records are still live are compacted
+ * every {@code compaction-interval}: their live records are appended again and the segment is deleted. A tombstone is
+ * carried over the same way, unless its segment is the oldest one, since no older version of its message is left.
+ * <p>
+ * The ids are reserved {@value #ID_BLOCK_SIZE} at a time from an {@link IdAllocator}, the {@code message_id_sequence}
+ * row of the database, above the ids of the message table that the other entities may reference; the rest of a block
+ * is skipped after a restart.
+ * <p>
+ * The segments are local files: this store is meant for a single node.
+ */
+public class LogStructuredMessageStore implements MessageStore, SmartLifecycle, Closeable {
+
+    public static final String SEGMENTS_METER_NAME = "message.store.segments";
+    public static final String MESSAGES_METER_NAME = "message.store.messages";
+
+    static final int ID_BLOCK_SIZE = 100;
+
+    /**
+     * Reserves ids for new messages, see {@link rocks.zipcode.repository.MessageIdRepository}.
+     */
+    @FunctionalInterface
+    public interface IdAllocator {
+        /**
+         * Reserves {@code count} consecutive ids, none below {@code atLeast}.
+         *
+         * @return the first id reserved.
+         */
+        long allocate(int count, long atLeast);
+    }
+
+    private final Logger log = LoggerFactory.getLogger(LogStructuredMessageStore.class);
+
+    private record Location(Segment segment, long position, Instant createdDate) {}
+
+    private final Path directory;
+
+    private final ApplicationProperties.MessageStore properties;
+
+    private final TaskScheduler taskScheduler;
+
+    private final IdAllocator idAllocator;
+
+    private final ConcurrentNavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    private final ConcurrentNavigableMap<Long, Location> locations = new ConcurrentSkipListMap<>();
+
+    /**
+     * Held to read a record, and exclusively to delete a compacted segment.
+     */
+    private final ReadWriteLock segmentsLock = new ReentrantReadWriteLock();
+
+    /**
+     * Writes are serialized on this monitor.
+     */
+    private final Object appendLock = new Object();
+
+    private Segment active;
+
+    /**
+     * The next id of the reserved block, which ends at {@code idLimit}.
+     */
+    private long nextId;
+
+    private long idLimit;
+
+    /**
+     * The highest id ever written to the segments.
+     */
+    private long maxId;
+
+    private final List<ScheduledFuture<?>> scheduledTasks = new ArrayList<>();
+
+    public LogStructuredMessageStore(
+        ApplicationProperties.MessageStore properties,
+        IdAllocator idAllocator,
+        TaskScheduler taskScheduler,
+        MeterRegistry meterRegistry
+    ) {
+        this.directory = Path.of(properties.getDirectory());
+        this.properties = properties;
+        this.idAllocator = idAllocator;
+        this.taskScheduler = taskScheduler;
+        recover();
+        Gauge.builder(SEGMENTS_METER_NAME, segments, Map::size)
+            .description("Segment files of the message store")
+            .register(meterRegistry);
+        Gauge.builder(MESSAGES_METER_NAME, locations, Map::size)
+            .description("Live messages in the message store")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public <S extends Message> S save(S message) {
+        synchronized (appendLock) {
+            if (message.getId() == null) {
+                if (nextId >= idLimit) {
+                    nextId = idAllocator.allocate(ID_BLOCK_SIZE, maxId + 1);
+                    idLimit = nextId + ID_BLOCK_SIZE;
+                }
+                message.setId(nextId++);
+            } else if (message.getId() >= nextId) {
+                nextId = message.getId() + 1;
+            }
+            maxId = Math.max(maxId, message.getId());
+            if (message.getCreatedDate() == null) {
+                message.setCreatedDate(Instant.now());
+            }
+            Location previous = locations.put(message.getId(), append(MessageRecord.of(message)));
+            if (previous != null) {
+                previous.segment().release();
+            }
+        }
+        return message;
+    }
+
+    @Override
+    public Optional<Message> findById(Long id) {
+        return read(id).map(MessageRecord::toMessage);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return locations.containsKey(id);
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        synchronized (appendLock) {
+            Location previous = locations.remove(id);
+            if (previous != null) {
+                append(MessageRecord.tombstone(id));
+                previous.segment().release();
+            }
+        }
+    }
+
+    @Override
+    public Stream<Message> streamAll() {
+        return locations.keySet().stream().map(this::findById).flatMap(Optional::stream);
+    }
+
+    @Override
+    public Stream<Message> streamAllCreatedBetween(Instant from, Instant to) {
+        List<Long> ids = locations
+            .entrySet()
+            .stream()
+            .filter(entry -> !entry.getValue().createdDate().isBefore(from) && entry.getValue().createdDate().isBefore(to))
+            .sorted(
+                Comparator.comparing((Map.Entry<Long, Location> entry) -> entry.getValue().createdDate()).thenComparing(Map.Entry::getKey)
+            )
+            .map(Map.Entry::getKey)
+            .toList();
+        return ids.stream().map(this::findById).flatMap(Optional::stream);
+    }
+
+    /**
+     * Forces the last segment to the disk.
+     */
+    public void flush() {
+        Segment segment;
+        synchronized (appendLock) {
+            segment = active;
+        }
+        segment.force();
+    }
+
+    /**
+     * Compacts the sealed segments with too few live records, oldest first.
+     *
+     * @return the number of segments deleted.
+     */
+    public synchronized int compact() {
+        int compacted = 0;
+        for (Segment segment : segments.values()) {
+            if (segment == currentSegment()) {
+                break;
+            }
+            int records = segment.records();
+            if (records > 0 && segment.live() >= records * properties.getCompactionThreshold()) {
+                continue;
+            }
+            compact(segment);
+            compacted++;
+        }
+        return compacted;
+    }
+
+    /**
+     * Schedules the periodic fsync and the compaction, unless there is no task scheduler, as in the tests.
+     */
+    @Override
+    public void start() {
+        if (taskScheduler == null) {
+            log.warn("No task scheduler available, the message store is neither flushed nor compacted periodically");
+            return;
+        }
+        synchronized (scheduledTasks) {
+            if (properties.getFsync() == ApplicationProperties.MessageStore.FsyncPolicy.INTERVAL) {
+                scheduledTasks.add(taskScheduler.scheduleWithFixedDelay(this::flush, properties.getFsyncInterval()));
+            }
+            scheduledTasks.add(taskScheduler.scheduleWithFixedDelay(this::compactQuietly, properties.getCompactionInterval()));
+        }
+    }
+
+    @Override
+    public void stop() {
+        synchronized (scheduledTasks) {
+            scheduledTasks.forEach(task -> task.cancel(false));
+            scheduledTasks.clear();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        synchronized (scheduledTasks) {
+            return !scheduledTasks.isEmpty();
+        }
+    }
+
+    @Override
+    public void close() {
+        stop();
+        synchronized (appendLock) {
+            active.seal();
+            segments.values().forEach(Segment::close);
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            int compacted = compact();
+            if (compacted > 0) {
+                log.info("Compacted {} message store segments", compacted);
+            }
+        } catch (RuntimeException e) {
+            log.error("Message store compaction failed", e);
+        }
+    }
+
+    private void compact(Segment segment) {
+        boolean oldest = segments.firstKey() == segment.sequence();
+        for (Segment.Entry entry : segment.entries()) {
+            synchronized (appendLock) {
+                Location location = locations.get(entry.id());
+                if (entry.isTombstone()) {
+                    // an older segment may still hold a version of the message the tombstone hides
+                    if (!oldest && location == null) {
+                        append(MessageRecord.tombstone(entry.id()));
+                    }
+                } else if (location != null && location.segment() == segment && location.position() == entry.position()) {
+                    locations.put(entry.id(), append(segment.read(entry.position())));
+                    segment.release();
+                }
+            }
+        }
+        synchronized (appendLock) {
+            // the records carried over must be on the disk before their only other copy is deleted
+            active.force();
+        }
+        segmentsLock.writeLock().lock();
+        try {
+            segments.remove(segment.sequence());
+            segment.delete();
+        } finally {
+            segmentsLock.writeLock().unlock();
+        }
+    }
+
+    private Optional<MessageRecord> read(Long id) {
+        while (true) {
+            Location location = locations.get(id);
+            if (location == null) {
+                return Optional.empty();
+            }
+            segmentsLock.readLock().lock();
+            try {
+                if (!location.segment().isDeleted()) {
+                    return Optional.of(location.segment().read(location.position()));
+                }
+            } finally {
+                segmentsLock.readLock().unlock();
+            }
+            // moved by a compaction in the meantime
+        }
+    }
+
+    /**
+     * Appends a record to the last segment, sealing it first if it is full; called with the append lock held.
+     */
+    private Location append(MessageRecord record) {
+        if (active.isFull(properties.getSegmentSize().toBytes())) {
+            active.seal();
+            active = Segment.create(directory, active.sequence() + 1, properties.getSegmentRecords());
+            segments.put(active.sequence(), active);
+        }
+        Segment.Entry entry = active.append(record);
+        if (properties.getFsync() == ApplicationProperties.MessageStore.FsyncPolicy.ALWAYS) {
+            active.force();
+        }
+        if (record.isTombstone()) {
+            return null;
+        }
+        active.retain();
+        return new Location(active, entry.position(), entry.createdDate());
+    }
+
+    private Segment currentSegment() {
+        synchronized (appendLock) {
+            return active;
+        }
+    }
+
+    private void recover() {
+        List<Long> sequences;
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                sequences = files
+                    .map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(Segment.LOG_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - Segment.LOG_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (int i = 0; i < sequences.size(); i++) {
+            List<Segment.Entry> entries = new ArrayList<>();
+            boolean sealed = i < sequences.size() - 1;
+            Segment segment = Segment.open(directory, sequences.get(i), properties.getSegmentRecords(), sealed, entries);
+            segments.put(segment.sequence(), segment);
+            for (Segment.Entry entry : entries) {
+                Location previous = entry.isTombstone()
+                    ? locations.remove(entry.id())
+                    : locations.put(entry.id(), new Location(segment, entry.position(), entry.createdDate()));
+                if (previous != null) {
+                    previous.segment().release();
+                }
+                if (!entry.isTombstone()) {
+                    segment.retain();
+                }
+                maxId = Math.max(maxId, entry.id());
+            }
+        }
+        active = segments.isEmpty() ? Segment.create(directory, 1, properties.getSegmentRecords()) : segments.lastEntry().getValue();
+        segments.putIfAbsent(active.sequence(), active);
+        log.info("Message store opened in {}: {} messages in {} segments", directory, locations.size(), segments.size());
+    }
+}
@@ -0,0 +1,116 @@
+package rocks.zipcode.repository.log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import rocks.zipcode.domain.Mention;
+import rocks.zipcode.domain.Message;
+
+/**
+ * A version of a message as written to a segment, or the tombstone of a deleted message when {@code createdDate} is
+ * {@code null}.
+ * <p>
+ * Only the columns of the message table are kept: its mention is referenced by id, and the channels and user profiles
+ * pointing to it stay in the database.
+ */
+record MessageRecord(long id, Instant createdDate, String uploads, Integer pinned, Integer timestamp, Long mentionsId) {
+    private static final byte VERSION = 1;
+
+    private static final byte PUT = 0;
+
+    private static final byte DELETE = 1;
+
+    static MessageRecord of(Message message) {
+        return new MessageRecord(
+            message.getId(),
+            message.getCreatedDate(),
+            message.getUploads(),
+            message.getPinned(),
+            message.getTimestamp(),
+            message.getMentions() == null ? null : message.getMentions().getId()
+        );
+    }
+
+    static MessageRecord tombstone(long id) {
+        return new MessageRecord(id, null, null, null, null, null);
+    }
+
+    boolean isTombstone() {
+        return createdDate == null;
+    }
+
+    Message toMessage() {
+        Message message = new Message().id(id).createdDate(createdDate).uploads(uploads).pinned(pinned).timestamp(timestamp);
+        if (mentionsId != null) {
+            message.setMentions(new Mention().id(mentionsId));
+        }
+        return message;
+    }
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeByte(isTombstone() ? DELETE : PUT);
+            out.writeLong(id);
+            if (!isTombstone()) {
+                out.writeLong(createdDate.getEpochSecond());
+                out.writeInt(createdDate.getNano());
+                if (uploads == null) {
+                    out.writeInt(-1);
+                } else {
+                    byte[] utf8 = uploads.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(utf8.length);
+                    out.write(utf8);
+                }
+                out.writeBoolean(pinned != null);
+                out.writeInt(pinned == null ? 0 : pinned);
+                out.writeBoolean(timestamp != null);
+                out.writeInt(timestamp == null ? 0 : timestamp);
+                out.writeBoolean(mentionsId != null);
+                out.writeLong(mentionsId == null ? 0 : mentionsId);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static MessageRecord decode(ByteBuffer buffer) {
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalStateException("Unsupported message record version: " + version);
+        }
+        boolean tombstone = buffer.get() == DELETE;
+        long id = buffer.getLong();
+        if (tombstone) {
+            return tombstone(id);
+        }
+        Instant createdDate = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+        int length = buffer.getInt();
+        String uploads = null;
+        if (length >= 0) {
+            byte[] utf8 = new byte[length];
+            buffer.get(utf8);
+            uploads = new String(utf8, StandardCharsets.UTF_8);
+        }
+        Integer pinned = buffer.get() != 0 ? Integer.valueOf(buffer.getInt()) : skipInt(buffer);
+        Integer timestamp = buffer.get() != 0 ? Integer.valueOf(buffer.getInt()) : skipInt(buffer);
+        Long mentionsId = buffer.get() != 0 ? Long.valueOf(buffer.getLong()) : skipLong(buffer);
+        return new MessageRecord(id, createdDate, uploads, pinned, timestamp, mentionsId);
+    }
+
+    private static Integer skipInt(ByteBuffer buffer) {
+        buffer.getInt();
+        return null;
+    }
+
+    private static Long skipLong(ByteBuffer buffer) {
+        buffer.getLong();
+        return null;
+    }
+}
@@ -0,0 +1,337 @@
+package rocks.zipcode.repository.log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32C;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An append-only file of message records, with its memory-mapped index.
+ * <p>
+ * Each record of the {@code .log} file is framed as {@code [length][crc32c][payload]}. The {@code .idx} file holds a
+ * {@code [magic][count]} header followed by one fixed-size entry per record ({@code id}, position in the log and
+ * creation date, a negative nano-of-second marking a tombstone), so that the sealed segments are loaded without
+ * reading their records.
+ */
+final class Segment implements Closeable {
+
+    static final String LOG_SUFFIX = ".log";
+
+    static final String INDEX_SUFFIX = ".idx";
+
+    private static final int FRAME_HEADER_SIZE = 8;
+
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+
+    private static final int INDEX_MAGIC = 0x4d534749;
+
+    private static final int INDEX_HEADER_SIZE = 8;
+
+    private static final int INDEX_ENTRY_SIZE = 28;
+
+    private static final Logger log = LoggerFactory.getLogger(Segment.class);
+
+    /**
+     * An index entry, {@code createdDate} is {@code null} for a tombstone.
+     */
+    record Entry(long id, long position, Instant createdDate) {
+        boolean isTombstone() {
+            return createdDate == null;
+        }
+    }
+
+    private final long sequence;
+
+    private final Path logFile;
+
+    private final Path indexFile;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer index;
+
+    private final int capacity;
+
+    private long size;
+
+    private int records;
+
+    private final AtomicInteger live = new AtomicInteger();
+
+    private volatile boolean deleted;
+
+    private Segment(long sequence, Path directory, int capacity) throws IOException {
+        this.sequence = sequence;
+        this.logFile = directory.resolve(fileName(sequence, LOG_SUFFIX));
+        this.indexFile = directory.resolve(fileName(sequence, INDEX_SUFFIX));
+        // an index written with a larger segment-records keeps its capacity
+        long existingCapacity = Files.exists(indexFile) ? (Files.size(indexFile) - INDEX_HEADER_SIZE) / INDEX_ENTRY_SIZE : 0;
+        this.capacity = (int) Math.max(capacity, existingCapacity);
+        this.channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.size = channel.size();
+        try (
+            FileChannel indexChannel = FileChannel.open(
+                indexFile,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+            )
+        ) {
+            this.index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER_SIZE + (long) this.capacity * INDEX_ENTRY_SIZE);
+        }
+    }
+
+    static Segment create(Path directory, long sequence, int capacity) {
+        try {
+            Segment segment = new Segment(sequence, directory, capacity);
+            segment.writeIndexHeader();
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Opens an existing segment and returns its entries in the order they were appended: a sealed segment is loaded from
+     * its index, the last one is read record by record and truncated after its last complete record.
+     */
+    static Segment open(Path directory, long sequence, int capacity, boolean sealed, List<Entry> entries) {
+        try {
+            Segment segment = new Segment(sequence, directory, capacity);
+            if (!sealed || !segment.loadIndex(entries)) {
+                entries.clear();
+                segment.recover(entries);
+            }
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String fileName(long sequence, String suffix) {
+        return String.format("%020d%s", sequence, suffix);
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    synchronized boolean isFull(long maxSize) {
+        return size >= maxSize || records >= capacity;
+    }
+
+    synchronized int records() {
+        return records;
+    }
+
+    int live() {
+        return live.get();
+    }
+
+    void retain() {
+        live.incrementAndGet();
+    }
+
+    void release() {
+        live.decrementAndGet();
+    }
+
+    boolean isDeleted() {
+        return deleted;
+    }
+
+    /**
+     * Appends a record, not forced to the disk.
+     *
+     * @return the index entry of the record.
+     */
+    synchronized Entry append(MessageRecord record) {
+        if (records >= capacity) {
+            throw new IllegalStateException("Segment " + sequence + " is full");
+        }
+        byte[] payload = record.encode();
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_SIZE + payload.length);
+        frame.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        long position = size;
+        try {
+            while (frame.hasRemaining()) {
+                channel.write(frame, position + frame.position());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        size += frame.limit();
+        Entry entry = new Entry(record.id(), position, record.createdDate());
+        writeIndexEntry(records, entry);
+        records++;
+        index.putInt(4, records);
+        return entry;
+    }
+
+    /**
+     * Reads the record at the given position, checking its CRC.
+     */
+    MessageRecord read(long position) {
+        try {
+            ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+            readFully(header, position);
+            int length = header.getInt(0);
+            if (length <= 0 || length > MAX_RECORD_SIZE) {
+                throw new IllegalStateException("Corrupt record at " + position + " of segment " + sequence);
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(payload, position + FRAME_HEADER_SIZE);
+            CRC32C crc = new CRC32C();
+            crc.update(payload.array());
+            if ((int) crc.getValue() != header.getInt(4)) {
+                throw new IllegalStateException("CRC mismatch at " + position + " of segment " + sequence);
+            }
+            return MessageRecord.decode(payload.flip());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The index entries, in the order the records were appended.
+     */
+    synchronized List<Entry> entries() {
+        List<Entry> entries = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            entries.add(readIndexEntry(i));
+        }
+        return entries;
+    }
+
+    void force() {
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Forces the records and the index to the disk, before the next segment is created.
+     */
+    synchronized void seal() {
+        force();
+        index.force();
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized void delete() {
+        deleted = true;
+        close();
+        try {
+            Files.deleteIfExists(logFile);
+            Files.deleteIfExists(indexFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean loadIndex(List<Entry> entries) {
+        int count = index.getInt(4);
+        if (index.getInt(0) != INDEX_MAGIC || count < 0 || count > capacity) {
+            log.warn("Invalid index for segment {}, reading its records", sequence);
+            return false;
+        }
+        records = count;
+        List<Entry> indexed = entries();
+        if (!indexed.isEmpty() && indexed.get(indexed.size() - 1).position() >= size) {
+            log.warn("Index of segment {} points past its records, reading them", sequence);
+            return false;
+        }
+        entries.addAll(indexed);
+        return true;
+    }
+
+    /**
+     * Reads the records one by one until the end of the file or the first incomplete or corrupt one, left by a crash
+     * in the middle of a write, and rebuilds the index from them.
+     */
+    private void recover(List<Entry> entries) throws IOException {
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+        while (position + FRAME_HEADER_SIZE <= size && entries.size() < capacity) {
+            header.clear();
+            readFully(header, position);
+            int length = header.getInt(0);
+            if (length <= 0 || length > MAX_RECORD_SIZE || position + FRAME_HEADER_SIZE + length > size) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(payload, position + FRAME_HEADER_SIZE);
+            CRC32C crc = new CRC32C();
+            crc.update(payload.array());
+            if ((int) crc.getValue() != header.getInt(4)) {
+                break;
+            }
+            MessageRecord record = MessageRecord.decode(payload.flip());
+            entries.add(new Entry(record.id(), position, record.createdDate()));
+            position += FRAME_HEADER_SIZE + length;
+        }
+        if (position < size) {
+            log.warn("Truncating segment {} from {} to {} bytes after an incomplete or corrupt record", sequence, size, position);
+            channel.truncate(position);
+            size = position;
+        }
+        writeIndexHeader();
+        records = 0;
+        for (Entry entry : entries) {
+            writeIndexEntry(records++, entry);
+        }
+        index.putInt(4, records);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of segment " + sequence + " at " + position);
+            }
+        }
+    }
+
+    private void writeIndexHeader() {
+        index.putInt(0, INDEX_MAGIC);
+        index.putInt(4, 0);
+    }
+
+    private void writeIndexEntry(int slot, Entry entry) {
+        int offset = INDEX_HEADER_SIZE + slot * INDEX_ENTRY_SIZE;
+        index.putLong(offset, entry.id());
+        index.putLong(offset + 8, entry.position());
+        index.putLong(offset + 16, entry.isTombstone() ? 0 : entry.createdDate().getEpochSecond());
+        index.putInt(offset + 24, entry.isTombstone() ? -1 : entry.createdDate().getNano());
+    }
+
+    private Entry readIndexEntry(int slot) {
+        int offset = INDEX_HEADER_SIZE + slot * INDEX_ENTRY_SIZE;
+        int nanos = index.getInt(offset + 24);
+        Instant createdDate = nanos < 0 ? null : Instant.ofEpochSecond(index.getLong(offset + 16), nanos);
+        return new Entry(index.getLong(offset), index.getLong(offset + 8), createdDate);
+    }
+}
@@ -0,0 +1,114 @@
+package rocks.zipcode.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link PasswordEncoder} decorator running the (deliberately expensive) hashing of its delegate on a dedicated,
+ * bounded thread pool.
+ * <p>
+ * During a login storm, at most {@code poolSize} hashes run at the same time and at most {@code queueCapacity} callers
+ * wait for a slot; any further caller, or one waiting longer than {@code queueTimeout}, gets a
+ * {@link LoginCapacityExceededException} right away instead of tying up a web server worker. The pool publishes the
+ * standard Micrometer {@code executor.*} meters under the {@code password-encoder} name.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    public static final String EXECUTOR_NAME = "password-encoder";
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolExecutor threadPoolExecutor;
+
+    private final ExecutorService executor;
+
+    private final Duration queueTimeout;
+
+    private final Duration retryAfter;
+
+    public BoundedPasswordEncoder(
+        PasswordEncoder delegate,
+        int poolSize,
+        int queueCapacity,
+        Duration queueTimeout,
+        Duration retryAfter,
+        MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        this.queueTimeout = queueTimeout;
+        this.retryAfter = retryAfter;
+        BlockingQueue<Runnable> queue = queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>();
+        this.threadPoolExecutor = new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            0L,
+            TimeUnit.MILLISECONDS,
+            queue,
+            new CustomizableThreadFactory(EXECUTOR_NAME + "-"),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPoolExecutor, EXECUTOR_NAME);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        threadPoolExecutor.shutdown();
+    }
+
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new LoginCapacityExceededException(retryAfter, e);
+        }
+        try {
+            return future.get(queueTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new LoginCapacityExceededException(retryAfter, e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new LoginCapacityExceededException(retryAfter, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package rocks.zipcode.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * {@link JwtDecoder} decorator that remembers tokens which were already parsed and verified by the delegate.
+ * <p>
+ * Entries are keyed by the SHA-256 digest of the token, so raw bearer tokens are never retained, and are only served
+ * while the token's {@code exp} claim lies in the future. Tokens without an expiry are never cached. Every miss goes
+ * through the delegate, so invalid tokens keep being rejected (and tracked) exactly as before.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final JwtDecoder delegate;
+
+    private final int maxEntries;
+
+    private final Clock clock;
+
+    private final ConcurrentMap<String, Jwt> cache = new ConcurrentHashMap<>();
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxEntries) {
+        this(delegate, maxEntries, Clock.systemUTC());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, int maxEntries, Clock clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = digest(token);
+        Instant now = clock.instant();
+        Jwt cached = cache.get(key);
+        if (cached != null) {
+            if (isUsableAt(cached, now)) {
+                return cached;
+            }
+            cache.remove(key, cached);
+        }
+        Jwt jwt = delegate.decode(token);
+        if (isUsableAt(jwt, now)) {
+            if (cache.size() >= maxEntries) {
+                evict(now);
+            }
+            cache.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    /**
+     * Purges expired entries first, then drops arbitrary entries until there is room for one more.
+     */
+    private void evict(Instant now) {
+        cache.values().removeIf(jwt -> !isUsableAt(jwt, now));
+        Iterator<String> keys = cache.keySet().iterator();
+        while (cache.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static boolean isUsableAt(Jwt jwt, Instant now) {
+        Instant expiresAt = jwt.getExpiresAt();
+        return expiresAt != null && now.isBefore(expiresAt);
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance(DIGEST_ALGORITHM).digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not available", e);
+        }
+    }
+}
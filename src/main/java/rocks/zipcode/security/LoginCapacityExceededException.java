@@ -0,0 +1,25 @@
+package rocks.zipcode.security;
+
+import java.time.Duration;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * This exception is thrown when password hashing is saturated and a login attempt cannot be admitted.
+ */
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Too many concurrent login attempts")
+public class LoginCapacityExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    public LoginCapacityExceededException(Duration retryAfter, Throwable t) {
+        super("Password verification capacity exceeded", t);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,280 @@
+package rocks.zipcode.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import rocks.zipcode.config.ApplicationProperties;
+import rocks.zipcode.domain.Attachment;
+import rocks.zipcode.domain.enumeration.AttachmentStatus;
+import rocks.zipcode.domain.enumeration.PreviewStatus;
+import rocks.zipcode.repository.AttachmentRepository;
+import rocks.zipcode.service.storage.ContentStore;
+
+/**
+ * Service for the files attached to messages.
+ * <p>
+ * An attachment is declared with its size first, then its content is uploaded in chunks, each one starting where the
+ * previous one ended; after an interrupted upload, the client asks for {@link #currentOffset(Attachment)} and resumes
+ * from there. No transaction is held while a chunk is streamed to the {@link ContentStore} or read back from it.
+ * <p>
+ * The SHA-256 of the content is computed as the chunks are streamed, the digest of an upload in progress being kept in
+ * memory between its chunks; only an upload resumed after a restart, or on another node, reads its first chunks back.
+ * A complete content is then stored once per hash by {@link ContentBlobService}. With
+ * {@code application.attachments.reuse-declared-hash}, an attachment declared with the hash of a stored content does not
+ * need to be uploaded at all, which gives that content to anyone who knows its hash: it is off by default.
+ * <p>
+ * Once an image is complete, its thumbnail and preview are generated in the background by {@link ThumbnailService}.
+ */
+@Service
+@Transactional
+public class AttachmentService {
+
+    private static final int MAX_PARTIAL_DIGESTS = 10_000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Logger log = LoggerFactory.getLogger(AttachmentService.class);
+
+    /**
+     * The digest of the first {@code offset} bytes of an upload.
+     */
+    private record PartialDigest(long offset, MessageDigest digest) {}
+
+    private final AttachmentRepository attachmentRepository;
+
+    private final ContentStore contentStore;
+
+    private final ContentBlobService contentBlobService;
+
+    private final ThumbnailService thumbnailService;
+
+    private final ApplicationProperties.Attachments properties;
+
+    /**
+     * The digests of the uploads in progress, the least recently used ones being dropped beyond
+     * {@value #MAX_PARTIAL_DIGESTS}.
+     */
+    private final Map<Long, PartialDigest> partialDigests = Collections.synchronizedMap(
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, PartialDigest> eldest) {
+                return size() > MAX_PARTIAL_DIGESTS;
+            }
+        }
+    );
+
+    public AttachmentService(
+        AttachmentRepository attachmentRepository,
+        ContentStore contentStore,
+        ContentBlobService contentBlobService,
+        ThumbnailService thumbnailService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.attachmentRepository = attachmentRepository;
+        this.contentStore = contentStore;
+        this.contentBlobService = contentBlobService;
+        this.thumbnailService = thumbnailService;
+        this.properties = applicationProperties.getAttachments();
+    }
+
+    /**
+     * Creates an attachment, complete right away if it is declared with the {@code contentHash} of a stored content of
+     * the same length and {@code reuse-declared-hash} is on.
+     */
+    public Attachment create(Attachment attachment) {
+        log.debug("Request to create Attachment : {}", attachment);
+        attachment.setCreatedDate(Instant.now());
+        String declaredHash = attachment.getContentHash();
+        attachment.setContentHash(null);
+        if (
+            declaredHash != null &&
+            properties.isReuseDeclaredHash() &&
+            contentBlobService.retain(declaredHash, attachment.getContentLength())
+        ) {
+            attachment.setReceived(attachment.getContentLength());
+            attachment.setStorageKey(ContentBlobService.key(declaredHash));
+            complete(attachment, declaredHash);
+            attachment = attachmentRepository.save(attachment);
+            if (attachment.getPreviewStatus() == PreviewStatus.PENDING) {
+                scheduleAfterCommit(attachment.getId());
+            }
+            return attachment;
+        }
+        attachment.setStatus(AttachmentStatus.UPLOADING);
+        attachment.setReceived(0);
+        attachment = attachmentRepository.save(attachment);
+        attachment.setStorageKey("attachments/" + attachment.getId());
+        return attachment;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Attachment> findOne(Long id) {
+        return attachmentRepository.findById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Attachment> findByMessage(Long messageId) {
+        return attachmentRepository.findByMessageIdOrderById(messageId);
+    }
+
+    /**
+     * The offset the upload resumes from, which is what the content store holds: the last chunk may have been stored
+     * without the attachment being updated.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long currentOffset(Attachment attachment) throws IOException {
+        return contentStore.length(attachment.getStorageKey());
+    }
+
+    /**
+     * Appends a chunk to the content of the attachment, which is complete once {@code contentLength} bytes are received.
+     * The bytes of {@code chunk} beyond the declared length are not read. The previews of a complete image are queued
+     * for generation.
+     *
+     * @return the updated attachment.
+     * @throws UploadOffsetMismatchException if {@code offset} is not where the upload is.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Attachment appendContent(Attachment attachment, long offset, InputStream chunk) throws IOException {
+        log.debug("Request to append to Attachment {} from offset {}", attachment.getId(), offset);
+        if (attachment.getStatus() == AttachmentStatus.COMPLETE) {
+            throw new UploadOffsetMismatchException(attachment.getContentLength());
+        }
+        MessageDigest digest = digestUpTo(attachment, offset);
+        InputStream digested = new DigestInputStream(chunk, digest);
+        long remaining = attachment.getContentLength() - offset;
+        long received = contentStore.append(attachment.getStorageKey(), offset, digested, Math.max(remaining, 0));
+        attachment.setReceived(received);
+        if (received == attachment.getContentLength()) {
+            String hash = ContentBlobService.hex(digest);
+            attachment.setStorageKey(contentBlobService.store(attachment.getStorageKey(), hash, received));
+            complete(attachment, hash);
+        } else {
+            partialDigests.put(attachment.getId(), new PartialDigest(received, digest));
+        }
+        attachment = attachmentRepository.save(attachment);
+        if (attachment.getPreviewStatus() == PreviewStatus.PENDING) {
+            thumbnailService.schedule(attachment.getId());
+        }
+        return attachment;
+    }
+
+    /**
+     * Writes {@code count} bytes of the content of a complete attachment, from {@code position}, to the target.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void transferContent(Attachment attachment, long position, long count, WritableByteChannel target) throws IOException {
+        contentStore.transferTo(attachment.getStorageKey(), position, count, target);
+    }
+
+    /**
+     * The length of a derivative ({@link ThumbnailService#THUMBNAIL} or {@link ThumbnailService#PREVIEW}) of an attachment
+     * whose previews are ready.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long derivativeLength(Attachment attachment, String variant) throws IOException {
+        return contentStore.length(ThumbnailService.key(attachment.getContentHash(), variant));
+    }
+
+    /**
+     * Writes {@code count} bytes of a derivative of an attachment, from {@code position}, to the target.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void transferDerivative(Attachment attachment, String variant, long position, long count, WritableByteChannel target)
+        throws IOException {
+        contentStore.transferTo(ThumbnailService.key(attachment.getContentHash(), variant), position, count, target);
+    }
+
+    /**
+     * Deletes the attachment: the reference to its blob is released, or the partial upload deleted once the deletion is
+     * committed.
+     */
+    public void delete(Long id) {
+        log.debug("Request to delete Attachment : {}", id);
+        partialDigests.remove(id);
+        attachmentRepository
+            .findById(id)
+            .ifPresent(attachment -> {
+                attachmentRepository.delete(attachment);
+                if (ContentBlobService.isBlobKey(attachment.getStorageKey())) {
+                    contentBlobService.release(attachment.getContentHash());
+                    return;
+                }
+                TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            try {
+                                contentStore.delete(attachment.getStorageKey());
+                            } catch (IOException e) {
+                                log.warn("Could not delete the content of attachment {}: {}", attachment.getId(), e.getMessage());
+                            }
+                        }
+                    }
+                );
+            });
+    }
+
+    private void complete(Attachment attachment, String hash) {
+        attachment.setContentHash(hash);
+        attachment.setStatus(AttachmentStatus.COMPLETE);
+        attachment.setCompletedDate(Instant.now());
+        attachment.setPreviewStatus(thumbnailService.accepts(attachment.getContentType()) ? PreviewStatus.PENDING : PreviewStatus.NONE);
+    }
+
+    /**
+     * The digest of the first {@code offset} bytes of the upload: the one kept from the previous chunk, or else
+     * computed from the stored content.
+     */
+    private MessageDigest digestUpTo(Attachment attachment, long offset) throws IOException {
+        PartialDigest partial = partialDigests.get(attachment.getId());
+        if (partial != null && partial.offset() == offset && partialDigests.remove(attachment.getId(), partial)) {
+            return partial.digest();
+        }
+        MessageDigest digest = ContentBlobService.newDigest();
+        if (offset == 0) {
+            return digest;
+        }
+        long stored = contentStore.length(attachment.getStorageKey());
+        if (stored != offset) {
+            throw new UploadOffsetMismatchException(stored);
+        }
+        log.debug("Reading back the first {} bytes of Attachment {}", offset, attachment.getId());
+        try (InputStream content = contentStore.newInputStream(attachment.getStorageKey())) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long remaining = offset;
+            int read;
+            while (remaining > 0 && (read = content.read(buffer, 0, (int) Math.min(buffer.length, remaining))) != -1) {
+                digest.update(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+        return digest;
+    }
+
+    private void scheduleAfterCommit(Long attachmentId) {
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    thumbnailService.schedule(attachmentId);
+                }
+            }
+        );
+    }
+}
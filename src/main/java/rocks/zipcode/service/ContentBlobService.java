@@ -0,0 +1,214 @@
+package rocks.zipcode.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import rocks.zipcode.domain.ContentBlob;
+import rocks.zipcode.repository.AttachmentRepository;
+import rocks.zipcode.repository.ContentBlobRepository;
+import rocks.zipcode.service.storage.ContentStore;
+
+/**
+ * Service for the {@link ContentBlob}s: the attachment contents, stored once per SHA-256 under {@code blobs/<hash>}.
+ * <p>
+ * A completed upload either adds a reference to the existing blob with its hash, its own copy being dropped, or
+ * becomes that blob. Deleting an attachment only releases its reference; the blobs left without any are deleted by
+ * {@link rocks.zipcode.service.job.ContentBlobCollectionJob}, with their previews, which holds a lock on the row so
+ * that an upload of the same content waits for the deletion to be committed, then stores the blob again.
+ */
+@Service
+@Transactional
+public class ContentBlobService {
+
+    private static final String BLOB_KEY_PREFIX = "blobs/";
+
+    private static final String COLLECTED_KEY_PREFIX = "collected/";
+
+    private final Logger log = LoggerFactory.getLogger(ContentBlobService.class);
+
+    private final ContentBlobRepository contentBlobRepository;
+
+    private final AttachmentRepository attachmentRepository;
+
+    private final ContentStore contentStore;
+
+    public ContentBlobService(
+        ContentBlobRepository contentBlobRepository,
+        AttachmentRepository attachmentRepository,
+        ContentStore contentStore
+    ) {
+        this.contentBlobRepository = contentBlobRepository;
+        this.attachmentRepository = attachmentRepository;
+        this.contentStore = contentStore;
+    }
+
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static String hex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * The key of the blob in the content store.
+     */
+    public static String key(String hash) {
+        return BLOB_KEY_PREFIX + hash;
+    }
+
+    public static boolean isBlobKey(String storageKey) {
+        return storageKey != null && storageKey.startsWith(BLOB_KEY_PREFIX);
+    }
+
+    /**
+     * Adds a reference to the blob with this hash and length, if it exists.
+     *
+     * @return whether the blob exists, in which case its content does not need to be uploaded.
+     */
+    public boolean retain(String hash, long contentLength) {
+        return contentBlobRepository.retain(hash, contentLength) == 1;
+    }
+
+    /**
+     * Stores a complete upload as the blob with this hash, or adds a reference to that blob and deletes the upload if
+     * it is already stored.
+     *
+     * @return the storage key of the blob.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String store(String uploadKey, String hash, long contentLength) throws IOException {
+        if (contentBlobRepository.retain(hash, contentLength) == 0) {
+            // the same content uploaded at the same time is moved with the same bytes
+            contentStore.move(uploadKey, key(hash));
+            try {
+                contentBlobRepository.saveAndFlush(new ContentBlob().hash(hash).contentLength(contentLength).refCount(1));
+                return key(hash);
+            } catch (DataIntegrityViolationException e) {
+                if (contentBlobRepository.retain(hash, contentLength) == 0) {
+                    throw new IllegalStateException("Blob " + hash + " exists with another length", e);
+                }
+                return key(hash);
+            }
+        }
+        log.debug("Upload {} is a duplicate of blob {}", uploadKey, hash);
+        contentStore.delete(uploadKey);
+        return key(hash);
+    }
+
+    /**
+     * Releases a reference to the blob, in the current transaction.
+     */
+    public void release(String hash) {
+        if (contentBlobRepository.release(hash, Instant.now()) == 0) {
+            log.warn("Blob {} was not referenced", hash);
+        }
+    }
+
+    /**
+     * The blobs without any reference since before the given date, oldest first.
+     */
+    @Transactional(readOnly = true)
+    public List<String> findUnreferenced(Instant releasedBefore, int limit) {
+        return contentBlobRepository.findUnreferencedHashes(releasedBefore, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Deletes the blob if it is still without any reference, with its previews unless another attachment uses them.
+     * <p>
+     * The files are moved aside under {@code collected/} while the row is locked, then deleted once the row deletion is
+     * committed, or moved back if it is rolled back; an upload of the same content that waited for the lock stores its
+     * blob again under the same key, which the late deletion must not touch.
+     *
+     * @return whether the blob was deleted.
+     */
+    public boolean collect(String hash) {
+        ContentBlob blob = contentBlobRepository.findByHashForUpdate(hash).orElse(null);
+        if (blob == null || blob.getRefCount() > 0) {
+            return false;
+        }
+        List<String> keys = new ArrayList<>(List.of(key(hash)));
+        if (!attachmentRepository.existsByContentHash(hash)) {
+            keys.add(ThumbnailService.key(hash, ThumbnailService.THUMBNAIL));
+            keys.add(ThumbnailService.key(hash, ThumbnailService.PREVIEW));
+        }
+        Map<String, String> movedAside = new LinkedHashMap<>();
+        try {
+            for (String key : keys) {
+                String collectedKey = COLLECTED_KEY_PREFIX + UUID.randomUUID();
+                if (moveIfStored(key, collectedKey)) {
+                    movedAside.put(key, collectedKey);
+                }
+            }
+        } catch (IOException e) {
+            moveBack(movedAside);
+            throw new UncheckedIOException(e);
+        }
+        contentBlobRepository.delete(blob);
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        deleteCollected(hash, movedAside.values());
+                    } else {
+                        moveBack(movedAside);
+                    }
+                }
+            }
+        );
+        return true;
+    }
+
+    private boolean moveIfStored(String key, String targetKey) throws IOException {
+        try {
+            contentStore.move(key, targetKey);
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private void moveBack(Map<String, String> movedAside) {
+        movedAside.forEach((key, collectedKey) -> {
+            try {
+                contentStore.move(collectedKey, key);
+            } catch (IOException e) {
+                log.warn("Could not restore the content {} from {}: {}", key, collectedKey, e.getMessage());
+            }
+        });
+    }
+
+    private void deleteCollected(String hash, Collection<String> collectedKeys) {
+        for (String collectedKey : collectedKeys) {
+            try {
+                contentStore.delete(collectedKey);
+            } catch (IOException e) {
+                log.warn("Could not delete the content of blob {} at {}: {}", hash, collectedKey, e.getMessage());
+            }
+        }
+    }
+}
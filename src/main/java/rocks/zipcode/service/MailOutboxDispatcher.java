@@ -0,0 +1,229 @@
+package rocks.zipcode.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.stereotype.Service;
+import rocks.zipcode.config.ApplicationProperties;
+import rocks.zipcode.domain.MailOutboxEntry;
+import rocks.zipcode.service.job.ClusteredJob;
+import rocks.zipcode.service.job.JobShard;
+
+/**
+ * Drains the mail outbox written by {@link MailOutboxService}.
+ * <p>
+ * Each batch is handed to {@link JavaMailSender#send(MimeMessage...)}, which sends all of its messages over a single SMTP
+ * connection. Messages that fail are retried with an exponential backoff until {@code max-attempts} is reached.
+ * As a {@link ClusteredJob}, the outbox is only drained by one node at a time.
+ */
+@Service
+public class MailOutboxDispatcher implements ClusteredJob {
+
+    public static final String SENT_METER_NAME = "mail.outbox.sent";
+    public static final String FAILED_METER_NAME = "mail.outbox.failed";
+    public static final String BATCH_METER_NAME = "mail.outbox.batch";
+    public static final String BACKLOG_METER_NAME = "mail.outbox.backlog";
+
+    private final Logger log = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+
+    private final MailOutboxService mailOutboxService;
+
+    private final MailService mailService;
+
+    private final JavaMailSender javaMailSender;
+
+    private final ApplicationProperties.MailOutbox properties;
+
+    private final Counter sentCounter;
+
+    private final Counter retriedCounter;
+
+    private final Counter givenUpCounter;
+
+    private final Timer batchTimer;
+
+    private final AtomicLong backlog = new AtomicLong();
+
+    public MailOutboxDispatcher(
+        MailOutboxService mailOutboxService,
+        MailService mailService,
+        JavaMailSender javaMailSender,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.mailOutboxService = mailOutboxService;
+        this.mailService = mailService;
+        this.javaMailSender = javaMailSender;
+        this.properties = applicationProperties.getMailOutbox();
+        this.sentCounter = Counter.builder(SENT_METER_NAME).description("Emails sent from the outbox").register(meterRegistry);
+        this.retriedCounter = Counter.builder(FAILED_METER_NAME)
+            .description("Emails that could not be sent")
+            .tag("outcome", "retry")
+            .register(meterRegistry);
+        this.givenUpCounter = Counter.builder(FAILED_METER_NAME)
+            .description("Emails that could not be sent")
+            .tag("outcome", "given-up")
+            .register(meterRegistry);
+        this.batchTimer = Timer.builder(BATCH_METER_NAME).description("Time to send a batch of emails").register(meterRegistry);
+        Gauge.builder(BACKLOG_METER_NAME, backlog, AtomicLong::get)
+            .description("Emails waiting in the outbox")
+            .baseUnit("emails")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return "mail-outbox-dispatch";
+    }
+
+    @Override
+    public Trigger getTrigger() {
+        return new PeriodicTrigger(properties.getPollInterval());
+    }
+
+    @Override
+    public Duration getLockAtMostFor() {
+        return Duration.ofMinutes(10);
+    }
+
+    @Override
+    public Duration getLockAtLeastFor() {
+        return Duration.ZERO;
+    }
+
+    @Override
+    public long execute(JobShard shard) {
+        return dispatch();
+    }
+
+    /**
+     * Sends all the due emails, batch after batch.
+     *
+     * @return the number of emails processed.
+     */
+    public long dispatch() {
+        int batchSize = properties.getBatchSize();
+        long processed = 0;
+        int batch;
+        do {
+            batch = dispatchBatch(batchSize);
+            processed += batch;
+        } while (batch == batchSize);
+        backlog.set(mailOutboxService.countPending());
+        return processed;
+    }
+
+    /**
+     * Sent emails are kept for a while for troubleshooting.
+     * <p>
+     * This is scheduled to get fired everyday, at 01:30 (am).
+     */
+    @Scheduled(cron = "0 30 1 * * ?")
+    public void purgeSent() {
+        int purged = mailOutboxService.purgeSent(properties.getRetention());
+        log.debug("Purged {} sent emails from the outbox", purged);
+    }
+
+    private int dispatchBatch(int batchSize) {
+        List<MailOutboxEntry> batch = mailOutboxService.findDue(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Map<MimeMessage, MailOutboxEntry> messages = new LinkedHashMap<>();
+        for (MailOutboxEntry entry : batch) {
+            try {
+                MimeMessage message = mailService.createMimeMessage(
+                    entry.getRecipient(),
+                    entry.getSubject(),
+                    entry.getContent(),
+                    entry.isMultipart(),
+                    entry.isHtml()
+                );
+                messages.put(message, entry);
+            } catch (MessagingException e) {
+                // the message itself is invalid, retrying will not help
+                mailOutboxService.markFailed(entry, e.getMessage(), null);
+                givenUpCounter.increment();
+            }
+        }
+        if (messages.isEmpty()) {
+            return batch.size();
+        }
+
+        Map<Object, Exception> failures = batchTimer.record(() -> send(messages));
+        List<MailOutboxEntry> sent = new ArrayList<>();
+        messages.forEach((message, entry) -> {
+            Exception failure = failures.get(message);
+            if (failure == null) {
+                sent.add(entry);
+            } else {
+                handleFailure(entry, failure);
+            }
+        });
+        mailOutboxService.markSent(sent);
+        sentCounter.increment(sent.size());
+        log.debug("Sent {} of {} emails from the outbox", sent.size(), messages.size());
+        return batch.size();
+    }
+
+    private Map<Object, Exception> send(Map<MimeMessage, MailOutboxEntry> messages) {
+        try {
+            javaMailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+            return Collections.emptyMap();
+        } catch (MailSendException e) {
+            if (!e.getFailedMessages().isEmpty()) {
+                return e.getFailedMessages();
+            }
+            return allFailed(messages, e);
+        } catch (MailException e) {
+            return allFailed(messages, e);
+        }
+    }
+
+    private Map<Object, Exception> allFailed(Map<MimeMessage, MailOutboxEntry> messages, Exception e) {
+        log.warn("Outbox batch of {} emails could not be sent: {}", messages.size(), e.getMessage());
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        messages.keySet().forEach(message -> failures.put(message, e));
+        return failures;
+    }
+
+    private void handleFailure(MailOutboxEntry entry, Exception failure) {
+        Duration backoff = backoff(entry.getAttempts() + 1);
+        mailOutboxService.markFailed(entry, failure.getMessage(), backoff);
+        if (backoff == null) {
+            givenUpCounter.increment();
+        } else {
+            retriedCounter.increment();
+        }
+    }
+
+    /**
+     * Exponential backoff for the given attempt, or {@code null} once the maximum number of attempts is reached.
+     */
+    Duration backoff(int attempts) {
+        if (attempts >= properties.getMaxAttempts()) {
+            return null;
+        }
+        Duration backoff = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : backoff;
+    }
+}
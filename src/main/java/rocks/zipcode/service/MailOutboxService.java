@@ -0,0 +1,125 @@
+package rocks.zipcode.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import rocks.zipcode.domain.MailOutboxEntry;
+import rocks.zipcode.domain.User;
+import rocks.zipcode.domain.enumeration.MailOutboxStatus;
+import rocks.zipcode.repository.MailOutboxEntryRepository;
+
+/**
+ * Service for the transactional mail outbox.
+ * <p>
+ * Emails are rendered and stored in the transaction of the change that triggers them, so they are only sent if that
+ * change is committed and are not lost if the JVM stops before they are sent. {@link MailOutboxDispatcher} sends them.
+ */
+@Service
+@Transactional
+public class MailOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    private final Logger log = LoggerFactory.getLogger(MailOutboxService.class);
+
+    private final MailOutboxEntryRepository mailOutboxEntryRepository;
+
+    private final MailService mailService;
+
+    public MailOutboxService(MailOutboxEntryRepository mailOutboxEntryRepository, MailService mailService) {
+        this.mailOutboxEntryRepository = mailOutboxEntryRepository;
+        this.mailService = mailService;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueActivationEmail(User user) {
+        log.debug("Queueing activation email to '{}'", user.getEmail());
+        enqueueFromTemplate(user, "mail/activationEmail", "email.activation.title");
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueCreationEmail(User user) {
+        log.debug("Queueing creation email to '{}'", user.getEmail());
+        enqueueFromTemplate(user, "mail/creationEmail", "email.activation.title");
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueuePasswordResetMail(User user) {
+        log.debug("Queueing password reset email to '{}'", user.getEmail());
+        enqueueFromTemplate(user, "mail/passwordResetEmail", "email.reset.title");
+    }
+
+    private void enqueueFromTemplate(User user, String templateName, String titleKey) {
+        if (user.getEmail() == null) {
+            log.debug("Email doesn't exist for user '{}'", user.getLogin());
+            return;
+        }
+        Instant now = Instant.now();
+        MailOutboxEntry entry = new MailOutboxEntry()
+            .recipient(user.getEmail())
+            .subject(mailService.renderTitle(user, titleKey))
+            .content(mailService.renderTemplate(user, templateName))
+            .multipart(false)
+            .html(true);
+        entry.setCreatedDate(now);
+        entry.setNextAttemptAt(now);
+        mailOutboxEntryRepository.save(entry);
+    }
+
+    /**
+     * Gets the oldest pending emails that are due.
+     */
+    @Transactional(readOnly = true)
+    public List<MailOutboxEntry> findDue(int batchSize) {
+        return mailOutboxEntryRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+            MailOutboxStatus.PENDING,
+            Instant.now(),
+            PageRequest.ofSize(batchSize)
+        );
+    }
+
+    @Transactional(readOnly = true)
+    public long countPending() {
+        return mailOutboxEntryRepository.countByStatus(MailOutboxStatus.PENDING);
+    }
+
+    public void markSent(List<MailOutboxEntry> entries) {
+        Instant now = Instant.now();
+        for (MailOutboxEntry entry : entries) {
+            entry.setStatus(MailOutboxStatus.SENT);
+            entry.setAttempts(entry.getAttempts() + 1);
+            entry.setSentDate(now);
+            entry.setLastError(null);
+        }
+        mailOutboxEntryRepository.saveAll(entries);
+    }
+
+    /**
+     * Schedules another attempt after {@code backoff}, or gives up on the email if it is {@code null}.
+     */
+    public void markFailed(MailOutboxEntry entry, String error, Duration backoff) {
+        entry.setAttempts(entry.getAttempts() + 1);
+        entry.setLastError(StringUtils.abbreviate(error, MAX_ERROR_LENGTH));
+        if (backoff == null) {
+            log.warn("Giving up on email to '{}' after {} attempts: {}", entry.getRecipient(), entry.getAttempts(), error);
+            entry.setStatus(MailOutboxStatus.FAILED);
+        } else {
+            entry.setNextAttemptAt(Instant.now().plus(backoff));
+        }
+        mailOutboxEntryRepository.save(entry);
+    }
+
+    /**
+     * Deletes sent emails older than the retention period.
+     */
+    public int purgeSent(Duration retention) {
+        return mailOutboxEntryRepository.deleteByStatusAndSentDateBefore(MailOutboxStatus.SENT, Instant.now().minus(retention));
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
+import rocks.zipcode.config.Constants;
 import rocks.zipcode.domain.User;
 import tech.jhipster.config.JHipsterProperties;
 
@@ -66,21 +67,28 @@ public class MailService {
             content
         );
 
-        // Prepare message using a Spring helper
-        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
         try {
-            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
-            message.setTo(to);
-            message.setFrom(jHipsterProperties.getMail().getFrom());
-            message.setSubject(subject);
-            message.setText(content, isHtml);
-            javaMailSender.send(mimeMessage);
+            javaMailSender.send(createMimeMessage(to, subject, content, isMultipart, isHtml));
             log.debug("Sent email to User '{}'", to);
         } catch (MailException | MessagingException e) {
             log.warn("Email could not be sent to user '{}'", to, e);
         }
     }
 
+    /**
+     * Prepares a message using a Spring helper, without sending it.
+     */
+    public MimeMessage createMimeMessage(String to, String subject, String content, boolean isMultipart, boolean isHtml)
+        throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
+        message.setTo(to);
+        message.setFrom(jHipsterProperties.getMail().getFrom());
+        message.setSubject(subject);
+        message.setText(content, isHtml);
+        return mimeMessage;
+    }
+
     @Async
     public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
         this.sendEmailFromTemplateSync(user, templateName, titleKey);
@@ -91,13 +99,29 @@ public class MailService {
             log.debug("Email doesn't exist for user '{}'", user.getLogin());
             return;
         }
-        Locale locale = Locale.forLanguageTag(user.getLangKey());
-        Context context = new Context(locale);
+        this.sendEmailSync(user.getEmail(), renderTitle(user, titleKey), renderTemplate(user, templateName), false, true);
+    }
+
+    /**
+     * Renders the given Thymeleaf template for the user, in the user's language.
+     * Parsed templates are cached by the template engine unless {@code spring.thymeleaf.cache} is disabled.
+     */
+    public String renderTemplate(User user, String templateName) {
+        Context context = new Context(localeOf(user));
         context.setVariable(USER, user);
         context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
-        String content = templateEngine.process(templateName, context);
-        String subject = messageSource.getMessage(titleKey, null, locale);
-        this.sendEmailSync(user.getEmail(), subject, content, false, true);
+        return templateEngine.process(templateName, context);
+    }
+
+    /**
+     * Resolves the title of an email in the user's language.
+     */
+    public String renderTitle(User user, String titleKey) {
+        return messageSource.getMessage(titleKey, null, localeOf(user));
+    }
+
+    private static Locale localeOf(User user) {
+        return Locale.forLanguageTag(user.getLangKey() != null ? user.getLangKey() : Constants.DEFAULT_LANGUAGE);
     }
 
     @Async
@@ -0,0 +1,133 @@
+package rocks.zipcode.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * Scales images down to fit in square boxes, as JPEG.
+ * <p>
+ * The image is decoded once for all the boxes, subsampled while decoding when it is much larger than the largest box,
+ * and refused above {@code maxPixels} so that a small file cannot expand into a huge bitmap. Transparent areas are
+ * rendered on white.
+ */
+class ThumbnailRenderer {
+
+    private final long maxPixels;
+
+    private final float quality;
+
+    ThumbnailRenderer(long maxPixels, float quality) {
+        this.maxPixels = maxPixels;
+        this.quality = quality;
+    }
+
+    static boolean isSupported(String contentType) {
+        return contentType != null && ImageIO.getImageReadersByMIMEType(contentType).hasNext();
+    }
+
+    /**
+     * @return the JPEG rendering for each box size, in the same order.
+     * @throws IOException if the image cannot be decoded or is too large.
+     */
+    List<byte[]> render(InputStream image, int... boxSizes) throws IOException {
+        BufferedImage source = decode(image, max(boxSizes));
+        List<byte[]> renderings = new ArrayList<>(boxSizes.length);
+        for (int boxSize : boxSizes) {
+            renderings.add(encode(scale(source, boxSize)));
+        }
+        return renderings;
+    }
+
+    private BufferedImage decode(InputStream image, int largestBox) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(image)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IOException("Image of " + width + "x" + height + " pixels is too large");
+                }
+                // keep at least twice the largest box, for the final scaling to stay smooth
+                int subsampling = Math.max(1, Math.max(width, height) / (largestBox * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Halves the image until it is less than twice the target, then scales it to the target: a single bilinear
+     * scaling by a large factor skips most of the source pixels.
+     */
+    private static BufferedImage scale(BufferedImage source, int boxSize) {
+        double ratio = Math.min(1d, (double) boxSize / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= width && current.getHeight() / 2 >= height) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        return draw(current, width, height);
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static int max(int... values) {
+        int max = 1;
+        for (int value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,202 @@
+package rocks.zipcode.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import rocks.zipcode.config.ApplicationProperties;
+import rocks.zipcode.domain.Attachment;
+import rocks.zipcode.domain.enumeration.PreviewStatus;
+import rocks.zipcode.repository.AttachmentRepository;
+import rocks.zipcode.service.storage.ContentStore;
+
+/**
+ * Generates the thumbnail and the preview of the image attachments, off the upload request.
+ * <p>
+ * A completed image attachment is {@link PreviewStatus#PENDING} and queued on a dedicated, bounded thread pool, which
+ * publishes the standard Micrometer {@code executor.*} meters under the {@code thumbnails} name. When the queue is full
+ * the attachment stays pending, and the pending attachments are queued again every minute, which also covers the ones
+ * left by a restart. The derivatives are stored in the {@link ContentStore} under the hash of the original content, so
+ * the same image attached twice is only rendered once; they are deleted with its blob, see {@link ContentBlobService}.
+ */
+@Service
+public class ThumbnailService implements DisposableBean {
+
+    public static final String EXECUTOR_NAME = "thumbnails";
+    public static final String GENERATION_METER_NAME = "attachment.previews";
+
+    public static final String THUMBNAIL = "thumbnail";
+    public static final String PREVIEW = "preview";
+
+    private final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+
+    private final AttachmentRepository attachmentRepository;
+
+    private final ContentStore contentStore;
+
+    private final ApplicationProperties.Thumbnails properties;
+
+    private final ThumbnailRenderer renderer;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ThreadPoolExecutor threadPoolExecutor;
+
+    private final ExecutorService executor;
+
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    private final Set<String> rendering = ConcurrentHashMap.newKeySet();
+
+    public ThumbnailService(
+        AttachmentRepository attachmentRepository,
+        ContentStore contentStore,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.attachmentRepository = attachmentRepository;
+        this.contentStore = contentStore;
+        this.properties = applicationProperties.getThumbnails();
+        this.renderer = new ThumbnailRenderer(properties.getMaxPixels(), properties.getJpegQuality());
+        this.meterRegistry = meterRegistry;
+        this.threadPoolExecutor = new ThreadPoolExecutor(
+            properties.getPoolSize(),
+            properties.getPoolSize(),
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+            new CustomizableThreadFactory(EXECUTOR_NAME + "-"),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPoolExecutor, EXECUTOR_NAME);
+    }
+
+    /**
+     * Whether previews are generated for this type of content.
+     */
+    public boolean accepts(String contentType) {
+        return properties.isEnabled() && ThumbnailRenderer.isSupported(contentType);
+    }
+
+    /**
+     * The key of a derivative in the content store.
+     */
+    public static String key(String contentHash, String variant) {
+        return "previews/" + contentHash + "/" + variant;
+    }
+
+    /**
+     * Queues the generation of the previews of a pending attachment, unless it is already queued or the queue is full.
+     */
+    public void schedule(Long attachmentId) {
+        if (!queued.add(attachmentId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(attachmentId);
+                } finally {
+                    queued.remove(attachmentId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.remove(attachmentId);
+            log.debug("Thumbnail queue is full, attachment {} stays pending", attachmentId);
+        }
+    }
+
+    /**
+     * Queues the pending attachments again, every minute.
+     */
+    @Scheduled(initialDelay = 60_000, fixedDelay = 60_000)
+    public void schedulePending() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        attachmentRepository
+            .findByPreviewStatusOrderById(PreviewStatus.PENDING, PageRequest.of(0, properties.getQueueCapacity()))
+            .forEach(attachment -> schedule(attachment.getId()));
+    }
+
+    @Override
+    public void destroy() {
+        threadPoolExecutor.shutdownNow();
+    }
+
+    /**
+     * Renders and stores the derivatives of a pending attachment, unless an attachment with the same content already
+     * has them, and marks it {@link PreviewStatus#READY}, or {@link PreviewStatus#FAILED} if it is not a readable image.
+     */
+    void generate(Long attachmentId) {
+        Attachment attachment = attachmentRepository.findById(attachmentId).orElse(null);
+        if (attachment == null || attachment.getPreviewStatus() != PreviewStatus.PENDING) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        PreviewStatus status = PreviewStatus.READY;
+        String outcome;
+        try {
+            String contentHash = attachment.getContentHash();
+            if (contentHash == null) {
+                throw new IllegalStateException("No content hash");
+            }
+            if (attachmentRepository.existsByContentHashAndPreviewStatus(contentHash, PreviewStatus.READY)) {
+                outcome = "reused";
+            } else if (!rendering.add(contentHash)) {
+                // the same content is being rendered for another attachment, which this one reuses on the next pass
+                return;
+            } else {
+                try {
+                    render(attachment.getStorageKey(), contentHash);
+                } finally {
+                    rendering.remove(contentHash);
+                }
+                outcome = "rendered";
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not generate the previews of attachment {}: {}", attachmentId, e.getMessage());
+            status = PreviewStatus.FAILED;
+            outcome = "failed";
+        }
+        attachmentRepository.updatePreviewStatus(attachmentId, PreviewStatus.PENDING, status);
+        sample.stop(
+            Timer.builder(GENERATION_METER_NAME)
+                .description("Time to generate the previews of an attachment")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+        );
+    }
+
+    private void render(String storageKey, String contentHash) throws IOException {
+        List<byte[]> renderings;
+        try (InputStream content = contentStore.newInputStream(storageKey)) {
+            renderings = renderer.render(content, properties.getThumbnailSize(), properties.getPreviewSize());
+        }
+        store(key(contentHash, THUMBNAIL), renderings.get(0));
+        store(key(contentHash, PREVIEW), renderings.get(1));
+    }
+
+    private void store(String key, byte[] rendering) throws IOException {
+        // left over by a generation interrupted before the attachment was marked ready
+        contentStore.delete(key);
+        contentStore.append(key, 0, new ByteArrayInputStream(rendering), rendering.length);
+    }
+}
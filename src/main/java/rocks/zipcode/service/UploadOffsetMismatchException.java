@@ -0,0 +1,21 @@
+package rocks.zipcode.service;
+
+/**
+ * A chunk was sent for another offset than the end of the content received so far, typically after a lost response;
+ * the client resumes from {@link #getCurrentOffset()}.
+ */
+public class UploadOffsetMismatchException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long currentOffset;
+
+    public UploadOffsetMismatchException(long currentOffset) {
+        super("Upload must resume at offset " + currentOffset);
+        this.currentOffset = currentOffset;
+    }
+
+    public long getCurrentOffset() {
+        return currentOffset;
+    }
+}
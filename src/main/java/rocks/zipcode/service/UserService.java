@@ -1,18 +1,26 @@
 package rocks.zipcode.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import rocks.zipcode.config.ApplicationProperties;
 import rocks.zipcode.config.Constants;
 import rocks.zipcode.domain.Authority;
 import rocks.zipcode.domain.User;
@@ -22,6 +30,7 @@ import rocks.zipcode.security.AuthoritiesConstants;
 import rocks.zipcode.security.SecurityUtils;
 import rocks.zipcode.service.dto.AdminUserDTO;
 import rocks.zipcode.service.dto.UserDTO;
+import rocks.zipcode.service.job.JobShard;
 import tech.jhipster.security.RandomUtil;
 
 /**
@@ -41,16 +50,40 @@ public class UserService {
 
     private final CacheManager cacheManager;
 
+    private final MailOutboxService mailOutboxService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final Counter notActivatedUsersDeletedCounter;
+
+    private final Timer notActivatedUsersCleanupTimer;
+
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        CacheManager cacheManager,
+        MailOutboxService mailOutboxService,
+        TransactionTemplate transactionTemplate,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
+        this.mailOutboxService = mailOutboxService;
+        this.transactionTemplate = transactionTemplate;
+        this.applicationProperties = applicationProperties;
+        this.notActivatedUsersDeletedCounter = Counter.builder("users.not-activated.deleted")
+            .description("Not activated users deleted by the cleanup job")
+            .baseUnit("users")
+            .register(meterRegistry);
+        this.notActivatedUsersCleanupTimer = Timer.builder("users.not-activated.cleanup")
+            .description("Duration of the not activated users cleanup job")
+            .register(meterRegistry);
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -89,6 +122,7 @@ public class UserService {
                 user.setResetKey(RandomUtil.generateResetKey());
                 user.setResetDate(Instant.now());
                 this.clearUserCaches(user);
+                mailOutboxService.enqueuePasswordResetMail(user);
                 return user;
             });
     }
@@ -131,6 +165,7 @@ public class UserService {
         newUser.setAuthorities(authorities);
         userRepository.save(newUser);
         this.clearUserCaches(newUser);
+        mailOutboxService.enqueueActivationEmail(newUser);
         log.debug("Created Information for User: {}", newUser);
         return newUser;
     }
@@ -176,6 +211,7 @@ public class UserService {
         }
         userRepository.save(user);
         this.clearUserCaches(user);
+        mailOutboxService.enqueueCreationEmail(user);
         log.debug("Created Information for User: {}", user);
         return user;
     }
@@ -292,18 +328,71 @@ public class UserService {
 
     /**
      * Not activated users should be automatically deleted after 3 days.
-     * <p>
-     * This is scheduled to get fired everyday, at 01:00 (am).
      */
-    @Scheduled(cron = "0 0 1 * * ?")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(user -> {
-                log.debug("Deleting not activated user {}", user.getLogin());
-                userRepository.delete(user);
-                this.clearUserCaches(user);
-            });
+        removeNotActivatedUsers(JobShard.SINGLE);
+    }
+
+    /**
+     * Deletes the users of the given shard of ids that were not activated within 3 days.
+     * <p>
+     * This is scheduled by the {@link rocks.zipcode.service.job.NotActivatedUsersCleanupJob}.
+     * <p>
+     * Candidates are read in chunks of {@code application.user-cleanup.chunk-size} ids, and each chunk is locked, then
+     * deleted with two set-based statements in its own short transaction (or in the caller's transaction, if there is
+     * one).
+     *
+     * @return the number of deleted users.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public long removeNotActivatedUsers(JobShard shard) {
+        Instant createdBefore = Instant.now().minus(3, ChronoUnit.DAYS);
+        long lastId = 0L;
+        long beforeId = Long.MAX_VALUE;
+        if (shard.count() > 1) {
+            long maxId = Optional.ofNullable(userRepository.findMaxId()).orElse(0L);
+            lastId = shard.lowerBound(1, maxId) - 1;
+            beforeId = shard.upperBound(1, maxId);
+        }
+        int chunkSize = applicationProperties.getUserCleanup().getChunkSize();
+        long start = System.nanoTime();
+        long deleted = 0;
+        List<UserRepository.NotActivatedUser> chunk;
+        do {
+            chunk = userRepository.findNotActivatedUsersCreatedBefore(createdBefore, lastId, beforeId, PageRequest.ofSize(chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            lastId = chunk.get(chunk.size() - 1).getId();
+            deleted += deleteNotActivatedUsers(chunk);
+            log.debug("Deleted {} not activated users so far", deleted);
+        } while (chunk.size() == chunkSize);
+        long duration = System.nanoTime() - start;
+        notActivatedUsersCleanupTimer.record(duration, TimeUnit.NANOSECONDS);
+        log.info("Deleted {} not activated users in {} ms", deleted, TimeUnit.NANOSECONDS.toMillis(duration));
+        return deleted;
+    }
+
+    private int deleteNotActivatedUsers(List<UserRepository.NotActivatedUser> users) {
+        List<Long> ids = users.stream().map(UserRepository.NotActivatedUser::getId).toList();
+        Integer deleted = transactionTemplate.execute(status -> {
+            // a user activated since the chunk was read is left out, with its authorities
+            List<Long> locked = userRepository.lockNotActivatedUsers(ids);
+            if (locked.isEmpty()) {
+                return 0;
+            }
+            userRepository.deleteNotActivatedUserAuthorities(locked);
+            return userRepository.deleteNotActivatedUsers(locked);
+        });
+        evictAll(UserRepository.USERS_BY_LOGIN_CACHE, users.stream().map(UserRepository.NotActivatedUser::getLogin).toList());
+        evictAll(
+            UserRepository.USERS_BY_EMAIL_CACHE,
+            users.stream().map(UserRepository.NotActivatedUser::getEmail).filter(Objects::nonNull).toList()
+        );
+        int count = deleted != null ? deleted : 0;
+        notActivatedUsersDeletedCounter.increment(count);
+        return count;
     }
 
     /**
@@ -321,4 +410,14 @@ public class UserService {
             Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
         }
     }
+
+    @SuppressWarnings("unchecked")
+    private void evictAll(String cacheName, Collection<String> keys) {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(cacheName));
+        if (cache.getNativeCache() instanceof javax.cache.Cache<?, ?> nativeCache) {
+            ((javax.cache.Cache<Object, ?>) nativeCache).removeAll(new HashSet<>(keys));
+        } else {
+            keys.forEach(cache::evict);
+        }
+    }
 }
@@ -0,0 +1,321 @@
+package rocks.zipcode.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Clob;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import rocks.zipcode.config.ApplicationProperties;
+import rocks.zipcode.domain.Message;
+import rocks.zipcode.domain.WorkspaceExport;
+import rocks.zipcode.domain.enumeration.WorkspaceExportStatus;
+import rocks.zipcode.repository.ExportRowRepository;
+import rocks.zipcode.repository.ExportRowRepository.ExportedTable;
+import rocks.zipcode.repository.MessageStore;
+import rocks.zipcode.repository.WorkspaceExportRepository;
+
+/**
+ * Exports the workspaces, user profiles, memberships, channels, messages and mentions to a ZIP archive with one
+ * deflated NDJSON entry per table, one row per line with its columns as fields and its timestamps in UTC.
+ * <p>
+ * An export runs on the async executor. The rows are read with forward-only cursors, {@code fetch-size} at a time, and
+ * written straight to the archive on disk, so the heap it uses does not depend on the amount of data. All the tables
+ * are read in one read-only transaction, which is sent to the read replica if there is one and, on MySQL, gives the
+ * export a consistent snapshot. Messages are read from the {@link MessageStore}, whichever implementation holds them,
+ * each one detached from the persistence context once written.
+ * <p>
+ * The archive is written under a temporary name and renamed once complete; archives are kept on the node that wrote
+ * them for {@code retention}.
+ */
+@Service
+public class WorkspaceExportService {
+
+    public static final String CONTENT_TYPE = "application/zip";
+
+    static final int PROGRESS_INTERVAL = 10_000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Logger log = LoggerFactory.getLogger(WorkspaceExportService.class);
+
+    private final WorkspaceExportRepository workspaceExportRepository;
+
+    private final ExportRowRepository exportRowRepository;
+
+    private final MessageStore messageStore;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Executor taskExecutor;
+
+    private final ApplicationProperties.WorkspaceExport properties;
+
+    private final EntityManager entityManager;
+
+    public WorkspaceExportService(
+        WorkspaceExportRepository workspaceExportRepository,
+        ExportRowRepository exportRowRepository,
+        MessageStore messageStore,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager,
+        @Qualifier("taskExecutor") Executor taskExecutor,
+        ApplicationProperties applicationProperties,
+        EntityManager entityManager
+    ) {
+        this.workspaceExportRepository = workspaceExportRepository;
+        this.exportRowRepository = exportRowRepository;
+        this.messageStore = messageStore;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.taskExecutor = taskExecutor;
+        this.properties = applicationProperties.getWorkspaceExport();
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Starts an export on the async executor.
+     *
+     * @return the export, {@link WorkspaceExportStatus#FAILED} if the executor is saturated.
+     */
+    public WorkspaceExport start(String requestedBy) {
+        log.debug("Request to start a WorkspaceExport for {}", requestedBy);
+        WorkspaceExport export = workspaceExportRepository.save(new WorkspaceExport().requestedBy(requestedBy));
+        Long id = export.getId();
+        try {
+            taskExecutor.execute(() -> run(id));
+        } catch (RejectedExecutionException e) {
+            return fail(id, "The async executor is saturated, try again later");
+        }
+        return export;
+    }
+
+    public Optional<WorkspaceExport> findOne(Long id) {
+        return workspaceExportRepository.findById(id);
+    }
+
+    public List<WorkspaceExport> findAll() {
+        return workspaceExportRepository.findAllByOrderByIdDesc();
+    }
+
+    /**
+     * The archive of a complete export.
+     */
+    public Path archive(WorkspaceExport export) {
+        return Path.of(properties.getDirectory()).resolve("workspace-export-" + export.getId() + ".zip");
+    }
+
+    /**
+     * Deletes the exports older than the retention and their archives, everyday at 02:40 (am).
+     */
+    @Scheduled(cron = "0 40 2 * * ?")
+    public void purgeExpired() {
+        for (WorkspaceExport export : workspaceExportRepository.findByCreatedDateBefore(Instant.now().minus(properties.getRetention()))) {
+            try {
+                Files.deleteIfExists(archive(export));
+                workspaceExportRepository.delete(export);
+            } catch (IOException e) {
+                log.warn("Could not delete the archive of workspace export {}: {}", export.getId(), e.getMessage());
+            }
+        }
+    }
+
+    void run(Long id) {
+        WorkspaceExport export = workspaceExportRepository.findById(id).orElseThrow();
+        Path archive = archive(export);
+        Path partial = archive.resolveSibling(archive.getFileName() + ".part");
+        try {
+            Files.createDirectories(archive.getParent());
+            long rows = readOnlyTransaction.execute(status -> write(id, partial));
+            Files.move(partial, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            export.setStatus(WorkspaceExportStatus.COMPLETE);
+            export.setCurrentEntry(null);
+            export.setRowsExported(rows);
+            export.setArchiveSize(Files.size(archive));
+            export.setCompletedDate(Instant.now());
+            workspaceExportRepository.save(export);
+            log.info("Workspace export {} complete: {} rows, {} bytes", id, rows, export.getArchiveSize());
+        } catch (IOException | RuntimeException e) {
+            log.error("Workspace export {} failed", id, e);
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            fail(id, e.getMessage());
+        }
+    }
+
+    private WorkspaceExport fail(Long id, String error) {
+        WorkspaceExport export = workspaceExportRepository.findById(id).orElseThrow();
+        export.setStatus(WorkspaceExportStatus.FAILED);
+        export.setError(error == null ? null : error.substring(0, Math.min(error.length(), 1024)));
+        export.setCompletedDate(Instant.now());
+        return workspaceExportRepository.save(export);
+    }
+
+    private long write(Long id, Path partial) {
+        long rows = 0;
+        try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(partial), BUFFER_SIZE))) {
+            zip.setLevel(properties.getCompressionLevel());
+            for (ExportedTable table : ExportedTable.values()) {
+                String entryName = table.getTableName() + ".ndjson";
+                zip.putNextEntry(new ZipEntry(entryName));
+                EntryWriter writer = new EntryWriter(id, entryName, zip, rows);
+                if (table == ExportedTable.MESSAGES) {
+                    try (Stream<Message> messages = messageStore.streamAll()) {
+                        messages.forEach(message -> {
+                            writer.writeMessage(message);
+                            entityManager.detach(message);
+                        });
+                    }
+                } else {
+                    exportRowRepository.scroll(table, properties.getFetchSize(), writer::writeRow);
+                }
+                writer.flush();
+                zip.closeEntry();
+                rows = writer.rows;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+
+    /**
+     * Writes the rows of one entry, one JSON object per line, and records the progress every
+     * {@value #PROGRESS_INTERVAL} rows.
+     */
+    private final class EntryWriter {
+
+        private final Long exportId;
+
+        private final String entryName;
+
+        private final JsonGenerator generator;
+
+        private long rows;
+
+        EntryWriter(Long exportId, String entryName, OutputStream entry, long rows) throws IOException {
+            this.exportId = exportId;
+            this.entryName = entryName;
+            this.generator = objectMapper.getFactory().createGenerator(entry).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.rows = rows;
+            workspaceExportRepository.updateProgress(exportId, entryName, rows);
+        }
+
+        void writeRow(ResultSet resultSet) throws SQLException {
+            try {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                generator.writeStartObject();
+                for (int column = 1; column <= metaData.getColumnCount(); column++) {
+                    generator.writeFieldName(metaData.getColumnLabel(column).toLowerCase(Locale.ROOT));
+                    Object value = resultSet.getObject(column);
+                    if (value instanceof Clob clob) {
+                        writeClob(clob);
+                    } else {
+                        writeValue(value);
+                    }
+                }
+                endRow();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void writeMessage(Message message) {
+            try {
+                generator.writeStartObject();
+                generator.writeNumberField("id", message.getId());
+                generator.writeStringField("uploads", message.getUploads());
+                generator.writeFieldName("pinned");
+                writeValue(message.getPinned());
+                generator.writeFieldName("timestamp");
+                writeValue(message.getTimestamp());
+                generator.writeFieldName("mentions_id");
+                writeValue(message.getMentions() == null ? null : message.getMentions().getId());
+                generator.writeFieldName("created_date");
+                writeValue(message.getCreatedDate());
+                endRow();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void flush() throws IOException {
+            generator.flush();
+        }
+
+        private void endRow() throws IOException {
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            if (++rows % PROGRESS_INTERVAL == 0) {
+                workspaceExportRepository.updateProgress(exportId, entryName, rows);
+            }
+        }
+
+        private void writeValue(Object value) throws IOException {
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                generator.writeNumber(((Number) value).longValue());
+            } else if (value instanceof BigDecimal decimal) {
+                generator.writeNumber(decimal);
+            } else if (value instanceof Number number) {
+                generator.writeNumber(number.doubleValue());
+            } else if (value instanceof Boolean bool) {
+                generator.writeBoolean(bool);
+            } else if (value instanceof Timestamp timestamp) {
+                // timestamps are stored in UTC, see hibernate.jdbc.time_zone
+                generator.writeString(timestamp.toLocalDateTime().toInstant(ZoneOffset.UTC).toString());
+            } else if (value instanceof LocalDateTime dateTime) {
+                generator.writeString(dateTime.toInstant(ZoneOffset.UTC).toString());
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+
+        /**
+         * Copies a large text through a reader rather than as a single string.
+         */
+        private void writeClob(Clob clob) throws IOException, SQLException {
+            try (Reader reader = clob.getCharacterStream()) {
+                generator.writeString(reader, -1);
+            } finally {
+                clob.free();
+            }
+        }
+    }
+}
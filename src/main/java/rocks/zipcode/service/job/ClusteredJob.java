@@ -0,0 +1,45 @@
+package rocks.zipcode.service.job;
+
+import java.time.Duration;
+import org.springframework.scheduling.Trigger;
+
+/**
+ * A scheduled job that runs on exactly one node of the cluster at a time.
+ * <p>
+ * Every node fires the {@link #getTrigger() trigger}, but a shard only runs on the node that takes its lease in the
+ * {@code job_lease} table. Large jobs can be split in {@link #getShardCount() shards}, which are then spread over the
+ * nodes that fire at the same time. Implementations are picked up by {@link ClusteredJobScheduler}.
+ */
+public interface ClusteredJob {
+    /**
+     * Unique name of the job, used for its leases, run history and metrics.
+     */
+    String getName();
+
+    Trigger getTrigger();
+
+    default int getShardCount() {
+        return 1;
+    }
+
+    /**
+     * How long a lease is held if the node running the shard dies; must exceed the longest expected run.
+     */
+    default Duration getLockAtMostFor() {
+        return Duration.ofMinutes(30);
+    }
+
+    /**
+     * Minimum time a lease is held, so that nodes whose clocks or triggers are slightly late do not run the shard again.
+     */
+    default Duration getLockAtLeastFor() {
+        return Duration.ofSeconds(30);
+    }
+
+    /**
+     * Runs one shard of the job.
+     *
+     * @return the number of rows processed.
+     */
+    long execute(JobShard shard);
+}
@@ -0,0 +1,111 @@
+package rocks.zipcode.service.job;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs the shards of a {@link ClusteredJob} whose lease this node manages to take, and records each run.
+ * <p>
+ * Shards are tried in order; a node that finishes a shard moves on to the next free one, so the shards of a large job
+ * spread over the nodes that fire at the same time.
+ */
+@Service
+public class ClusteredJobRunner {
+
+    public static final String RUN_METER_NAME = "jobs.run";
+    public static final String ROWS_METER_NAME = "jobs.rows";
+
+    private final Logger log = LoggerFactory.getLogger(ClusteredJobRunner.class);
+
+    private final JobLeaseService jobLeaseService;
+
+    private final MeterRegistry meterRegistry;
+
+    private final String node;
+
+    public ClusteredJobRunner(JobLeaseService jobLeaseService, MeterRegistry meterRegistry) {
+        this.jobLeaseService = jobLeaseService;
+        this.meterRegistry = meterRegistry;
+        this.node = nodeName();
+    }
+
+    /**
+     * @return the number of shards run by this node.
+     */
+    public int run(ClusteredJob job) {
+        int ran = 0;
+        for (int index = 0; index < job.getShardCount(); index++) {
+            if (runShard(job, new JobShard(index, job.getShardCount()))) {
+                ran++;
+            }
+        }
+        return ran;
+    }
+
+    private boolean runShard(ClusteredJob job, JobShard shard) {
+        String leaseKey = shard.leaseKey(job.getName());
+        Instant startedAt = Instant.now();
+        if (!acquire(leaseKey, startedAt, job.getLockAtMostFor())) {
+            log.debug("Job {} is running or has just run on another node", leaseKey);
+            return false;
+        }
+        log.debug("Running job {} on {}", leaseKey, node);
+        long rows = 0;
+        Throwable failure = null;
+        try {
+            rows = job.execute(shard);
+        } catch (RuntimeException e) {
+            failure = e;
+            log.error("Job {} failed", leaseKey, e);
+        } finally {
+            Instant finishedAt = Instant.now();
+            Instant minimumLease = startedAt.plus(job.getLockAtLeastFor());
+            jobLeaseService.release(leaseKey, node, finishedAt.isAfter(minimumLease) ? finishedAt : minimumLease);
+            jobLeaseService.recordRun(job.getName(), shard, node, startedAt, finishedAt, rows, failure);
+            record(job, Duration.between(startedAt, finishedAt), rows, failure);
+        }
+        return true;
+    }
+
+    private boolean acquire(String leaseKey, Instant now, Duration lockAtMostFor) {
+        try {
+            jobLeaseService.createIfMissing(leaseKey);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Lease {} was created by another node", leaseKey);
+        }
+        return jobLeaseService.tryAcquire(leaseKey, node, now, lockAtMostFor);
+    }
+
+    private void record(ClusteredJob job, Duration duration, long rows, Throwable failure) {
+        Timer.builder(RUN_METER_NAME)
+            .description("Duration of the clustered job shards run by this node")
+            .tag("job", job.getName())
+            .tag("outcome", failure == null ? "success" : "failure")
+            .register(meterRegistry)
+            .record(duration);
+        Counter.builder(ROWS_METER_NAME)
+            .description("Rows processed by the clustered jobs run by this node")
+            .tag("job", job.getName())
+            .register(meterRegistry)
+            .increment(rows);
+    }
+
+    private static String nodeName() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + ":" + ProcessHandle.current().pid();
+    }
+}
@@ -0,0 +1,60 @@
+package rocks.zipcode.service.job;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+/**
+ * Schedules every {@link ClusteredJob} bean on the application {@code taskScheduler}, which is configured with the
+ * {@code spring.task.scheduling} properties.
+ */
+@Service
+public class ClusteredJobScheduler {
+
+    private final Logger log = LoggerFactory.getLogger(ClusteredJobScheduler.class);
+
+    private final List<ClusteredJob> jobs;
+
+    private final ClusteredJobRunner clusteredJobRunner;
+
+    private final ObjectProvider<TaskScheduler> taskScheduler;
+
+    private final List<ScheduledFuture<?>> scheduledJobs = new ArrayList<>();
+
+    public ClusteredJobScheduler(
+        List<ClusteredJob> jobs,
+        ClusteredJobRunner clusteredJobRunner,
+        ObjectProvider<TaskScheduler> taskScheduler
+    ) {
+        this.jobs = jobs;
+        this.clusteredJobRunner = clusteredJobRunner;
+        this.taskScheduler = taskScheduler;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void scheduleJobs() {
+        TaskScheduler scheduler = taskScheduler.getIfUnique();
+        if (scheduler == null) {
+            log.warn("No task scheduler available, clustered jobs are not scheduled");
+            return;
+        }
+        for (ClusteredJob job : jobs) {
+            log.debug("Scheduling clustered job {} ({} shards) with {}", job.getName(), job.getShardCount(), job.getTrigger());
+            scheduledJobs.add(scheduler.schedule(() -> clusteredJobRunner.run(job), job.getTrigger()));
+        }
+    }
+
+    @PreDestroy
+    public synchronized void cancelJobs() {
+        scheduledJobs.forEach(future -> future.cancel(false));
+        scheduledJobs.clear();
+    }
+}
@@ -0,0 +1,67 @@
+package rocks.zipcode.service.job;
+
+import java.time.Instant;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Service;
+import rocks.zipcode.config.ApplicationProperties;
+import rocks.zipcode.service.ContentBlobService;
+
+/**
+ * Deletes the attachment blobs that have had no reference for {@code application.attachments.blob-grace-period}, every
+ * hour; within that period, uploading the same content again reuses the blob.
+ */
+@Service
+public class ContentBlobCollectionJob implements ClusteredJob {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final Logger log = LoggerFactory.getLogger(ContentBlobCollectionJob.class);
+
+    private final ContentBlobService contentBlobService;
+
+    private final ApplicationProperties.Attachments properties;
+
+    public ContentBlobCollectionJob(ContentBlobService contentBlobService, ApplicationProperties applicationProperties) {
+        this.contentBlobService = contentBlobService;
+        this.properties = applicationProperties.getAttachments();
+    }
+
+    @Override
+    public String getName() {
+        return "content-blob-collection";
+    }
+
+    @Override
+    public Trigger getTrigger() {
+        return new CronTrigger("0 20 * * * ?");
+    }
+
+    @Override
+    public long execute(JobShard shard) {
+        return collect(Instant.now().minus(properties.getBlobGracePeriod()));
+    }
+
+    /**
+     * Deletes the blobs without any reference since before the given date.
+     *
+     * @return the number of blobs deleted.
+     */
+    public long collect(Instant releasedBefore) {
+        long collected = 0;
+        List<String> hashes;
+        do {
+            hashes = contentBlobService.findUnreferenced(releasedBefore, BATCH_SIZE);
+            for (String hash : hashes) {
+                if (contentBlobService.collect(hash)) {
+                    collected++;
+                }
+            }
+        } while (hashes.size() == BATCH_SIZE);
+        log.debug("Collected {} unreferenced blobs", collected);
+        return collected;
+    }
+}
@@ -0,0 +1,78 @@
+package rocks.zipcode.service.job;
+
+import java.time.Duration;
+import java.time.Instant;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import rocks.zipcode.domain.JobLease;
+import rocks.zipcode.domain.JobRun;
+import rocks.zipcode.domain.enumeration.JobRunStatus;
+import rocks.zipcode.repository.JobLeaseRepository;
+import rocks.zipcode.repository.JobRunRepository;
+
+/**
+ * Service for the leases and run history of the {@link ClusteredJob}s; every call runs in its own short transaction.
+ */
+@Service
+@Transactional(propagation = Propagation.REQUIRES_NEW)
+public class JobLeaseService {
+
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    private final JobLeaseRepository jobLeaseRepository;
+
+    private final JobRunRepository jobRunRepository;
+
+    public JobLeaseService(JobLeaseRepository jobLeaseRepository, JobRunRepository jobRunRepository) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.jobRunRepository = jobRunRepository;
+    }
+
+    /**
+     * Creates the lease row on first use; fails with a {@code DataIntegrityViolationException} if another node just did.
+     */
+    public void createIfMissing(String leaseKey) {
+        if (!jobLeaseRepository.existsById(leaseKey)) {
+            jobLeaseRepository.saveAndFlush(new JobLease(leaseKey));
+        }
+    }
+
+    public boolean tryAcquire(String leaseKey, String owner, Instant now, Duration lockAtMostFor) {
+        return jobLeaseRepository.tryAcquire(leaseKey, owner, now, now.plus(lockAtMostFor)) == 1;
+    }
+
+    public void release(String leaseKey, String owner, Instant lockedUntil) {
+        jobLeaseRepository.release(leaseKey, owner, lockedUntil);
+    }
+
+    public JobRun recordRun(
+        String jobName,
+        JobShard shard,
+        String node,
+        Instant startedAt,
+        Instant finishedAt,
+        long rowsProcessed,
+        Throwable failure
+    ) {
+        JobRun run = new JobRun();
+        run.setJobName(jobName);
+        run.setShardIndex(shard.index());
+        run.setShardCount(shard.count());
+        run.setNode(node);
+        run.setStartedAt(startedAt);
+        run.setFinishedAt(finishedAt);
+        run.setDurationMs(Duration.between(startedAt, finishedAt).toMillis());
+        run.setRowsProcessed(rowsProcessed);
+        run.setStatus(failure == null ? JobRunStatus.SUCCEEDED : JobRunStatus.FAILED);
+        if (failure != null) {
+            run.setError(StringUtils.abbreviate(String.valueOf(failure.getMessage()), MAX_ERROR_LENGTH));
+        }
+        return jobRunRepository.save(run);
+    }
+
+    public int purgeRunsBefore(Instant startedAt) {
+        return jobRunRepository.deleteByStartedAtBefore(startedAt);
+    }
+}
@@ -0,0 +1,38 @@
+package rocks.zipcode.service.job;
+
+import java.time.Instant;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Service;
+import rocks.zipcode.config.ApplicationProperties;
+
+/**
+ * Deletes the {@code job_run} history older than {@code application.jobs.history-retention}, everyday at 02:00 (am).
+ */
+@Service
+public class JobRunHistoryPurgeJob implements ClusteredJob {
+
+    private final JobLeaseService jobLeaseService;
+
+    private final ApplicationProperties applicationProperties;
+
+    public JobRunHistoryPurgeJob(JobLeaseService jobLeaseService, ApplicationProperties applicationProperties) {
+        this.jobLeaseService = jobLeaseService;
+        this.applicationProperties = applicationProperties;
+    }
+
+    @Override
+    public String getName() {
+        return "job-run-history-purge";
+    }
+
+    @Override
+    public Trigger getTrigger() {
+        return new CronTrigger("0 0 2 * * ?");
+    }
+
+    @Override
+    public long execute(JobShard shard) {
+        return jobLeaseService.purgeRunsBefore(Instant.now().minus(applicationProperties.getJobs().getHistoryRetention()));
+    }
+}
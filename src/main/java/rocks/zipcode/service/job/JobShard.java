@@ -0,0 +1,37 @@
+package rocks.zipcode.service.job;
+
+/**
+ * One of the {@code count} shards of a {@link ClusteredJob}, covering a contiguous range of keys.
+ */
+public record JobShard(int index, int count) {
+    public static final JobShard SINGLE = new JobShard(0, 1);
+
+    public JobShard {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid shard " + index + "/" + count);
+        }
+    }
+
+    public String leaseKey(String jobName) {
+        return count == 1 ? jobName : jobName + "#" + index + "/" + count;
+    }
+
+    /**
+     * Inclusive lower bound of this shard's part of {@code [minKey, maxKey]}.
+     */
+    public long lowerBound(long minKey, long maxKey) {
+        return bound(index, minKey, maxKey);
+    }
+
+    /**
+     * Exclusive upper bound of this shard's part of {@code [minKey, maxKey]}.
+     */
+    public long upperBound(long minKey, long maxKey) {
+        return bound(index + 1, minKey, maxKey);
+    }
+
+    private long bound(int shard, long minKey, long maxKey) {
+        long span = maxKey - minKey + 1;
+        return minKey + (span / count) * shard + Math.min(shard, span % count);
+    }
+}
@@ -0,0 +1,102 @@
+package rocks.zipcode.service.job;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Service;
+import rocks.zipcode.config.ApplicationProperties;
+import rocks.zipcode.repository.MessagePartitionRepository;
+import rocks.zipcode.repository.MessagePartitionRepository.MessagePartition;
+
+/**
+ * Rotates the monthly partitions of the {@code message} table, everyday at 03:00 (am): the partitions of the next
+ * {@code application.message-partitions.months-ahead} months are created before any message lands in {@code p_future},
+ * and the ones older than {@code retention-months} are dropped or archived. {@code p_legacy}, with the messages created
+ * before the table was partitioned, is kept.
+ * <p>
+ * Does nothing where the table is not partitioned (H2).
+ */
+@Service
+public class MessagePartitionRotationJob implements ClusteredJob {
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final Logger log = LoggerFactory.getLogger(MessagePartitionRotationJob.class);
+
+    private final MessagePartitionRepository messagePartitionRepository;
+
+    private final ApplicationProperties.MessagePartitions properties;
+
+    public MessagePartitionRotationJob(MessagePartitionRepository messagePartitionRepository, ApplicationProperties applicationProperties) {
+        this.messagePartitionRepository = messagePartitionRepository;
+        this.properties = applicationProperties.getMessagePartitions();
+    }
+
+    @Override
+    public String getName() {
+        return "message-partition-rotation";
+    }
+
+    @Override
+    public Trigger getTrigger() {
+        return new CronTrigger("0 0 3 * * ?");
+    }
+
+    @Override
+    public Duration getLockAtMostFor() {
+        return Duration.ofHours(1);
+    }
+
+    @Override
+    public long execute(JobShard shard) {
+        return rotate(YearMonth.now(ZoneOffset.UTC));
+    }
+
+    /**
+     * @return the number of partitions created, dropped or archived.
+     */
+    long rotate(YearMonth current) {
+        List<MessagePartition> partitions = messagePartitionRepository.findMonthlyPartitions();
+        if (partitions.isEmpty()) {
+            return 0;
+        }
+        long changes = 0;
+
+        LocalDate upperBound = partitions.get(partitions.size() - 1).lessThan();
+        LocalDate target = current.plusMonths(properties.getMonthsAhead() + 1L).atDay(1);
+        while (upperBound.isBefore(target)) {
+            String name = PARTITION_NAME.format(upperBound);
+            LocalDate lessThan = upperBound.plusMonths(1);
+            log.info("Adding message partition {} for messages created before {}", name, lessThan);
+            messagePartitionRepository.addPartition(name, lessThan);
+            upperBound = lessThan;
+            changes++;
+        }
+
+        if (properties.getRetentionMonths() > 0) {
+            LocalDate expiry = current.minusMonths(properties.getRetentionMonths()).atDay(1);
+            // the last monthly partition is never removed, new ones are split from p_future after it
+            for (MessagePartition partition : partitions.subList(0, partitions.size() - 1)) {
+                if (partition.lessThan().isAfter(expiry)) {
+                    break;
+                }
+                if (properties.getExpiredAction() == ApplicationProperties.MessagePartitions.ExpiredAction.ARCHIVE) {
+                    log.info("Archiving message partition {}", partition.name());
+                    messagePartitionRepository.archivePartition(partition.name());
+                } else {
+                    log.info("Dropping message partition {}", partition.name());
+                    messagePartitionRepository.dropPartition(partition.name());
+                }
+                changes++;
+            }
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,44 @@
+package rocks.zipcode.service.job;
+
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Service;
+import rocks.zipcode.config.ApplicationProperties;
+import rocks.zipcode.service.UserService;
+
+/**
+ * Deletes the users that were not activated within 3 days, see {@link UserService#removeNotActivatedUsers(JobShard)}.
+ * Each shard covers a range of user ids.
+ */
+@Service
+public class NotActivatedUsersCleanupJob implements ClusteredJob {
+
+    private final UserService userService;
+
+    private final ApplicationProperties.UserCleanup properties;
+
+    public NotActivatedUsersCleanupJob(UserService userService, ApplicationProperties applicationProperties) {
+        this.userService = userService;
+        this.properties = applicationProperties.getUserCleanup();
+    }
+
+    @Override
+    public String getName() {
+        return "not-activated-users-cleanup";
+    }
+
+    @Override
+    public Trigger getTrigger() {
+        return new CronTrigger(properties.getCron());
+    }
+
+    @Override
+    public int getShardCount() {
+        return properties.getShards();
+    }
+
+    @Override
+    public long execute(JobShard shard) {
+        return userService.removeNotActivatedUsers(shard);
+    }
+}
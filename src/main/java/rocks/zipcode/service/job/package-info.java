@@ -0,0 +1,4 @@
+/**
+ * Scheduled jobs that run on a single node of the cluster, coordinated through database leases.
+ */
+package rocks.zipcode.service.job;
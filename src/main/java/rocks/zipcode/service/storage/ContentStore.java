@@ -0,0 +1,46 @@
+package rocks.zipcode.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import rocks.zipcode.service.UploadOffsetMismatchException;
+
+/**
+ * Binary contents addressed by key, written by appending chunks and read by ranges.
+ * <p>
+ * {@link FileSystemContentStore} keeps them in a local directory; an object storage can implement the same contract
+ * with multipart uploads and ranged reads.
+ */
+public interface ContentStore {
+    /**
+     * The number of bytes stored under the key, {@code 0} if there are none.
+     */
+    long length(String key) throws IOException;
+
+    /**
+     * Appends at most {@code maxLength} bytes of {@code content}, which must start at the end of the stored content.
+     *
+     * @return the length of the stored content after the append.
+     * @throws UploadOffsetMismatchException if {@code offset} is not the stored length, or another append to the same
+     * key is in progress.
+     */
+    long append(String key, long offset, InputStream content, long maxLength) throws IOException;
+
+    /**
+     * Opens the content for a sequential read, the stream must be closed.
+     */
+    InputStream newInputStream(String key) throws IOException;
+
+    /**
+     * Writes {@code count} bytes of the content, from {@code position}, to the target, which a store keeping the
+     * content in a file may hand the file to when it is a {@link FileTransferTarget}.
+     */
+    void transferTo(String key, long position, long count, WritableByteChannel target) throws IOException;
+
+    /**
+     * Moves a complete content to another key, replacing the content stored there if any.
+     */
+    void move(String sourceKey, String targetKey) throws IOException;
+
+    void delete(String key) throws IOException;
+}
@@ -0,0 +1,131 @@
+package rocks.zipcode.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Pattern;
+import rocks.zipcode.service.UploadOffsetMismatchException;
+
+/**
+ * {@link ContentStore} keeping each content in a file under a root directory.
+ * <p>
+ * Chunks are copied through a fixed-size buffer, so an upload never holds more than {@value #BUFFER_SIZE} bytes in
+ * memory, and are forced to the disk before the new length is returned, so that an acknowledged offset survives a
+ * crash. An exclusive file lock keeps two appends to the same content from interleaving.
+ * <p>
+ * A read running to the end of the file is handed to a {@link FileTransferTarget}, which can send it with
+ * {@code sendfile}. Other reads use {@link FileChannel#transferTo}, which only leaves the copy to the operating system
+ * when the target is a file or a socket channel; a channel over a servlet output stream gets the bytes through a buffer.
+ */
+public class FileSystemContentStore implements ContentStore {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Pattern KEY = Pattern.compile("[A-Za-z0-9_-]+(/[A-Za-z0-9_-]+)*");
+
+    private final Path root;
+
+    public FileSystemContentStore(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public long length(String key) throws IOException {
+        Path file = resolve(key);
+        return Files.exists(file) ? Files.size(file) : 0;
+    }
+
+    @Override
+    public long append(String key, long offset, InputStream content, long maxLength) throws IOException {
+        Path file = resolve(key);
+        Files.createDirectories(file.getParent());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            final FileLock lock = tryLock(channel);
+            if (lock == null) {
+                throw new UploadOffsetMismatchException(channel.size());
+            }
+            try (lock) {
+                long position = channel.size();
+                if (position != offset) {
+                    throw new UploadOffsetMismatchException(position);
+                }
+                byte[] buffer = new byte[BUFFER_SIZE];
+                long remaining = maxLength;
+                int read;
+                while (remaining > 0 && (read = content.read(buffer, 0, (int) Math.min(buffer.length, remaining))) != -1) {
+                    ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                    while (chunk.hasRemaining()) {
+                        position += channel.write(chunk, position);
+                    }
+                    remaining -= read;
+                }
+                channel.force(false);
+                return position;
+            }
+        }
+    }
+
+    @Override
+    public InputStream newInputStream(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public void transferTo(String key, long position, long count, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ)) {
+            if (target instanceof FileTransferTarget fileTarget && position + count == channel.size()) {
+                fileTarget.transferFrom(channel.position(position));
+                return;
+            }
+            long transferred = 0;
+            while (transferred < count) {
+                long sent = channel.transferTo(position + transferred, count - transferred, target);
+                if (sent <= 0 && position + transferred >= channel.size()) {
+                    throw new IOException("Content " + key + " is shorter than " + (position + count) + " bytes");
+                }
+                transferred += sent;
+            }
+        }
+    }
+
+    /**
+     * Renames the file, atomically: a reader of the target key sees either the old or the new file.
+     */
+    @Override
+    public void move(String sourceKey, String targetKey) throws IOException {
+        Path target = resolve(targetKey);
+        Files.createDirectories(target.getParent());
+        Files.move(resolve(sourceKey), target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    /**
+     * The exclusive lock of the file, or {@code null} if another append holds it.
+     */
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    private Path resolve(String key) {
+        if (!KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid content key: " + key);
+        }
+        return root.resolve(key);
+    }
+}
@@ -0,0 +1,16 @@
+package rocks.zipcode.service.storage;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A target of {@link ContentStore#transferTo} that can send a file by itself, as a web server does with
+ * {@code sendfile}, without copying it through a user-space buffer.
+ */
+public interface FileTransferTarget extends WritableByteChannel {
+    /**
+     * Writes the file from its current position to its end.
+     */
+    void transferFrom(FileChannel source) throws IOException;
+}
@@ -0,0 +1,4 @@
+/**
+ * Storage of the attachment contents.
+ */
+package rocks.zipcode.service.storage;
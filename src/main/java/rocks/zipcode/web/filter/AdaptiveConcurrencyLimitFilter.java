@@ -0,0 +1,174 @@
+package rocks.zipcode.web.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Sheds {@code /api} requests once the {@link AdaptiveConcurrencyLimiter} is reached, instead of letting them pile up
+ * in the web server when the database slows down.
+ * <p>
+ * Each request is given a {@link Priority}, which caps the share of the limit it may use: authentication and message
+ * posting keep being served after directory listings are already turned away. Rejected requests get an immediate
+ * {@code 503 Service Unavailable} with a {@code Retry-After} header.
+ * <p>
+ * Transfers (attachment contents, export archives and the streamed collections) take as long as their size and the
+ * client's bandwidth, not the load: they count against the limit but their latency does not adjust it.
+ */
+public class AdaptiveConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    public static final String LIMIT_METER_NAME = "http.server.concurrency.limit";
+    public static final String IN_FLIGHT_METER_NAME = "http.server.concurrency.inflight";
+    public static final String REJECTED_METER_NAME = "http.server.concurrency.rejected";
+
+    private static final Set<String> AUTHENTICATION_PATHS = Set.of(
+        "/api/authenticate",
+        "/api/register",
+        "/api/activate",
+        "/api/account/reset-password/init",
+        "/api/account/reset-password/finish"
+    );
+
+    private static final Set<String> DIRECTORY_PATHS = Set.of(
+        "/api/users",
+        "/api/admin/users",
+        "/api/workspaces",
+        "/api/channels",
+        "/api/user-profiles"
+    );
+
+    private static final Set<String> STREAMED_COLLECTION_PATHS = Set.of(
+        "/api/messages",
+        "/api/channels",
+        "/api/mentions",
+        "/api/workspaces",
+        "/api/user-profiles"
+    );
+
+    private static final Pattern TRANSFER_PATH = Pattern.compile(
+        "/api/attachments/[^/]+/content|/api/admin/workspace-exports/[^/]+/archive"
+    );
+
+    /**
+     * Request priorities, with the share of the limit available to each of them.
+     */
+    public enum Priority {
+        CRITICAL(1.0),
+        HIGH(0.9),
+        NORMAL(0.75),
+        LOW(0.5);
+
+        private final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+
+        public double getShare() {
+            return share;
+        }
+    }
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    private final String retryAfter;
+
+    private final Map<Priority, Counter> rejectedCounters = new EnumMap<>(Priority.class);
+
+    public AdaptiveConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, Duration retryAfter, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.retryAfter = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+        Gauge.builder(LIMIT_METER_NAME, limiter, AdaptiveConcurrencyLimiter::getLimit)
+            .description("Current limit of concurrent API requests")
+            .baseUnit("requests")
+            .register(meterRegistry);
+        Gauge.builder(IN_FLIGHT_METER_NAME, limiter, AdaptiveConcurrencyLimiter::getInFlight)
+            .description("API requests being processed")
+            .baseUnit("requests")
+            .register(meterRegistry);
+        for (Priority priority : Priority.values()) {
+            rejectedCounters.put(
+                priority,
+                Counter.builder(REJECTED_METER_NAME)
+                    .description("API requests rejected by the concurrency limit")
+                    .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry)
+            );
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !path(request).startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        Priority priority = priorityOf(request);
+        if (!limiter.tryAcquire(priority.getShare())) {
+            rejectedCounters.get(priority).increment();
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean overloaded = false;
+        try {
+            filterChain.doFilter(request, response);
+            overloaded = isOverloaded(response.getStatus());
+        } finally {
+            if (isTransfer(request) && !overloaded) {
+                limiter.releaseUnsampled();
+            } else {
+                limiter.release(System.nanoTime() - start, overloaded);
+            }
+        }
+    }
+
+    static boolean isTransfer(HttpServletRequest request) {
+        String path = path(request);
+        if (STREAMED_COLLECTION_PATHS.contains(path)) {
+            return HttpMethod.GET.matches(request.getMethod());
+        }
+        return TRANSFER_PATH.matcher(path).matches();
+    }
+
+    static Priority priorityOf(HttpServletRequest request) {
+        String path = path(request);
+        HttpMethod method = HttpMethod.valueOf(request.getMethod());
+        if (AUTHENTICATION_PATHS.contains(path)) {
+            return Priority.CRITICAL;
+        }
+        if (path.startsWith("/api/messages") && (HttpMethod.POST.equals(method) || HttpMethod.PUT.equals(method))) {
+            return Priority.HIGH;
+        }
+        if (DIRECTORY_PATHS.contains(path) && HttpMethod.GET.equals(method)) {
+            return Priority.LOW;
+        }
+        return Priority.NORMAL;
+    }
+
+    private static boolean isOverloaded(int status) {
+        return status == HttpServletResponse.SC_SERVICE_UNAVAILABLE || status == HttpServletResponse.SC_GATEWAY_TIMEOUT;
+    }
+
+    private static String path(HttpServletRequest request) {
+        // Request URI includes the contextPath if any, removed it.
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -0,0 +1,108 @@
+package rocks.zipcode.web.filter;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Additive-increase / multiplicative-decrease concurrency limit.
+ * <p>
+ * The limit grows by one for every response under {@code latencyThreshold} while at least half of it is in use, and is
+ * multiplied by {@code backoffRatio} on slower or overloaded responses, staying within {@code [minLimit, maxLimit]}. It
+ * is decreased at most once per {@code backoffInterval}, so that a burst of slow responses caused by the same event
+ * counts once.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long latencyThresholdNanos;
+
+    private final double backoffRatio;
+
+    private final long backoffIntervalNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+
+    private long lastBackoff;
+
+    private boolean backedOff;
+
+    public AdaptiveConcurrencyLimiter(
+        int initialLimit,
+        int minLimit,
+        int maxLimit,
+        Duration latencyThreshold,
+        double backoffRatio,
+        Duration backoffInterval
+    ) {
+        if (minLimit < 1 || maxLimit < minLimit || backoffRatio <= 0 || backoffRatio >= 1 || backoffInterval.isNegative()) {
+            throw new IllegalArgumentException("Invalid concurrency limit settings");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.backoffIntervalNanos = backoffInterval.toNanos();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Admits a request if fewer than {@code share} of the current limit are in flight.
+     *
+     * @param share the part of the limit available to the request's priority, between 0 and 1.
+     * @return {@code true} if the request was admitted, in which case {@link #release} must be called once it completes.
+     */
+    public boolean tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (limit * share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request and adjusts the limit.
+     *
+     * @param latencyNanos how long the request took.
+     * @param overloaded whether the request failed because a downstream resource was saturated.
+     */
+    public void release(long latencyNanos, boolean overloaded) {
+        int current = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (overloaded || latencyNanos > latencyThresholdNanos) {
+                long now = System.nanoTime();
+                if (!backedOff || now - lastBackoff >= backoffIntervalNanos) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastBackoff = now;
+                    backedOff = true;
+                }
+            } else if (current * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request without adjusting the limit, for requests whose latency says nothing about the load.
+     */
+    public void releaseUnsampled() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,119 @@
+package rocks.zipcode.web.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import rocks.zipcode.security.SecurityUtils;
+
+/**
+ * Applies the {@link Rule}s matching a request, each with its own {@link TokenBucketRateLimiter}, and answers
+ * {@code 429 Too Many Requests} with a {@code Retry-After} header as soon as one of them is exhausted.
+ * <p>
+ * This filter must run after the Spring Security filter chain, so that requests can be keyed by the JWT subject.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String REJECTED_METER_NAME = "http.server.ratelimit.rejected";
+    public static final String KEYS_METER_NAME = "http.server.ratelimit.keys";
+
+    /**
+     * What the buckets of a rule are keyed by.
+     */
+    public enum KeyBy {
+        /**
+         * The login of the current user, or the client IP address for anonymous requests.
+         */
+        USER,
+        /**
+         * The client IP address.
+         */
+        IP,
+    }
+
+    /**
+     * A rate limit of {@code capacity} requests per {@code period}, for the requests matching one of {@code paths} and,
+     * if not empty, one of {@code methods}.
+     */
+    public record Rule(String name, List<String> paths, Set<String> methods, KeyBy keyBy, long capacity, Duration period) {}
+
+    private record Limit(Rule rule, TokenBucketRateLimiter limiter, Counter rejected) {}
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final List<Limit> limits;
+
+    public RateLimitFilter(List<Rule> rules, int maxKeys, MeterRegistry meterRegistry) {
+        this.limits = rules
+            .stream()
+            .map(rule -> {
+                TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(rule.capacity(), rule.period(), maxKeys);
+                Gauge.builder(KEYS_METER_NAME, limiter, TokenBucketRateLimiter::size)
+                    .description("Rate limit buckets in memory")
+                    .tag("group", rule.name())
+                    .register(meterRegistry);
+                Counter rejected = Counter.builder(REJECTED_METER_NAME)
+                    .description("Requests rejected by a rate limit")
+                    .tag("group", rule.name())
+                    .register(meterRegistry);
+                return new Limit(rule, limiter, rejected);
+            })
+            .toList();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        // Request URI includes the contextPath if any, removed it.
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Limit limit : limits) {
+            if (!matches(limit.rule(), request.getMethod(), path)) {
+                continue;
+            }
+            long wait = limit.limiter().tryAcquire(keyOf(limit.rule(), request));
+            if (wait > 0) {
+                limit.rejected().increment();
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(wait)));
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean matches(Rule rule, String method, String path) {
+        if (!rule.methods().isEmpty() && !rule.methods().contains(method)) {
+            return false;
+        }
+        for (String pattern : rule.paths()) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        return (waitNanos + second - 1) / second;
+    }
+
+    private static String keyOf(Rule rule, HttpServletRequest request) {
+        if (rule.keyBy() == KeyBy.USER && SecurityUtils.isAuthenticated()) {
+            return SecurityUtils.getCurrentUserLogin().map(login -> "user:" + login).orElseGet(() -> "ip:" + request.getRemoteAddr());
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
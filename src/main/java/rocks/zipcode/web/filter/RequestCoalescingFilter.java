@@ -0,0 +1,214 @@
+package rocks.zipcode.web.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import rocks.zipcode.security.SecurityUtils;
+
+/**
+ * Single-flight execution of identical concurrent {@code GET} requests.
+ * <p>
+ * The first request for a given route, query and authorization scope (the "leader") runs as usual, with its response
+ * buffered; requests with the same key arriving while it is in flight ("followers") wait for it and get a copy of its
+ * status, headers and body instead of hitting the database again. Nothing is cached once the leader is done. Followers
+ * whose leader fails, answers anything but {@code 200}, or takes longer than {@code waitTimeout} run the request
+ * themselves.
+ * <p>
+ * This filter must run after the Spring Security filter chain, so that requests are only shared within a {@link Scope}.
+ */
+public class RequestCoalescingFilter extends OncePerRequestFilter {
+
+    public static final String REQUESTS_METER_NAME = "http.server.coalescing.requests";
+
+    /**
+     * Who may share a response.
+     */
+    public enum Scope {
+        /**
+         * Requests of the same user.
+         */
+        USER,
+        /**
+         * Requests of users with the same authorities, for resources that do not depend on the current user.
+         */
+        AUTHORITIES,
+    }
+
+    /**
+     * The {@code GET} requests matching one of {@code paths} are coalesced within the given scope.
+     */
+    public record Route(String name, List<String> paths, Scope scope) {}
+
+    private record SharedResponse(int status, String contentType, List<Map.Entry<String, String>> headers, byte[] body) {}
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final ConcurrentMap<String, CompletableFuture<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final List<Route> routes;
+
+    private final long waitTimeoutNanos;
+
+    private final Counter leaderCounter;
+
+    private final Counter followerCounter;
+
+    private final Counter fallbackCounter;
+
+    public RequestCoalescingFilter(List<Route> routes, Duration waitTimeout, MeterRegistry meterRegistry) {
+        this.routes = List.copyOf(routes);
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+        this.leaderCounter = counter(meterRegistry, "leader");
+        this.followerCounter = counter(meterRegistry, "follower");
+        this.fallbackCounter = counter(meterRegistry, "fallback");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String role) {
+        return Counter.builder(REQUESTS_METER_NAME)
+            .description("Coalesced read requests; the coalescing ratio is follower / (leader + follower)")
+            .tag("role", role)
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod()) || routeOf(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        String key = keyOf(request, routeOf(request).scope());
+        CompletableFuture<SharedResponse> flight = new CompletableFuture<>();
+        CompletableFuture<SharedResponse> leader = inFlight.putIfAbsent(key, flight);
+        if (leader == null) {
+            lead(key, flight, request, response, filterChain);
+        } else {
+            follow(leader, request, response, filterChain);
+        }
+    }
+
+    private void lead(
+        String key,
+        CompletableFuture<SharedResponse> flight,
+        HttpServletRequest request,
+        HttpServletResponse response,
+        FilterChain filterChain
+    ) throws ServletException, IOException {
+        leaderCounter.increment();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+            flight.complete(wrapper.getStatus() == HttpServletResponse.SC_OK ? snapshot(wrapper) : null);
+        } finally {
+            // a leader that threw leaves its followers to run the request themselves
+            flight.complete(null);
+            inFlight.remove(key, flight);
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private void follow(
+        CompletableFuture<SharedResponse> leader,
+        HttpServletRequest request,
+        HttpServletResponse response,
+        FilterChain filterChain
+    ) throws ServletException, IOException {
+        SharedResponse shared = await(leader);
+        if (shared == null) {
+            fallbackCounter.increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+        followerCounter.increment();
+        response.setStatus(shared.status());
+        for (Map.Entry<String, String> header : shared.headers()) {
+            response.addHeader(header.getKey(), header.getValue());
+        }
+        if (shared.contentType() != null) {
+            response.setContentType(shared.contentType());
+        }
+        response.setContentLength(shared.body().length);
+        response.getOutputStream().write(shared.body());
+    }
+
+    private SharedResponse await(CompletableFuture<SharedResponse> leader) {
+        try {
+            return leader.get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+
+    private static SharedResponse snapshot(ContentCachingResponseWrapper wrapper) {
+        List<Map.Entry<String, String>> headers = new ArrayList<>();
+        for (String name : wrapper.getHeaderNames()) {
+            if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                continue;
+            }
+            if (HttpHeaders.SET_COOKIE.equalsIgnoreCase(name)) {
+                continue;
+            }
+            wrapper.getHeaders(name).forEach(value -> headers.add(Map.entry(name, value)));
+        }
+        return new SharedResponse(wrapper.getStatus(), wrapper.getContentType(), headers, wrapper.getContentAsByteArray());
+    }
+
+    private Route routeOf(HttpServletRequest request) {
+        // Request URI includes the contextPath if any, removed it.
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Route route : routes) {
+            for (String pattern : route.paths()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return route;
+                }
+            }
+        }
+        return null;
+    }
+
+    static String keyOf(HttpServletRequest request, Scope scope) {
+        StringBuilder key = new StringBuilder(request.getRequestURI());
+        if (request.getQueryString() != null) {
+            key.append('?').append(request.getQueryString());
+        }
+        key.append('|').append(request.getHeader(HttpHeaders.ACCEPT)).append('|');
+        if (scope == Scope.USER) {
+            key.append(SecurityUtils.getCurrentUserLogin().orElse(""));
+        } else {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null) {
+                key.append(
+                    authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).sorted().collect(Collectors.joining(","))
+                );
+            }
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,80 @@
+package rocks.zipcode.web.filter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Accounts the heap allocated and the CPU time consumed by the thread handling each request, per endpoint.
+ * <p>
+ * Both are read from {@link com.sun.management.ThreadMXBean} at the start and at the end of the request, and published as
+ * the {@value #ALLOCATED_METER_NAME} distribution and the {@value #CPU_METER_NAME} timer. Requests that go asynchronous,
+ * and requests on threads for which the JVM does not report these values (such as virtual threads), are not accounted.
+ */
+public class ResourceAccountingFilter extends OncePerRequestFilter {
+
+    public static final String ALLOCATED_METER_NAME = "http.server.requests.allocated";
+    public static final String CPU_METER_NAME = "http.server.requests.cpu";
+
+    private final MeterRegistry meterRegistry;
+
+    private final com.sun.management.ThreadMXBean threadMXBean;
+
+    private final boolean allocationSupported;
+
+    private final boolean cpuTimeSupported;
+
+    public ResourceAccountingFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        this.allocationSupported = threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled();
+        this.cpuTimeSupported = threadMXBean.isCurrentThreadCpuTimeSupported() && threadMXBean.isThreadCpuTimeEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        long allocatedBefore = allocationSupported ? threadMXBean.getCurrentThreadAllocatedBytes() : -1;
+        long cpuBefore = cpuTimeSupported ? threadMXBean.getCurrentThreadCpuTime() : -1;
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (!request.isAsyncStarted()) {
+                long allocated = allocatedBefore < 0 ? -1 : threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+                long cpu = cpuBefore < 0 ? -1 : threadMXBean.getCurrentThreadCpuTime() - cpuBefore;
+                record(request, allocated, cpu);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, long allocated, long cpu) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        if (allocated >= 0) {
+            DistributionSummary.builder(ALLOCATED_METER_NAME)
+                .description("Heap allocated by the thread handling the request")
+                .baseUnit("bytes")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(allocated);
+        }
+        if (cpu >= 0) {
+            Timer.builder(CPU_METER_NAME)
+                .description("CPU time consumed by the thread handling the request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(cpu, TimeUnit.NANOSECONDS);
+        }
+    }
+}
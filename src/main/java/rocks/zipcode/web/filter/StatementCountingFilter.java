@@ -0,0 +1,82 @@
+package rocks.zipcode.web.filter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import rocks.zipcode.management.jdbc.StatementCounter;
+
+/**
+ * Counts the JDBC statements executed while handling each request.
+ * <p>
+ * The count is published as a distribution per endpoint and exposed in the {@value #STATEMENTS_ATTRIBUTE} request
+ * attribute for the tests. Requests issuing more than {@code warnThreshold} statements are logged with their statement
+ * shapes, the most executed first: a shape executed once per row of a previous query is the mark of an N+1.
+ */
+public class StatementCountingFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_METER_NAME = "http.server.requests.statements";
+    public static final String STATEMENTS_ATTRIBUTE = StatementCountingFilter.class.getName() + ".statements";
+
+    private static final int LOGGED_SHAPES = 5;
+
+    private final Logger log = LoggerFactory.getLogger(StatementCountingFilter.class);
+
+    private final int warnThreshold;
+
+    private final MeterRegistry meterRegistry;
+
+    public StatementCountingFilter(int warnThreshold, MeterRegistry meterRegistry) {
+        this.warnThreshold = warnThreshold;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        StatementCounter.Scope scope = StatementCounter.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            scope.close();
+            report(request, scope);
+        }
+    }
+
+    private void report(HttpServletRequest request, StatementCounter.Scope scope) {
+        int count = scope.getCount();
+        request.setAttribute(STATEMENTS_ATTRIBUTE, count);
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder(STATEMENTS_METER_NAME)
+            .description("JDBC statements executed per request")
+            .baseUnit("statements")
+            .tag("method", request.getMethod())
+            .tag("uri", uri)
+            .serviceLevelObjectives(1, 2, 5, 10, 25, 50, 100)
+            .register(meterRegistry)
+            .record(count);
+        if (count > warnThreshold) {
+            log.warn(
+                "{} {} executed {} statements, most executed:\n{}",
+                request.getMethod(),
+                uri,
+                count,
+                scope
+                    .getShapes()
+                    .stream()
+                    .limit(LOGGED_SHAPES)
+                    .map(shape -> String.format("%6d x %s", shape.getValue(), shape.getKey()))
+                    .collect(Collectors.joining("\n"))
+            );
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package rocks.zipcode.web.filter;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token buckets, implemented with the generic cell rate algorithm (GCRA).
+ * <p>
+ * Each key only stores its "theoretical arrival time" in an {@link AtomicLong}: a request is allowed if, once its
+ * emission interval ({@code period / capacity}) is added, that time stays within {@code period} of now. A bucket whose
+ * arrival time is in the past is full again and is indistinguishable from a new one, so it can be evicted at any time.
+ * At most {@code maxKeys} buckets are kept; past that, idle buckets are evicted and, if none is idle, unknown keys are
+ * rejected until a sweep makes room: letting them through would let a client rotating its keys bypass the limit.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final long SWEEP_INTERVAL_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    private final long periodNanos;
+
+    private final long emissionIntervalNanos;
+
+    private final int maxKeys;
+
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime() - SWEEP_INTERVAL_NANOS);
+
+    public TokenBucketRateLimiter(long capacity, Duration period, int maxKeys) {
+        if (capacity < 1 || period.isNegative() || period.isZero() || maxKeys < 1) {
+            throw new IllegalArgumentException("Invalid rate limit settings");
+        }
+        this.periodNanos = period.toNanos();
+        this.emissionIntervalNanos = periodNanos / capacity;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Takes a token from the bucket of the given key.
+     *
+     * @return 0 if the request is allowed, otherwise how many nanoseconds to wait until a token is available.
+     */
+    public long tryAcquire(String key) {
+        return tryAcquire(key, System.nanoTime());
+    }
+
+    long tryAcquire(String key, long now) {
+        AtomicLong bucket = bucket(key, now);
+        if (bucket == null) {
+            return SWEEP_INTERVAL_NANOS;
+        }
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + emissionIntervalNanos;
+            long wait = next - now - periodNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private AtomicLong bucket(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys && (!evictIdle(now) || buckets.size() >= maxKeys)) {
+            return null;
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+    }
+
+    /**
+     * Removes the buckets that are full again, at most once per second.
+     *
+     * @return whether a sweep ran.
+     */
+    boolean evictIdle(long now) {
+        long last = lastSweep.get();
+        if (now - last < SWEEP_INTERVAL_NANOS || !lastSweep.compareAndSet(last, now)) {
+            return false;
+        }
+        buckets.values().removeIf(bucket -> bucket.get() <= now);
+        return true;
+    }
+}
@@ -0,0 +1,377 @@
+package rocks.zipcode.web.rest;
+
+import io.undertow.servlet.handlers.ServletRequestContext;
+import io.undertow.servlet.spec.ServletOutputStreamImpl;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+import rocks.zipcode.config.ApplicationProperties;
+import rocks.zipcode.domain.Attachment;
+import rocks.zipcode.domain.enumeration.AttachmentStatus;
+import rocks.zipcode.domain.enumeration.PreviewStatus;
+import rocks.zipcode.service.AttachmentService;
+import rocks.zipcode.service.ThumbnailService;
+import rocks.zipcode.service.UploadOffsetMismatchException;
+import rocks.zipcode.service.storage.FileTransferTarget;
+import rocks.zipcode.web.rest.errors.BadRequestAlertException;
+import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for managing {@link rocks.zipcode.domain.Attachment}.
+ * <p>
+ * An upload is declared with {@code POST /attachments}, then its content is sent in one or more
+ * {@code PATCH /attachments/:id/content} requests, each one with the {@value #UPLOAD_OFFSET} it starts at; after an
+ * interruption, {@code HEAD /attachments/:id/content} gives the offset to resume from. Request bodies are streamed to
+ * the content store, never buffered whole. Image attachments also have a {@code thumbnail} and a {@code preview}, once
+ * generated in the background.
+ */
+@RestController
+@RequestMapping("/api/attachments")
+public class AttachmentResource {
+
+    public static final String UPLOAD_OFFSET = "Upload-Offset";
+
+    public static final String UPLOAD_LENGTH = "Upload-Length";
+
+    private final Logger log = LoggerFactory.getLogger(AttachmentResource.class);
+
+    private static final String ENTITY_NAME = "attachment";
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final AttachmentService attachmentService;
+
+    private final ApplicationProperties.Attachments properties;
+
+    private final String cacheControl;
+
+    public AttachmentResource(AttachmentService attachmentService, ApplicationProperties applicationProperties) {
+        this.attachmentService = attachmentService;
+        this.properties = applicationProperties.getAttachments();
+        this.cacheControl = CacheControl.maxAge(properties.getCacheMaxAge()).cachePrivate().immutable().getHeaderValue();
+    }
+
+    /**
+     * {@code POST  /attachments} : Declare a new attachment, before its content is uploaded.
+     *
+     * @param attachment the attachment to create, with its {@code contentLength}.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new attachment, or with status {@code 400 (Bad Request)} if the attachment has already an ID or is too large.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("")
+    public ResponseEntity<Attachment> createAttachment(@Valid @RequestBody Attachment attachment) throws URISyntaxException {
+        log.debug("REST request to save Attachment : {}", attachment);
+        if (attachment.getId() != null) {
+            throw new BadRequestAlertException("A new attachment cannot already have an ID", ENTITY_NAME, "idexists");
+        }
+        if (attachment.getContentLength() > properties.getMaxSize().toBytes()) {
+            throw new BadRequestAlertException("The attachment is too large", ENTITY_NAME, "toolarge");
+        }
+        attachment = attachmentService.create(attachment);
+        return ResponseEntity.created(new URI("/api/attachments/" + attachment.getId()))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, attachment.getId().toString()))
+            .body(attachment);
+    }
+
+    /**
+     * {@code GET  /attachments?messageId=:messageId} : get the attachments of a message.
+     *
+     * @param messageId the id of the message.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of attachments in body.
+     */
+    @GetMapping("")
+    public List<Attachment> getAttachmentsOfMessage(@RequestParam("messageId") Long messageId) {
+        log.debug("REST request to get the Attachments of Message : {}", messageId);
+        return attachmentService.findByMessage(messageId);
+    }
+
+    /**
+     * {@code GET  /attachments/:id} : get the "id" attachment.
+     *
+     * @param id the id of the attachment to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the attachment, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Attachment> getAttachment(@PathVariable("id") Long id) {
+        log.debug("REST request to get Attachment : {}", id);
+        return ResponseUtil.wrapOrNotFound(attachmentService.findOne(id));
+    }
+
+    /**
+     * {@code HEAD  /attachments/:id/content} : get the offset to resume the upload from.
+     *
+     * @param id the id of the attachment.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the {@value #UPLOAD_OFFSET} and
+     * {@value #UPLOAD_LENGTH} headers, or with status {@code 404 (Not Found)}.
+     * @throws IOException if the content store cannot be read.
+     */
+    @RequestMapping(value = "/{id}/content", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> getUploadOffset(@PathVariable("id") Long id) throws IOException {
+        Attachment attachment = findOrNotFound(id);
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noStore())
+            .header(UPLOAD_OFFSET, String.valueOf(attachmentService.currentOffset(attachment)))
+            .header(UPLOAD_LENGTH, String.valueOf(attachment.getContentLength()))
+            .build();
+    }
+
+    /**
+     * {@code PATCH  /attachments/:id/content} : upload the next chunk of the content.
+     *
+     * @param id the id of the attachment.
+     * @param offset the offset of the chunk in the content, which must be where the upload is.
+     * @param request the request whose body is the chunk.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the attachment and the new
+     * {@value #UPLOAD_OFFSET}, or with status {@code 409 (Conflict)} and the {@value #UPLOAD_OFFSET} to resume from,
+     * or with status {@code 400 (Bad Request)} if the chunk goes past the declared length.
+     * @throws IOException if the chunk cannot be read or stored.
+     */
+    @PatchMapping(value = "/{id}/content", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Attachment> uploadContent(
+        @PathVariable("id") Long id,
+        @RequestHeader(UPLOAD_OFFSET) long offset,
+        HttpServletRequest request
+    ) throws IOException {
+        log.debug("REST request to upload the content of Attachment {} from offset {}", id, offset);
+        Attachment attachment = findOrNotFound(id);
+        if (offset < 0 || request.getContentLengthLong() > attachment.getContentLength() - offset) {
+            throw new BadRequestAlertException("The chunk goes past the length of the attachment", ENTITY_NAME, "chunktoolarge");
+        }
+        try {
+            attachment = attachmentService.appendContent(attachment, offset, request.getInputStream());
+        } catch (UploadOffsetMismatchException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).header(UPLOAD_OFFSET, String.valueOf(e.getCurrentOffset())).build();
+        }
+        if (request.getInputStream().read() != -1) {
+            // a chunked body, whose length was not known up front
+            throw new BadRequestAlertException("The chunk goes past the length of the attachment", ENTITY_NAME, "chunktoolarge");
+        }
+        return ResponseEntity.ok().header(UPLOAD_OFFSET, String.valueOf(attachment.getReceived())).body(attachment);
+    }
+
+    /**
+     * {@code GET  /attachments/:id/content} : download the content of a complete attachment.
+     * <p>
+     * A single byte range may be requested with a {@code Range} header; the content never changes once complete, so it
+     * is served with an ETag and a long-lived immutable {@code Cache-Control}.
+     *
+     * @param id the id of the attachment.
+     * @param request the request, with its optional {@code Range}, {@code If-Range} and {@code If-None-Match} headers.
+     * @param response the response the content is written to, with status {@code 200 (OK)}, {@code 206 (Partial Content)},
+     * {@code 304 (Not Modified)} or {@code 416 (Range Not Satisfiable)}.
+     * @throws IOException if the content cannot be read or written.
+     */
+    @GetMapping("/{id}/content")
+    public void downloadContent(@PathVariable("id") Long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.debug("REST request to download the content of Attachment : {}", id);
+        Attachment attachment = findOrNotFound(id);
+        if (attachment.getStatus() != AttachmentStatus.COMPLETE) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "The upload of the attachment is not complete");
+        }
+        response.setHeader(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename(attachment.getFilename(), StandardCharsets.UTF_8).build().toString()
+        );
+        serve(
+            request,
+            response,
+            "\"" + attachment.getId() + "\"",
+            attachment.getContentType(),
+            attachment.getContentLength(),
+            (position, count, target) -> attachmentService.transferContent(attachment, position, count, target)
+        );
+    }
+
+    /**
+     * {@code GET  /attachments/:id/thumbnail} : download the thumbnail of an image attachment, as JPEG.
+     *
+     * @param id the id of the attachment.
+     * @param request the request, with its optional {@code Range}, {@code If-Range} and {@code If-None-Match} headers.
+     * @param response the response the thumbnail is written to, as for the content.
+     * @throws IOException if the thumbnail cannot be read or written.
+     */
+    @GetMapping("/{id}/" + ThumbnailService.THUMBNAIL)
+    public void downloadThumbnail(@PathVariable("id") Long id, HttpServletRequest request, HttpServletResponse response)
+        throws IOException {
+        log.debug("REST request to download the thumbnail of Attachment : {}", id);
+        serveDerivative(id, ThumbnailService.THUMBNAIL, request, response);
+    }
+
+    /**
+     * {@code GET  /attachments/:id/preview} : download the preview of an image attachment, as JPEG.
+     *
+     * @param id the id of the attachment.
+     * @param request the request, with its optional {@code Range}, {@code If-Range} and {@code If-None-Match} headers.
+     * @param response the response the preview is written to, as for the content.
+     * @throws IOException if the preview cannot be read or written.
+     */
+    @GetMapping("/{id}/" + ThumbnailService.PREVIEW)
+    public void downloadPreview(@PathVariable("id") Long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.debug("REST request to download the preview of Attachment : {}", id);
+        serveDerivative(id, ThumbnailService.PREVIEW, request, response);
+    }
+
+    /**
+     * {@code DELETE  /attachments/:id} : delete the "id" attachment and its content.
+     *
+     * @param id the id of the attachment to delete.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteAttachment(@PathVariable("id") Long id) {
+        log.debug("REST request to delete Attachment : {}", id);
+        attachmentService.delete(id);
+        return ResponseEntity.noContent()
+            .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
+            .build();
+    }
+
+    private Attachment findOrNotFound(Long id) {
+        return attachmentService.findOne(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Serves a derivative, which is {@code 404 (Not Found)} until it is generated; the placeholder is linked instead in
+     * the meantime.
+     */
+    private void serveDerivative(Long id, String variant, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Attachment attachment = findOrNotFound(id);
+        if (attachment.getPreviewStatus() != PreviewStatus.READY) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        serve(
+            request,
+            response,
+            "\"" + attachment.getContentHash() + "-" + variant + "\"",
+            MediaType.IMAGE_JPEG_VALUE,
+            attachmentService.derivativeLength(attachment, variant),
+            (position, count, target) -> attachmentService.transferDerivative(attachment, variant, position, count, target)
+        );
+    }
+
+    @FunctionalInterface
+    private interface Transfer {
+        void to(long position, long count, WritableByteChannel target) throws IOException;
+    }
+
+    /**
+     * Writes content that never changes once written, with an ETag and a long-lived immutable {@code Cache-Control},
+     * honouring a single byte range.
+     */
+    private void serve(
+        HttpServletRequest request,
+        HttpServletResponse response,
+        String etag,
+        String contentType,
+        long length,
+        Transfer transfer
+    ) throws IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        HttpRange range = requestedRange(request, etag);
+        if (range != null) {
+            start = range.getRangeStart(length);
+            if (start >= length) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            end = range.getRangeEnd(length);
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        response.setContentType(contentType);
+        response.setContentLengthLong(end - start + 1);
+        transfer.to(start, end - start + 1, responseChannel(response));
+    }
+
+    /**
+     * The response body as a channel. Under Undertow, it is a {@link FileTransferTarget} sending the files with
+     * {@link ServletOutputStreamImpl#transferFrom}, which uses {@code sendfile}: the response is committed first through
+     * its wrappers, so that the headers they write on commit are sent, then the file is written to the original stream.
+     * A response whose body is cached by a wrapper, as {@link rocks.zipcode.web.filter.RequestCoalescingFilter} does,
+     * is written through the wrapper.
+     */
+    private static WritableByteChannel responseChannel(HttpServletResponse response) throws IOException {
+        WritableByteChannel channel = Channels.newChannel(response.getOutputStream());
+        ServletRequestContext context = ServletRequestContext.current();
+        if (
+            context == null ||
+            WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class) != null ||
+            !(context.getOriginalResponse().getOutputStream() instanceof ServletOutputStreamImpl out)
+        ) {
+            return channel;
+        }
+        return new FileTransferTarget() {
+            @Override
+            public void transferFrom(FileChannel source) throws IOException {
+                response.flushBuffer();
+                out.transferFrom(source);
+            }
+
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                return channel.write(src);
+            }
+
+            @Override
+            public boolean isOpen() {
+                return channel.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
+
+    /**
+     * The single range requested, {@code null} for the whole content: several ranges, an invalid header or an
+     * {@code If-Range} for another version are answered with the whole content, as HTTP allows.
+     */
+    private static HttpRange requestedRange(HttpServletRequest request, String etag) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(request.getHeader(HttpHeaders.RANGE));
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -17,6 +17,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -25,6 +26,8 @@ import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
 import org.springframework.web.bind.annotation.*;
+import rocks.zipcode.management.SecurityMetersService;
+import rocks.zipcode.security.LoginCapacityExceededException;
 import rocks.zipcode.web.rest.vm.LoginVM;
 
 /**
@@ -46,9 +49,16 @@ public class AuthenticateController {
 
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
-    public AuthenticateController(JwtEncoder jwtEncoder, AuthenticationManagerBuilder authenticationManagerBuilder) {
+    private final SecurityMetersService securityMetersService;
+
+    public AuthenticateController(
+        JwtEncoder jwtEncoder,
+        AuthenticationManagerBuilder authenticationManagerBuilder,
+        SecurityMetersService securityMetersService
+    ) {
         this.jwtEncoder = jwtEncoder;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
+        this.securityMetersService = securityMetersService;
     }
 
     @CrossOrigin(origins = "http://localhost:3000")
@@ -59,7 +69,7 @@ public class AuthenticateController {
             loginVM.getPassword()
         );
 
-        Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
+        Authentication authentication = authenticate(authenticationToken);
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = this.createToken(authentication, loginVM.isRememberMe());
         HttpHeaders httpHeaders = new HttpHeaders();
@@ -67,6 +77,22 @@ public class AuthenticateController {
         return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
     }
 
+    private Authentication authenticate(UsernamePasswordAuthenticationToken authenticationToken) {
+        long start = System.nanoTime();
+        try {
+            Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
+            securityMetersService.trackLoginSuccess(System.nanoTime() - start);
+            return authentication;
+        } catch (LoginCapacityExceededException e) {
+            log.warn("Rejected login attempt for {}: password hashing is saturated", authenticationToken.getName());
+            securityMetersService.trackLoginRejected(System.nanoTime() - start);
+            throw e;
+        } catch (AuthenticationException e) {
+            securityMetersService.trackLoginFailure(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
     /**
      * {@code GET /authenticate} : check if the user is authenticated, and return its login.
      *
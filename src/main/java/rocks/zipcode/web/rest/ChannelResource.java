@@ -1,20 +1,24 @@
 package rocks.zipcode.web.rest;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import rocks.zipcode.domain.Channel;
+import rocks.zipcode.domain.Message;
 import rocks.zipcode.repository.ChannelRepository;
+import rocks.zipcode.repository.MessageStore;
 import rocks.zipcode.web.rest.errors.BadRequestAlertException;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
@@ -36,8 +40,14 @@ public class ChannelResource {
 
     private final ChannelRepository channelRepository;
 
-    public ChannelResource(ChannelRepository channelRepository) {
+    private final MessageStore messageStore;
+
+    private final StreamingJsonWriter streamingJsonWriter;
+
+    public ChannelResource(ChannelRepository channelRepository, MessageStore messageStore, StreamingJsonWriter streamingJsonWriter) {
         this.channelRepository = channelRepository;
+        this.messageStore = messageStore;
+        this.streamingJsonWriter = streamingJsonWriter;
     }
 
     /**
@@ -53,6 +63,7 @@ public class ChannelResource {
         if (channel.getId() != null) {
             throw new BadRequestAlertException("A new channel cannot already have an ID", ENTITY_NAME, "idexists");
         }
+        checkMessageExists(channel.getMessages());
         channel = channelRepository.save(channel);
         return ResponseEntity.created(new URI("/api/channels/" + channel.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, channel.getId().toString()))
@@ -85,6 +96,7 @@ public class ChannelResource {
         if (!channelRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        checkMessageExists(channel.getMessages());
 
         channel = channelRepository.save(channel);
         return ResponseEntity.ok()
@@ -142,13 +154,17 @@ public class ChannelResource {
 
     /**
      * {@code GET  /channels} : get all the channels.
+     * <p>
+     * The channels are streamed from the database and written one by one, instead of being loaded in a list first.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of channels in body.
+     * @param response the response the list of channels is written to, with status {@code 200 (OK)}.
+     * @throws IOException if the response cannot be written.
      */
-    @GetMapping("")
-    public List<Channel> getAllChannels() {
+    @GetMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Transactional(readOnly = true)
+    public void getAllChannels(HttpServletResponse response) throws IOException {
         log.debug("REST request to get all Channels");
-        return channelRepository.findAll();
+        streamingJsonWriter.writeArray(response, channelRepository.streamAll());
     }
 
     /**
@@ -178,4 +194,14 @@ public class ChannelResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * The message may be kept by the log message store rather than in the message table, so there is no foreign key to
+     * check the reference.
+     */
+    private void checkMessageExists(Message message) {
+        if (message != null && (message.getId() == null || !messageStore.existsById(message.getId()))) {
+            throw new BadRequestAlertException("Message not found", ENTITY_NAME, "messagenotfound");
+        }
+    }
 }
@@ -1,15 +1,17 @@
 package rocks.zipcode.web.rest;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
@@ -36,8 +38,11 @@ public class MentionResource {
 
     private final MentionRepository mentionRepository;
 
-    public MentionResource(MentionRepository mentionRepository) {
+    private final StreamingJsonWriter streamingJsonWriter;
+
+    public MentionResource(MentionRepository mentionRepository, StreamingJsonWriter streamingJsonWriter) {
         this.mentionRepository = mentionRepository;
+        this.streamingJsonWriter = streamingJsonWriter;
     }
 
     /**
@@ -142,13 +147,17 @@ public class MentionResource {
 
     /**
      * {@code GET  /mentions} : get all the mentions.
+     * <p>
+     * The mentions are streamed from the database and written one by one, instead of being loaded in a list first.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of mentions in body.
+     * @param response the response the list of mentions is written to, with status {@code 200 (OK)}.
+     * @throws IOException if the response cannot be written.
      */
-    @GetMapping("")
-    public List<Mention> getAllMentions() {
+    @GetMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Transactional(readOnly = true)
+    public void getAllMentions(HttpServletResponse response) throws IOException {
         log.debug("REST request to get all Mentions");
-        return mentionRepository.findAll();
+        streamingJsonWriter.writeArray(response, mentionRepository.streamAll());
     }
 
     /**
@@ -1,18 +1,24 @@
 package rocks.zipcode.web.rest;
 
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import rocks.zipcode.domain.Attachment;
 import rocks.zipcode.domain.Message;
-import rocks.zipcode.repository.MessageRepository;
+import rocks.zipcode.repository.MessageStore;
+import rocks.zipcode.service.AttachmentService;
 import rocks.zipcode.web.rest.errors.BadRequestAlertException;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
@@ -32,10 +38,16 @@ public class MessageResource {
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
-    private final MessageRepository messageRepository;
+    private final MessageStore messageStore;
 
-    public MessageResource(MessageRepository messageRepository) {
-        this.messageRepository = messageRepository;
+    private final StreamingJsonWriter streamingJsonWriter;
+
+    private final AttachmentService attachmentService;
+
+    public MessageResource(MessageStore messageStore, StreamingJsonWriter streamingJsonWriter, AttachmentService attachmentService) {
+        this.messageStore = messageStore;
+        this.streamingJsonWriter = streamingJsonWriter;
+        this.attachmentService = attachmentService;
     }
 
     /**
@@ -51,7 +63,7 @@ public class MessageResource {
         if (message.getId() != null) {
             throw new BadRequestAlertException("A new message cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        message = messageRepository.save(message);
+        message = messageStore.save(message);
         return ResponseEntity.created(new URI("/api/messages/" + message.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, message.getId().toString()))
             .body(message);
@@ -78,11 +90,11 @@ public class MessageResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!messageRepository.existsById(id)) {
+        if (!messageStore.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
-        message = messageRepository.save(message);
+        message = messageStore.save(message);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, message.getId().toString()))
             .body(message);
@@ -112,11 +124,11 @@ public class MessageResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!messageRepository.existsById(id)) {
+        if (!messageStore.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
-        Optional<Message> result = messageRepository
+        Optional<Message> result = messageStore
             .findById(message.getId())
             .map(existingMessage -> {
                 if (message.getUploads() != null) {
@@ -131,7 +143,7 @@ public class MessageResource {
 
                 return existingMessage;
             })
-            .map(messageRepository::save);
+            .map(messageStore::save);
 
         return ResponseUtil.wrapOrNotFound(
             result,
@@ -141,13 +153,33 @@ public class MessageResource {
 
     /**
      * {@code GET  /messages} : get all the messages.
+     * <p>
+     * The messages are streamed from the database and written one by one, instead of being loaded in a list first.
+     * Given {@code from} and {@code to}, only the messages created in that range are returned, which only reads the
+     * partitions of these months.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of messages in body.
+     * @param from the start of the creation date range, inclusive.
+     * @param to the end of the creation date range, exclusive.
+     * @param response the response the list of messages is written to, with status {@code 200 (OK)}, or with status
+     * {@code 400 (Bad Request)} if only one end of the range is given.
+     * @throws IOException if the response cannot be written.
      */
-    @GetMapping("")
-    public List<Message> getAllMessages() {
-        log.debug("REST request to get all Messages");
-        return messageRepository.findAll();
+    @GetMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Transactional(readOnly = true)
+    public void getAllMessages(
+        @RequestParam(name = "from", required = false) Instant from,
+        @RequestParam(name = "to", required = false) Instant to,
+        HttpServletResponse response
+    ) throws IOException {
+        log.debug("REST request to get all Messages from {} to {}", from, to);
+        if (from == null && to == null) {
+            streamingJsonWriter.writeArray(response, messageStore.streamAll());
+            return;
+        }
+        if (from == null || to == null) {
+            throw new BadRequestAlertException("Both from and to are required", ENTITY_NAME, "rangeincomplete");
+        }
+        streamingJsonWriter.writeArray(response, messageStore.streamAllCreatedBetween(from, to));
     }
 
     /**
@@ -159,10 +191,26 @@ public class MessageResource {
     @GetMapping("/{id}")
     public ResponseEntity<Message> getMessage(@PathVariable("id") Long id) {
         log.debug("REST request to get Message : {}", id);
-        Optional<Message> message = messageRepository.findById(id);
+        Optional<Message> message = messageStore.findById(id);
         return ResponseUtil.wrapOrNotFound(message);
     }
 
+    /**
+     * {@code GET  /messages/:id/attachments} : get the attachments of the "id" message, with the URLs of their thumbnail
+     * and preview, or of the placeholder while these are generated.
+     *
+     * @param id the id of the message.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the attachments, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/attachments")
+    public ResponseEntity<List<Attachment>> getMessageAttachments(@PathVariable("id") Long id) {
+        log.debug("REST request to get the Attachments of Message : {}", id);
+        if (!messageStore.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok().body(attachmentService.findByMessage(id));
+    }
+
     /**
      * {@code DELETE  /messages/:id} : delete the "id" message.
      *
@@ -172,7 +220,7 @@ public class MessageResource {
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteMessage(@PathVariable("id") Long id) {
         log.debug("REST request to delete Message : {}", id);
-        messageRepository.deleteById(id);
+        messageStore.deleteById(id);
         return ResponseEntity.noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
@@ -0,0 +1,70 @@
+package rocks.zipcode.web.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes a {@link Stream} of entities to the response as a JSON array, one element at a time.
+ * <p>
+ * Each entity is detached from the persistence context once written, so that, with a JDBC fetch size on the query,
+ * memory use does not grow with the number of rows. It must be called within the transaction that opened the stream.
+ * Like the regular responses, lazy relationships that are not loaded are not serialized.
+ */
+@Component
+public class StreamingJsonWriter {
+
+    private final ObjectMapper objectMapper;
+
+    private final EntityManager entityManager;
+
+    public StreamingJsonWriter(ObjectMapper objectMapper, EntityManager entityManager) {
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+    }
+
+    public <T> void writeArray(HttpServletResponse response, Stream<T> rows) throws IOException {
+        writeArray(response, rows, 1, UnaryOperator.identity());
+    }
+
+    /**
+     * Same as {@link #writeArray(HttpServletResponse, Stream)}, handing the rows to {@code loader} by chunks of
+     * {@code chunkSize} before they are written, for instance to fetch their bag relationships.
+     */
+    public <T> void writeArray(HttpServletResponse response, Stream<T> rows, int chunkSize, UnaryOperator<List<T>> loader)
+        throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (rows; JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+            generator.writeStartArray();
+            List<T> chunk = new ArrayList<>(chunkSize);
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize) {
+                    write(generator, loader.apply(chunk));
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                write(generator, loader.apply(chunk));
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private <T> void write(JsonGenerator generator, List<T> chunk) throws IOException {
+        for (T entity : chunk) {
+            generator.writeObject(entity);
+            entityManager.detach(entity);
+        }
+    }
+}
@@ -1,19 +1,23 @@
 package rocks.zipcode.web.rest;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import rocks.zipcode.domain.Message;
 import rocks.zipcode.domain.UserProfile;
+import rocks.zipcode.repository.MessageStore;
 import rocks.zipcode.repository.UserProfileRepository;
 import rocks.zipcode.web.rest.errors.BadRequestAlertException;
 import tech.jhipster.web.util.HeaderUtil;
@@ -31,13 +35,25 @@ public class UserProfileResource {
 
     private static final String ENTITY_NAME = "userProfile";
 
+    private static final int EAGERLOAD_CHUNK_SIZE = 100;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final UserProfileRepository userProfileRepository;
 
-    public UserProfileResource(UserProfileRepository userProfileRepository) {
+    private final MessageStore messageStore;
+
+    private final StreamingJsonWriter streamingJsonWriter;
+
+    public UserProfileResource(
+        UserProfileRepository userProfileRepository,
+        MessageStore messageStore,
+        StreamingJsonWriter streamingJsonWriter
+    ) {
         this.userProfileRepository = userProfileRepository;
+        this.messageStore = messageStore;
+        this.streamingJsonWriter = streamingJsonWriter;
     }
 
     /**
@@ -53,6 +69,7 @@ public class UserProfileResource {
         if (userProfile.getId() != null) {
             throw new BadRequestAlertException("A new userProfile cannot already have an ID", ENTITY_NAME, "idexists");
         }
+        checkMessageExists(userProfile.getMessages());
         userProfile = userProfileRepository.save(userProfile);
         return ResponseEntity.created(new URI("/api/user-profiles/" + userProfile.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, userProfile.getId().toString()))
@@ -85,6 +102,7 @@ public class UserProfileResource {
         if (!userProfileRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        checkMessageExists(userProfile.getMessages());
 
         userProfile = userProfileRepository.save(userProfile);
         return ResponseEntity.ok()
@@ -148,19 +166,30 @@ public class UserProfileResource {
 
     /**
      * {@code GET  /user-profiles} : get all the userProfiles.
+     * <p>
+     * The userProfiles are streamed from the database and written one by one, instead of being loaded in a list first;
+     * with {@code eagerload}, their relationships are fetched by chunks of {@value #EAGERLOAD_CHUNK_SIZE}.
      *
      * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of userProfiles in body.
+     * @param response the response the list of userProfiles is written to, with status {@code 200 (OK)}.
+     * @throws IOException if the response cannot be written.
      */
-    @GetMapping("")
-    public List<UserProfile> getAllUserProfiles(
-        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload
-    ) {
+    @GetMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Transactional(readOnly = true)
+    public void getAllUserProfiles(
+        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload,
+        HttpServletResponse response
+    ) throws IOException {
         log.debug("REST request to get all UserProfiles");
         if (eagerload) {
-            return userProfileRepository.findAllWithEagerRelationships();
+            streamingJsonWriter.writeArray(
+                response,
+                userProfileRepository.streamAll(),
+                EAGERLOAD_CHUNK_SIZE,
+                userProfileRepository::fetchBagRelationships
+            );
         } else {
-            return userProfileRepository.findAll();
+            streamingJsonWriter.writeArray(response, userProfileRepository.streamAll());
         }
     }
 
@@ -191,4 +220,14 @@ public class UserProfileResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * The message may be kept by the log message store rather than in the message table, so there is no foreign key to
+     * check the reference.
+     */
+    private void checkMessageExists(Message message) {
+        if (message != null && (message.getId() == null || !messageStore.existsById(message.getId()))) {
+            throw new BadRequestAlertException("Message not found", ENTITY_NAME, "messagenotfound");
+        }
+    }
 }
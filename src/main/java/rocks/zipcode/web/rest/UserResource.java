@@ -22,7 +22,6 @@ import rocks.zipcode.config.Constants;
 import rocks.zipcode.domain.User;
 import rocks.zipcode.repository.UserRepository;
 import rocks.zipcode.security.AuthoritiesConstants;
-import rocks.zipcode.service.MailService;
 import rocks.zipcode.service.UserService;
 import rocks.zipcode.service.dto.AdminUserDTO;
 import rocks.zipcode.web.rest.errors.BadRequestAlertException;
@@ -85,12 +84,9 @@ public class UserResource {
 
     private final UserRepository userRepository;
 
-    private final MailService mailService;
-
-    public UserResource(UserService userService, UserRepository userRepository, MailService mailService) {
+    public UserResource(UserService userService, UserRepository userRepository) {
         this.userService = userService;
         this.userRepository = userRepository;
-        this.mailService = mailService;
     }
 
     /**
@@ -119,7 +115,6 @@ public class UserResource {
             throw new EmailAlreadyUsedException();
         } else {
             User newUser = userService.createUser(userDTO);
-            mailService.sendCreationEmail(newUser);
             return ResponseEntity.created(new URI("/api/admin/users/" + newUser.getLogin()))
                 .headers(
                     HeaderUtil.createAlert(applicationName, "A user is created with identifier " + newUser.getLogin(), newUser.getLogin())
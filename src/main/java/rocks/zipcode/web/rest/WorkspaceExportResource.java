@@ -0,0 +1,119 @@
+package rocks.zipcode.web.rest;
+
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import rocks.zipcode.domain.WorkspaceExport;
+import rocks.zipcode.domain.enumeration.WorkspaceExportStatus;
+import rocks.zipcode.security.AuthoritiesConstants;
+import rocks.zipcode.security.SecurityUtils;
+import rocks.zipcode.service.WorkspaceExportService;
+import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for the exports of the workspaces, for administrators.
+ * <p>
+ * An export is started with {@code POST /admin/workspace-exports} and runs in the background; its progress is polled
+ * with {@code GET /admin/workspace-exports/:id} and, once complete, its archive is downloaded from
+ * {@code GET /admin/workspace-exports/:id/archive}.
+ */
+@RestController
+@RequestMapping("/api/admin/workspace-exports")
+@PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+public class WorkspaceExportResource {
+
+    private final Logger log = LoggerFactory.getLogger(WorkspaceExportResource.class);
+
+    private static final String ENTITY_NAME = "workspaceExport";
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final WorkspaceExportService workspaceExportService;
+
+    public WorkspaceExportResource(WorkspaceExportService workspaceExportService) {
+        this.workspaceExportService = workspaceExportService;
+    }
+
+    /**
+     * {@code POST  /admin/workspace-exports} : Start an export.
+     *
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the running export.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("")
+    public ResponseEntity<WorkspaceExport> startWorkspaceExport() throws URISyntaxException {
+        log.debug("REST request to start a WorkspaceExport");
+        WorkspaceExport export = workspaceExportService.start(SecurityUtils.getCurrentUserLogin().orElseThrow());
+        return ResponseEntity.accepted()
+            .location(new URI("/api/admin/workspace-exports/" + export.getId()))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, export.getId().toString()))
+            .body(export);
+    }
+
+    /**
+     * {@code GET  /admin/workspace-exports} : get all the exports, most recent first.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of exports in body.
+     */
+    @GetMapping("")
+    public List<WorkspaceExport> getAllWorkspaceExports() {
+        log.debug("REST request to get all WorkspaceExports");
+        return workspaceExportService.findAll();
+    }
+
+    /**
+     * {@code GET  /admin/workspace-exports/:id} : get the "id" export, with its progress.
+     *
+     * @param id the id of the export to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the export, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<WorkspaceExport> getWorkspaceExport(@PathVariable("id") Long id) {
+        log.debug("REST request to get WorkspaceExport : {}", id);
+        return ResponseUtil.wrapOrNotFound(workspaceExportService.findOne(id));
+    }
+
+    /**
+     * {@code GET  /admin/workspace-exports/:id/archive} : download the archive of a complete export.
+     *
+     * @param id the id of the export.
+     * @param response the response the archive is written to, with status {@code 200 (OK)}, or {@code 409 (Conflict)}
+     * if the export is not complete, or {@code 404 (Not Found)} if its archive is not on this node.
+     * @throws IOException if the archive cannot be read or written.
+     */
+    @GetMapping("/{id}/archive")
+    public void downloadWorkspaceExport(@PathVariable("id") Long id, HttpServletResponse response) throws IOException {
+        log.debug("REST request to download WorkspaceExport : {}", id);
+        WorkspaceExport export = workspaceExportService.findOne(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        if (export.getStatus() != WorkspaceExportStatus.COMPLETE) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "The export is not complete");
+        }
+        Path archive = workspaceExportService.archive(export);
+        if (!Files.exists(archive)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "The archive is not on this node");
+        }
+        response.setContentType(WorkspaceExportService.CONTENT_TYPE);
+        response.setContentLengthLong(Files.size(archive));
+        response.setHeader(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename(archive.getFileName().toString()).build().toString()
+        );
+        Files.copy(archive, response.getOutputStream());
+    }
+}
@@ -1,15 +1,17 @@
 package rocks.zipcode.web.rest;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
@@ -36,8 +38,11 @@ public class WorkspaceResource {
 
     private final WorkspaceRepository workspaceRepository;
 
-    public WorkspaceResource(WorkspaceRepository workspaceRepository) {
+    private final StreamingJsonWriter streamingJsonWriter;
+
+    public WorkspaceResource(WorkspaceRepository workspaceRepository, StreamingJsonWriter streamingJsonWriter) {
         this.workspaceRepository = workspaceRepository;
+        this.streamingJsonWriter = streamingJsonWriter;
     }
 
     /**
@@ -142,13 +147,17 @@ public class WorkspaceResource {
 
     /**
      * {@code GET  /workspaces} : get all the workspaces.
+     * <p>
+     * The workspaces are streamed from the database and written one by one, instead of being loaded in a list first.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of workspaces in body.
+     * @param response the response the list of workspaces is written to, with status {@code 200 (OK)}.
+     * @throws IOException if the response cannot be written.
      */
-    @GetMapping("")
-    public List<Workspace> getAllWorkspaces() {
+    @GetMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Transactional(readOnly = true)
+    public void getAllWorkspaces(HttpServletResponse response) throws IOException {
         log.debug("REST request to get all Workspaces");
-        return workspaceRepository.findAll();
+        streamingJsonWriter.writeArray(response, workspaceRepository.streamAll());
     }
 
     /**
@@ -0,0 +1,81 @@
+package rocks.zipcode.aop.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.stereotype.Service;
+
+/**
+ * Unit tests for the timing mode of {@link LoggingAspect}.
+ */
+class LoggingAspectTest {
+
+    private MeterRegistry meterRegistry;
+
+    private LoggingAspect loggingAspect;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        loggingAspect = new LoggingAspect(new MockEnvironment(), Duration.ofMillis(500), Duration.ofSeconds(10), meterRegistry);
+    }
+
+    @Test
+    void callsAreTimedPerMethod() throws Throwable {
+        ProceedingJoinPoint joinPoint = joinPoint("greet");
+        when(joinPoint.proceed()).thenReturn("Hello");
+
+        assertThat(loggingAspect.logAround(joinPoint)).isEqualTo("Hello");
+        loggingAspect.logAround(joinPoint);
+
+        Timer timer = meterRegistry
+            .get(LoggingAspect.TIMER_NAME)
+            .tag("class", "GreetingService")
+            .tag("method", "greet")
+            .tag("layer", "service")
+            .tag("outcome", "success")
+            .timer();
+        assertThat(timer.count()).isEqualTo(2);
+        assertThat(timer.takeSnapshot().histogramCounts()).isEmpty();
+    }
+
+    @Test
+    void failedCallsAreTimedApart() throws Throwable {
+        ProceedingJoinPoint joinPoint = joinPoint("greet");
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("boom"));
+
+        assertThatThrownBy(() -> loggingAspect.logAround(joinPoint)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.get(LoggingAspect.TIMER_NAME).tag("outcome", "error").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find(LoggingAspect.TIMER_NAME).tag("outcome", "success").timer().count()).isZero();
+    }
+
+    private static ProceedingJoinPoint joinPoint(String method) throws NoSuchMethodException {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(GreetingService.class.getDeclaredMethod(method));
+        when(signature.getName()).thenReturn(method);
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getTarget()).thenReturn(new GreetingService());
+        when(joinPoint.getSignature()).thenReturn(signature);
+        return joinPoint;
+    }
+
+    @Service
+    static class GreetingService {
+
+        String greet() {
+            return "Hello";
+        }
+    }
+}
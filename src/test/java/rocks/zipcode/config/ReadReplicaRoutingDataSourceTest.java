@@ -0,0 +1,103 @@
+package rocks.zipcode.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ReadReplicaRoutingDataSourceTest {
+
+    private final Connection primaryConnection = mock(Connection.class);
+
+    private final Connection replicaConnection = mock(Connection.class);
+
+    private final AtomicBoolean replicaAvailable = new AtomicBoolean(true);
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    private ReadReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        DataSource primary = mock(DataSource.class);
+        DataSource replica = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        dataSource = new ReadReplicaRoutingDataSource(primary, replica, replicaAvailable::get, Duration.ofSeconds(5), nanoTime::get);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("john", "password"));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        SecurityContextHolder.clearContext();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+    @Test
+    void testReadOnlyTransactionsGoToTheReplica() throws Exception {
+        assertThat(connectionIn(true)).isSameAs(replicaConnection);
+        assertThat(connectionIn(false)).isSameAs(primaryConnection);
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void testReadsGoToThePrimaryWhileTheReplicaIsUnavailable() throws Exception {
+        replicaAvailable.set(false);
+
+        assertThat(connectionIn(true)).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void testUsersReadTheirWritesDuringTheStickinessWindow() throws Exception {
+        commitReadWriteTransaction();
+
+        assertThat(connectionIn(true)).isSameAs(primaryConnection);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("jane", "password"));
+        assertThat(connectionIn(true)).isSameAs(replicaConnection);
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("john", "password"));
+        nanoTime.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertThat(connectionIn(true)).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void testRolledBackWritesAreNotSticky() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        dataSource.getConnection();
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clear();
+
+        assertThat(connectionIn(true)).isSameAs(replicaConnection);
+    }
+
+    private Connection connectionIn(boolean readOnly) throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        try {
+            return dataSource.getConnection();
+        } finally {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+    private void commitReadWriteTransaction() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        dataSource.getConnection();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clear();
+    }
+}
@@ -0,0 +1,246 @@
+package rocks.zipcode.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.transaction.support.TransactionTemplate;
+import rocks.zipcode.TableTalkApp;
+import rocks.zipcode.config.EmbeddedSQL;
+import rocks.zipcode.config.JacksonConfiguration;
+import rocks.zipcode.domain.Channel;
+import rocks.zipcode.domain.UserProfile;
+import rocks.zipcode.domain.Workspace;
+import rocks.zipcode.repository.ChannelRepository;
+import rocks.zipcode.repository.UserProfileRepository;
+import rocks.zipcode.repository.WorkspaceRepository;
+
+/**
+ * Chat workload simulator, driving the REST API of a booted application over HTTP with many concurrent clients.
+ * <p>
+ * Workspaces, channels and user profiles are created first, with a Zipf-skewed channel membership. Each client then
+ * simulates an active user: it posts messages and mentions and reads channels (mostly the popular ones it belongs to),
+ * the sidebar and the message history, at the rates of the {@link WorkloadProfile}, with exponential think times.
+ * Throughput and p50/p99/p999 latencies per endpoint are logged and written to {@code target/workload-report.json}.
+ * <p>
+ * All the clients share one admin token from one address, so the rate limits and the adaptive concurrency limit are
+ * turned off: with them, the report would measure the 429 and 503 responses rather than the application.
+ * <p>
+ * It is skipped unless {@code -Dworkload.enabled=true} is set, and runs against the database of the test profile: H2
+ * with {@code -Pdev} ({@code testdev}), or the MySQL Testcontainer with {@code -Pprod} ({@code testprod}):
+ * <pre>
+ * ./mvnw -Pdev verify -Dworkload.enabled=true -Dit.test=ChatWorkloadIT -Dtest=skip -Dsurefire.failIfNoSpecifiedTests=false
+ * </pre>
+ */
+@SpringBootTest(
+    classes = { TableTalkApp.class, JacksonConfiguration.class },
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = { "application.rate-limit.enabled=false", "application.concurrency-limit.enabled=false" }
+)
+@EmbeddedSQL
+@EnabledIfSystemProperty(named = "workload.enabled", matches = "true")
+class ChatWorkloadIT {
+
+    private static final String ADMIN_LOGIN = "admin";
+
+    private static final String ADMIN_PASSWORD = "admin";
+
+    private static final int RECENT_MESSAGES = 1024;
+
+    private final Logger log = LoggerFactory.getLogger(ChatWorkloadIT.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private ChannelRepository channelRepository;
+
+    @Autowired
+    private UserProfileRepository userProfileRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private final WorkloadReport report = new WorkloadReport();
+
+    /** Ids of recently posted messages, read back by the history reads. */
+    private final AtomicLongArray recentMessages = new AtomicLongArray(RECENT_MESSAGES);
+
+    @Test
+    void runChatWorkload() throws Exception {
+        WorkloadProfile profile = WorkloadProfile.fromSystemProperties();
+        log.info("Running chat workload {}", profile);
+        List<long[]> memberships = seed(profile);
+        String token = authenticate();
+
+        ExecutorService clients = Executors.newFixedThreadPool(profile.clients());
+        Instant recordingStart = Instant.now().plus(profile.warmup());
+        Instant end = recordingStart.plus(profile.duration());
+        List<Future<?>> sessions = new ArrayList<>();
+        for (int i = 0; i < profile.clients(); i++) {
+            long seed = i;
+            sessions.add(clients.submit(() -> simulateUser(profile, memberships, token, end, new SplittableRandom(seed))));
+        }
+        Thread.sleep(profile.warmup().toMillis());
+        report.startRecording();
+        for (Future<?> session : sessions) {
+            session.get(profile.duration().toMillis() + 60_000, TimeUnit.MILLISECONDS);
+        }
+        clients.shutdown();
+
+        List<Map<String, Object>> summary = report.summarize(Duration.between(recordingStart, Instant.now()));
+        log.info("Chat workload results:{}", WorkloadReport.format(summary));
+        Path output = Path.of("target", "workload-report.json");
+        Files.createDirectories(output.getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), Map.of("profile", profile, "endpoints", summary));
+        assertThat(summary).isNotEmpty();
+    }
+
+    /**
+     * Creates the workspaces, channels and user profiles; returns the channel ids of each user.
+     */
+    private List<long[]> seed(WorkloadProfile profile) {
+        return transactionTemplate.execute(status -> {
+            SplittableRandom random = new SplittableRandom(42);
+            List<Workspace> workspaces = new ArrayList<>();
+            for (int i = 0; i < profile.workspaces(); i++) {
+                workspaces.add(workspaceRepository.save(new Workspace().name("workspace-" + i).status("active")));
+            }
+            List<Channel> channels = new ArrayList<>();
+            for (int i = 0; i < profile.channels(); i++) {
+                channels.add(channelRepository.save(new Channel().name("channel-" + i).description("Channel " + i)));
+            }
+            ZipfDistribution popularity = new ZipfDistribution(channels.size(), profile.membershipSkew());
+            List<long[]> memberships = new ArrayList<>();
+            for (int i = 0; i < profile.users(); i++) {
+                UserProfile userProfile = new UserProfile()
+                    .name("user-" + i)
+                    .email("user-" + i + "@example.com")
+                    .addWorkspaces(workspaces.get(i % workspaces.size()));
+                for (int j = 0; j < profile.channelsPerUser(); j++) {
+                    userProfile.addChannels(channels.get(popularity.sample(random)));
+                }
+                userProfileRepository.save(userProfile);
+                memberships.add(userProfile.getChannels().stream().mapToLong(Channel::getId).toArray());
+            }
+            return memberships;
+        });
+    }
+
+    private void simulateUser(WorkloadProfile profile, List<long[]> memberships, String token, Instant end, SplittableRandom random) {
+        double totalRate = profile.messageRate() + profile.readRate() + profile.mentionRate();
+        long[] channels = memberships.get(random.nextInt(memberships.size()));
+        while (Instant.now().isBefore(end)) {
+            double action = random.nextDouble() * totalRate;
+            try {
+                if (action < profile.messageRate()) {
+                    postMessage(token, random);
+                } else if (action < profile.messageRate() + profile.mentionRate()) {
+                    send("POST /api/mentions", token, "POST", "/api/mentions", "{\"userName\":\"user\",\"text\":\"@user ping\"}");
+                } else {
+                    read(token, channels, random);
+                }
+                think(profile, random);
+            } catch (IOException e) {
+                report.record("connection errors", 0, 0);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void postMessage(String token, SplittableRandom random) throws IOException, InterruptedException {
+        String body = "{\"uploads\":\"\",\"pinned\":0,\"timestamp\":" + Instant.now().getEpochSecond() + "}";
+        HttpResponse<String> response = send("POST /api/messages", token, "POST", "/api/messages", body);
+        if (response.statusCode() == 201) {
+            JsonNode message = objectMapper.readTree(response.body());
+            recentMessages.set(random.nextInt(RECENT_MESSAGES), message.get("id").asLong());
+        }
+    }
+
+    private void read(String token, long[] channels, SplittableRandom random) throws IOException, InterruptedException {
+        int kind = random.nextInt(10);
+        if (kind < 6 && channels.length > 0) {
+            long channel = channels[random.nextInt(channels.length)];
+            send("GET /api/channels/{id}", token, "GET", "/api/channels/" + channel, null);
+        } else if (kind < 8) {
+            send("GET /api/workspaces", token, "GET", "/api/workspaces", null);
+        } else {
+            long message = recentMessages.get(random.nextInt(RECENT_MESSAGES));
+            if (message != 0) {
+                send("GET /api/messages/{id}", token, "GET", "/api/messages/" + message, null);
+            }
+        }
+    }
+
+    private void think(WorkloadProfile profile, SplittableRandom random) throws InterruptedException {
+        double mean = profile.meanThinkTimeMillis();
+        if (mean > 0) {
+            Thread.sleep((long) (-mean * Math.log(1 - random.nextDouble())));
+        }
+    }
+
+    private HttpResponse<String> send(String endpoint, String token, String method, String path, String body)
+        throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Accept", "application/json")
+            .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+        }
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        long start = System.nanoTime();
+        HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        report.record(endpoint, System.nanoTime() - start, response.statusCode());
+        return response;
+    }
+
+    private String authenticate() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(
+            "POST /api/authenticate",
+            null,
+            "POST",
+            "/api/authenticate",
+            "{\"username\":\"" + ADMIN_LOGIN + "\",\"password\":\"" + ADMIN_PASSWORD + "\"}"
+        );
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body()).get("id_token").asText();
+    }
+}
@@ -0,0 +1,62 @@
+package rocks.zipcode.load;
+
+import java.time.Duration;
+
+/**
+ * Shape of the simulated chat workload, read from {@code workload.*} system properties.
+ *
+ * @param workspaces number of workspaces.
+ * @param channels number of channels, spread over the workspaces.
+ * @param users number of user profiles.
+ * @param channelsPerUser number of channels each user is a member of.
+ * @param membershipSkew Zipf exponent of channel popularity: with 1 or more, a few channels gather most members.
+ * @param messageRate messages posted per user and per minute.
+ * @param readRate channel, sidebar or history reads per user and per minute.
+ * @param mentionRate mentions per user and per minute.
+ * @param clients concurrent clients, each one simulating an active user session.
+ * @param warmup how long the clients run before latencies are recorded.
+ * @param duration how long latencies are recorded.
+ */
+record WorkloadProfile(
+    int workspaces,
+    int channels,
+    int users,
+    int channelsPerUser,
+    double membershipSkew,
+    double messageRate,
+    double readRate,
+    double mentionRate,
+    int clients,
+    Duration warmup,
+    Duration duration
+) {
+    static WorkloadProfile fromSystemProperties() {
+        return new WorkloadProfile(
+            Integer.getInteger("workload.workspaces", 5),
+            Integer.getInteger("workload.channels", 200),
+            Integer.getInteger("workload.users", 2_000),
+            Integer.getInteger("workload.channels-per-user", 8),
+            doubleProperty("workload.membership-skew", 1.1),
+            doubleProperty("workload.message-rate", 2),
+            doubleProperty("workload.read-rate", 20),
+            doubleProperty("workload.mention-rate", 0.5),
+            Integer.getInteger("workload.clients", 100),
+            Duration.parse(System.getProperty("workload.warmup", "PT10S")),
+            Duration.parse(System.getProperty("workload.duration", "PT1M"))
+        );
+    }
+
+    /**
+     * Mean pause between two actions of a user, in milliseconds; {@code workload.think-time-scale=0} removes it to
+     * measure saturation throughput.
+     */
+    double meanThinkTimeMillis() {
+        double scale = doubleProperty("workload.think-time-scale", 1);
+        return scale * 60_000 / (messageRate + readRate + mentionRate);
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,107 @@
+package rocks.zipcode.load;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and error counts per endpoint, recorded with HdrHistogram-backed Micrometer timers.
+ */
+class WorkloadReport {
+
+    private static final double[] PERCENTILES = { 0.5, 0.99, 0.999 };
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Counter> errors = new ConcurrentHashMap<>();
+
+    private volatile boolean recording;
+
+    void startRecording() {
+        recording = true;
+    }
+
+    void record(String endpoint, long nanos, int status) {
+        if (!recording) {
+            return;
+        }
+        timers
+            .computeIfAbsent(endpoint, name ->
+                Timer.builder("workload.request")
+                    .tag("endpoint", name)
+                    .publishPercentiles(PERCENTILES)
+                    .percentilePrecision(3)
+                    .distributionStatisticExpiry(Duration.ofDays(1))
+                    .distributionStatisticBufferLength(1)
+                    .register(registry)
+            )
+            .record(nanos, TimeUnit.NANOSECONDS);
+        if (status < 200 || status >= 300) {
+            errors.computeIfAbsent(endpoint, name -> Counter.builder("workload.errors").tag("endpoint", name).register(registry)).increment();
+        }
+    }
+
+    /**
+     * One line per endpoint: requests, errors, throughput and latency percentiles.
+     */
+    List<Map<String, Object>> summarize(Duration elapsed) {
+        List<Map<String, Object>> lines = new ArrayList<>();
+        new TreeMap<>(timers).forEach((endpoint, timer) -> {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("endpoint", endpoint);
+            line.put("requests", snapshot.count());
+            Counter errorCounter = errors.get(endpoint);
+            line.put("errors", errorCounter == null ? 0 : (long) errorCounter.count());
+            line.put("throughput", snapshot.count() / (elapsed.toMillis() / 1000.0));
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                line.put(label(percentile.percentile()), percentile.value(TimeUnit.MILLISECONDS));
+            }
+            lines.add(line);
+        });
+        return lines;
+    }
+
+    static String format(List<Map<String, Object>> lines) {
+        StringBuilder table = new StringBuilder(
+            String.format(Locale.ROOT, "%n%-28s %10s %8s %10s %10s %10s %10s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms")
+        );
+        for (Map<String, Object> line : lines) {
+            table.append(
+                String.format(
+                    Locale.ROOT,
+                    "%-28s %10d %8d %10.1f %10.2f %10.2f %10.2f%n",
+                    line.get("endpoint"),
+                    line.get("requests"),
+                    line.get("errors"),
+                    line.get("throughput"),
+                    line.getOrDefault("p50", 0.0),
+                    line.getOrDefault("p99", 0.0),
+                    line.getOrDefault("p999", 0.0)
+                )
+            );
+        }
+        return table.toString();
+    }
+
+    private static String label(double percentile) {
+        // 0.5 -> p50, 0.99 -> p99, 0.999 -> p999
+        return "p" + BigDecimal.valueOf(percentile * 100).stripTrailingZeros().toPlainString().replace(".", "");
+    }
+}
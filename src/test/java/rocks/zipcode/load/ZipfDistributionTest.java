@@ -0,0 +1,37 @@
+package rocks.zipcode.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class ZipfDistributionTest {
+
+    @Test
+    void testLowRanksAreDrawnMostOften() {
+        ZipfDistribution distribution = new ZipfDistribution(100, 1.1);
+        SplittableRandom random = new SplittableRandom(42);
+        int[] counts = new int[100];
+        for (int i = 0; i < 100_000; i++) {
+            counts[distribution.sample(random)]++;
+        }
+
+        assertThat(counts[0]).isGreaterThan(counts[1]);
+        assertThat(counts[1]).isGreaterThan(counts[10]);
+        assertThat(counts[0] + counts[1] + counts[2]).isGreaterThan(100_000 / 3);
+    }
+
+    @Test
+    void testZeroExponentIsUniform() {
+        ZipfDistribution distribution = new ZipfDistribution(4, 0);
+        SplittableRandom random = new SplittableRandom(42);
+        int[] counts = new int[4];
+        for (int i = 0; i < 40_000; i++) {
+            counts[distribution.sample(random)]++;
+        }
+
+        for (int count : counts) {
+            assertThat(count).isBetween(9_000, 11_000);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package rocks.zipcode.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+
+/**
+ * Unit tests for {@link JfrRecordingEndpoint} and {@link JfrRecordingSummary}.
+ */
+class JfrRecordingEndpointTests {
+
+    @TempDir
+    Path directory;
+
+    private JfrRecordingEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        endpoint = new JfrRecordingEndpoint(directory, Duration.ofMinutes(1), 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        endpoint.destroy();
+    }
+
+    @Test
+    void onlyOneRecordingRunsAtATime() {
+        JfrRecordingEndpoint.RecordingDescriptor recording = endpoint.start("default", Duration.ofMinutes(1));
+
+        assertThat(endpoint.recordings()).singleElement().satisfies(listed -> {
+            assertThat(listed.id()).isEqualTo(recording.id());
+            assertThat(listed.state()).isEqualTo("RUNNING");
+        });
+        assertThatThrownBy(() -> endpoint.start("default", Duration.ofSeconds(10))).isInstanceOf(InvalidEndpointRequestException.class);
+        assertThat(endpoint.download(recording.id()).getStatus()).isEqualTo(409);
+    }
+
+    @Test
+    void recordingsCanBeDeleted() {
+        JfrRecordingEndpoint.RecordingDescriptor recording = endpoint.start(null, null);
+
+        assertThat(endpoint.delete(recording.id()).getStatus()).isEqualTo(WebEndpointResponse.STATUS_NO_CONTENT);
+        assertThat(endpoint.recordings()).isEmpty();
+        assertThat(endpoint.download(recording.id()).getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    @Test
+    void invalidRequestsAreRejected() {
+        assertThatThrownBy(() -> endpoint.start("unknown", Duration.ofSeconds(10))).isInstanceOf(InvalidEndpointRequestException.class);
+        assertThatThrownBy(() -> endpoint.start("default", Duration.ofHours(1))).isInstanceOf(InvalidEndpointRequestException.class);
+        assertThat(endpoint.recordings()).isEmpty();
+    }
+
+    @Test
+    void summaryListsAllocationSitesAndHotMethods() throws Exception {
+        Path file = directory.resolve("summary.jfr");
+        try (Recording recording = new Recording(Configuration.getConfiguration("profile"))) {
+            recording.start();
+            long deadline = System.nanoTime() + Duration.ofMillis(500).toNanos();
+            List<byte[]> allocated = new ArrayList<>();
+            while (System.nanoTime() < deadline) {
+                allocated.add(new byte[1024]);
+                if (allocated.size() > 10_000) {
+                    allocated.clear();
+                }
+            }
+            recording.stop();
+            recording.dump(file);
+        }
+
+        JfrRecordingSummary summary = JfrRecordingSummary.of(file, 5);
+
+        assertThat(summary.events()).isPositive();
+        assertThat(summary.allocations()).hasSizeLessThanOrEqualTo(5);
+        assertThat(summary.hotMethods()).hasSizeLessThanOrEqualTo(5);
+        assertThat(summary.allocations()).allSatisfy(site -> assertThat(site.share()).isBetween(0d, 1d));
+    }
+}
@@ -6,6 +6,7 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -13,6 +14,8 @@ class SecurityMetersServiceTests {
 
     private static final String INVALID_TOKENS_METER_EXPECTED_NAME = "security.authentication.invalid-tokens";
 
+    private static final String LOGIN_METER_EXPECTED_NAME = "security.authentication.login";
+
     private MeterRegistry meterRegistry;
 
     private SecurityMetersService securityMetersService;
@@ -67,4 +70,17 @@ class SecurityMetersServiceTests {
 
         assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter().count()).isEqualTo(1);
     }
+
+    @Test
+    void testLoginTimersByOutcomeAreCreated() {
+        assertThat(meterRegistry.find(LOGIN_METER_EXPECTED_NAME).timers()).hasSize(3);
+
+        securityMetersService.trackLoginSuccess(TimeUnit.MILLISECONDS.toNanos(80));
+        securityMetersService.trackLoginFailure(TimeUnit.MILLISECONDS.toNanos(90));
+        securityMetersService.trackLoginRejected(TimeUnit.MILLISECONDS.toNanos(1));
+
+        assertThat(meterRegistry.get(LOGIN_METER_EXPECTED_NAME).tag("outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(LOGIN_METER_EXPECTED_NAME).tag("outcome", "failure").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(LOGIN_METER_EXPECTED_NAME).tag("outcome", "rejected").timer().count()).isEqualTo(1);
+    }
 }
@@ -0,0 +1,102 @@
+package rocks.zipcode.management.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link QueryShapeStatistics} and the statements timed by {@link InstrumentedDataSource}.
+ */
+class QueryShapeStatisticsTest {
+
+    private MeterRegistry meterRegistry;
+
+    private QueryShapeStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        statistics = new QueryShapeStatistics(meterRegistry, Duration.ofSeconds(1), 3);
+    }
+
+    @Test
+    void executionsAreGroupedByShape() {
+        statistics.executed("select * from jhi_user where login = 'john'", TimeUnit.MILLISECONDS.toNanos(5));
+        statistics.executed("select * from jhi_user where login = 'jane'", TimeUnit.MILLISECONDS.toNanos(15));
+        statistics.executed("select * from channel where id = ?", TimeUnit.MILLISECONDS.toNanos(30));
+
+        List<QueryShapeStatistics.ShapeSummary> top = statistics.top(10, QueryShapeStatistics.Order.COUNT);
+
+        assertThat(top).hasSize(2);
+        assertThat(top.get(0).sql()).isEqualTo("select * from jhi_user where login = ?");
+        assertThat(top.get(0).count()).isEqualTo(2);
+        assertThat(top.get(0).totalMillis()).isEqualTo(20);
+        assertThat(top.get(0).meanMillis()).isEqualTo(10);
+        assertThat(top.get(0).maxMillis()).isEqualTo(15);
+        assertThat(statistics.top(1, QueryShapeStatistics.Order.MAX)).singleElement().satisfies(summary ->
+            assertThat(summary.sql()).isEqualTo("select * from channel where id = ?")
+        );
+        assertThat(meterRegistry.get(QueryShapeStatistics.QUERY_METER_NAME).tag("shape", top.get(0).id()).timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void shapesOverTheLimitAreCountedTogether() {
+        for (String table : List.of("channel", "message", "mention", "workspace", "user_profile")) {
+            statistics.executed("select * from " + table, 1);
+        }
+
+        assertThat(statistics.top(10, QueryShapeStatistics.Order.TOTAL))
+            .extracting(QueryShapeStatistics.ShapeSummary::id)
+            .hasSize(4)
+            .contains(QueryShapeStatistics.OTHER_SHAPE);
+    }
+
+    @Test
+    void rowsAreCountedFromResultSets() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(preparedStatement.executeUpdate()).thenReturn(4);
+        when(resultSet.next()).thenReturn(true, true, true, false);
+
+        try (Connection instrumented = new InstrumentedDataSource(target, statistics).getConnection()) {
+            try (ResultSet rows = instrumented.prepareStatement("select * from message where channel_id = ?").executeQuery()) {
+                while (rows.next()) {
+                    // read all the rows
+                }
+            }
+            instrumented.prepareStatement("update message set pinned = ? where channel_id = ?").executeUpdate();
+        }
+
+        assertThat(statistics.top(10, QueryShapeStatistics.Order.TOTAL))
+            .extracting(QueryShapeStatistics.ShapeSummary::sql, QueryShapeStatistics.ShapeSummary::rows)
+            .containsExactlyInAnyOrder(
+                tuple("select * from message where channel_id = ?", 3L),
+                tuple("update message set pinned = ? where channel_id = ?", 4L)
+            );
+    }
+
+    @Test
+    void bindParametersAreCountedOutsideOfLiterals() {
+        assertThat(QueryShapeStatistics.parameterCountOf("select * from jhi_user where login = ? and email like '%?%' and id in (?, ?)"))
+            .isEqualTo(3);
+    }
+}
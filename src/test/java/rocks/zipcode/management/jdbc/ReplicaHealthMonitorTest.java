@@ -0,0 +1,67 @@
+package rocks.zipcode.management.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+/**
+ * Unit tests for {@link ReplicaHealthMonitor}.
+ */
+class ReplicaHealthMonitorTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T12:00:00Z");
+
+    private MeterRegistry meterRegistry;
+
+    private ReplicaHealthMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new ReplicaHealthMonitor(
+            mock(DataSource.class),
+            mock(DataSource.class),
+            mock(TaskScheduler.class),
+            Duration.ofSeconds(1),
+            Duration.ofSeconds(2),
+            Clock.systemUTC(),
+            meterRegistry
+        );
+    }
+
+    @Test
+    void replicaIsUnavailableUntilChecked() {
+        assertThat(monitor.isAvailable()).isFalse();
+        assertThat(meterRegistry.get(ReplicaHealthMonitor.AVAILABLE_METER_NAME).gauge().value()).isZero();
+    }
+
+    @Test
+    void replicaIsAvailableWhileItsLagIsUnderTheMaximum() {
+        monitor.record(NOW, NOW.minusMillis(1500));
+
+        assertThat(monitor.isAvailable()).isTrue();
+        assertThat(meterRegistry.get(ReplicaHealthMonitor.LAG_METER_NAME).gauge().value()).isEqualTo(1.5);
+
+        monitor.record(NOW, NOW.minusSeconds(3));
+
+        assertThat(monitor.isAvailable()).isFalse();
+    }
+
+    @Test
+    void replicaIsUnavailableWhenItDoesNotAnswer() {
+        monitor.record(NOW, NOW);
+        monitor.record(NOW, null);
+
+        assertThat(monitor.isAvailable()).isFalse();
+        assertThat(meterRegistry.get(ReplicaHealthMonitor.LAG_METER_NAME).gauge().value()).isNaN();
+    }
+}
@@ -0,0 +1,88 @@
+package rocks.zipcode.management.jdbc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link StatementCounter} and {@link InstrumentedDataSource}.
+ */
+class StatementCounterTest {
+
+    private DataSource dataSource;
+
+    private PreparedStatement preparedStatement;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        preparedStatement = mock(PreparedStatement.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(connection.createStatement()).thenReturn(mock(Statement.class));
+        dataSource = new InstrumentedDataSource(target);
+    }
+
+    @Test
+    void shapeReplacesLiteralsAndCollapsesInLists() {
+        assertThat(StatementCounter.shapeOf("select * from channel  where id = 42 and name = 'it''s'")).isEqualTo(
+            "select * from channel where id = ? and name = ?"
+        );
+        assertThat(StatementCounter.shapeOf("select * from message where channel_id in (?, ?,?)")).isEqualTo(
+            "select * from message where channel_id in (...)"
+        );
+        assertThat(StatementCounter.shapeOf("select * from message where channel_id in (1, 2)")).isEqualTo(
+            StatementCounter.shapeOf("select * from message where channel_id in (3)")
+        );
+    }
+
+    @Test
+    void statementsAreOnlyCountedInsideAScope() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.prepareStatement("select 1").executeQuery();
+
+            try (StatementCounter.Scope scope = StatementCounter.open()) {
+                PreparedStatement statement = connection.prepareStatement("select * from channel where id = ?");
+                statement.executeQuery();
+                statement.executeQuery();
+                connection.createStatement().execute("delete from mention where id = 7");
+
+                assertThat(scope.getCount()).isEqualTo(3);
+                assertThat(scope.getShapes())
+                    .extracting(Map.Entry::getKey, Map.Entry::getValue)
+                    .containsExactly(
+                        tuple("select * from channel where id = ?", 2),
+                        tuple("delete from mention where id = ?", 1)
+                    );
+            }
+        }
+        verify(preparedStatement, times(3)).executeQuery();
+    }
+
+    @Test
+    void nestedScopesAlsoCountInTheirParent() throws Exception {
+        try (Connection connection = dataSource.getConnection(); StatementCounter.Scope outer = StatementCounter.open()) {
+            connection.prepareStatement("select 1").execute();
+            try (StatementCounter.Scope inner = StatementCounter.open()) {
+                connection.prepareStatement("select 2").execute();
+                assertThat(inner.getCount()).isEqualTo(1);
+            }
+            connection.prepareStatement("select 3").execute();
+
+            assertThat(outer.getCount()).isEqualTo(3);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package rocks.zipcode.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import rocks.zipcode.IntegrationTest;
+import rocks.zipcode.domain.Message;
+
+/**
+ * Integration tests for the {@link MessageIdRepository}.
+ */
+@IntegrationTest
+class MessageIdRepositoryIT {
+
+    @Autowired
+    private MessageIdRepository messageIdRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Test
+    void idsAreReservedAboveTheMessageTable() {
+        Message message = messageRepository.saveAndFlush(new Message().uploads("in the table"));
+        try {
+            long first = messageIdRepository.allocate(10, 1);
+            long second = messageIdRepository.allocate(10, 1);
+
+            assertThat(first).isGreaterThan(message.getId());
+            assertThat(second).isEqualTo(first + 10);
+            assertThat(messageIdRepository.allocate(10, second + 100)).isEqualTo(second + 100);
+        } finally {
+            messageRepository.delete(message);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package rocks.zipcode.repository.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import rocks.zipcode.IntegrationTest;
+import rocks.zipcode.domain.Message;
+import rocks.zipcode.repository.MessageRepository;
+import rocks.zipcode.repository.MessageStore;
+
+/**
+ * Integration tests for the {@link LogStructuredMessageStore}, with {@code application.message-store.type=log}.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = { "application.message-store.type=log", "application.message-store.directory=target/messages-it/${random.uuid}" }
+)
+class LogStructuredMessageStoreIT {
+
+    @Autowired
+    private MessageStore messageStore;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Test
+    void idsDoNotCollideWithTheMessageTable() {
+        assertThat(messageStore).isInstanceOf(LogStructuredMessageStore.class);
+        Message inTable = messageRepository.saveAndFlush(new Message().uploads("in the table"));
+        try {
+            Message inLog = messageStore.save(new Message().uploads("in the log"));
+
+            assertThat(inLog.getId()).isGreaterThan(inTable.getId());
+            assertThat(messageRepository.existsById(inLog.getId())).isFalse();
+            assertThat(messageStore.findById(inLog.getId())).map(Message::getUploads).hasValue("in the log");
+        } finally {
+            messageRepository.delete(inTable);
+        }
+    }
+}
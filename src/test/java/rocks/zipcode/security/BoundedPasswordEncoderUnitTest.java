@@ -0,0 +1,125 @@
+package rocks.zipcode.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Test class for the {@link BoundedPasswordEncoder}.
+ */
+class BoundedPasswordEncoderUnitTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (encoder != null) {
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    void testDelegatesToWrappedEncoder() {
+        encoder = new BoundedPasswordEncoder(
+            new BlockingPasswordEncoder(false),
+            1,
+            1,
+            Duration.ofSeconds(5),
+            Duration.ofSeconds(5),
+            new SimpleMeterRegistry()
+        );
+
+        assertThat(encoder.encode("secret")).isEqualTo("{hashed}secret");
+        assertThat(encoder.matches("secret", "{hashed}secret")).isTrue();
+        assertThat(encoder.matches("other", "{hashed}secret")).isFalse();
+    }
+
+    @Test
+    void testRejectsWhenSaturated() throws Exception {
+        encoder = new BoundedPasswordEncoder(
+            new BlockingPasswordEncoder(true),
+            1,
+            0,
+            Duration.ofSeconds(5),
+            Duration.ofSeconds(7),
+            new SimpleMeterRegistry()
+        );
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> encoder.matches("secret", "{hashed}secret"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> encoder.matches("secret", "{hashed}secret")).isInstanceOfSatisfying(
+            LoginCapacityExceededException.class,
+            e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(7))
+        );
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testRejectsWhenQueueTimeoutElapses() throws Exception {
+        encoder = new BoundedPasswordEncoder(
+            new BlockingPasswordEncoder(true),
+            1,
+            1,
+            Duration.ofMillis(50),
+            Duration.ofSeconds(5),
+            new SimpleMeterRegistry()
+        );
+
+        assertThatThrownBy(() -> encoder.matches("secret", "{hashed}secret")).isInstanceOf(LoginCapacityExceededException.class);
+    }
+
+    @Test
+    void testPropagatesDelegateExceptions() {
+        PasswordEncoder failing = new BlockingPasswordEncoder(false) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                throw new IllegalArgumentException("Encoded password does not look like BCrypt");
+            }
+        };
+        encoder = new BoundedPasswordEncoder(failing, 1, 1, Duration.ofSeconds(5), Duration.ofSeconds(5), new SimpleMeterRegistry());
+
+        assertThatThrownBy(() -> encoder.matches("secret", "plain")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private class BlockingPasswordEncoder implements PasswordEncoder {
+
+        private final boolean block;
+
+        BlockingPasswordEncoder(boolean block) {
+            this.block = block;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "{hashed}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            if (block) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package rocks.zipcode.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+/**
+ * Test class for the {@link CachingJwtDecoder}.
+ */
+class CachingJwtDecoderUnitTest {
+
+    private static final Instant NOW = Instant.parse("2024-05-01T12:00:00Z");
+
+    private JwtDecoder delegate;
+
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setup() {
+        delegate = mock(JwtDecoder.class);
+        decoder = new CachingJwtDecoder(delegate, 2, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void testVerifiedTokenIsDecodedOnlyOnce() {
+        Jwt jwt = jwt("token", NOW.plusSeconds(60));
+        when(delegate.decode("token")).thenReturn(jwt);
+
+        assertThat(decoder.decode("token")).isSameAs(jwt);
+        assertThat(decoder.decode("token")).isSameAs(jwt);
+
+        verify(delegate, times(1)).decode("token");
+    }
+
+    @Test
+    void testExpiredTokenIsNotServedFromCache() {
+        when(delegate.decode("token")).thenReturn(jwt("token", NOW));
+
+        decoder.decode("token");
+        decoder.decode("token");
+
+        verify(delegate, times(2)).decode("token");
+        assertThat(decoder.size()).isZero();
+    }
+
+    @Test
+    void testTokenWithoutExpiryIsNeverCached() {
+        when(delegate.decode("token")).thenReturn(jwt("token", null));
+
+        decoder.decode("token");
+        decoder.decode("token");
+
+        verify(delegate, times(2)).decode("token");
+    }
+
+    @Test
+    void testInvalidTokenIsAlwaysDelegated() {
+        when(delegate.decode(anyString())).thenThrow(new BadJwtException("Invalid signature"));
+
+        assertThatThrownBy(() -> decoder.decode("token")).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> decoder.decode("token")).isInstanceOf(BadJwtException.class);
+
+        verify(delegate, times(2)).decode("token");
+    }
+
+    @Test
+    void testCacheStaysBounded() {
+        for (String token : new String[] { "a", "b", "c", "d" }) {
+            when(delegate.decode(token)).thenReturn(jwt(token, NOW.plusSeconds(60)));
+            decoder.decode(token);
+        }
+
+        assertThat(decoder.size()).isLessThanOrEqualTo(2);
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        Jwt.Builder builder = Jwt.withTokenValue(token).header("alg", "HS512").subject("user").issuedAt(NOW.minusSeconds(1));
+        if (expiresAt != null) {
+            builder.expiresAt(expiresAt);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,121 @@
+package rocks.zipcode.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.annotation.Transactional;
+import rocks.zipcode.IntegrationTest;
+import rocks.zipcode.config.ApplicationProperties;
+import rocks.zipcode.config.Constants;
+import rocks.zipcode.domain.MailOutboxEntry;
+import rocks.zipcode.domain.User;
+import rocks.zipcode.domain.enumeration.MailOutboxStatus;
+import rocks.zipcode.repository.MailOutboxEntryRepository;
+
+/**
+ * Integration tests for {@link MailOutboxService} and {@link MailOutboxDispatcher}, against a local GreenMail SMTP server.
+ */
+@IntegrationTest
+@Transactional
+class MailOutboxDispatcherIT {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private MailOutboxService mailOutboxService;
+
+    @Autowired
+    private MailOutboxEntryRepository mailOutboxEntryRepository;
+
+    @Autowired
+    private MailService mailService;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        mailOutboxEntryRepository.deleteAll();
+    }
+
+    @Test
+    void testPendingEmailsAreSentInOneBatch() throws Exception {
+        mailOutboxService.enqueueActivationEmail(user("john"));
+        mailOutboxService.enqueuePasswordResetMail(user("jane"));
+
+        dispatcher(ServerSetupTest.SMTP.getPort()).dispatch();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(2);
+        assertThat(received[0].getAllRecipients()[0]).hasToString("john@example.com");
+        assertThat(received[0].getSubject()).isNotBlank();
+        assertThat(mailOutboxEntryRepository.findAll()).allSatisfy(entry -> {
+            assertThat(entry.getStatus()).isEqualTo(MailOutboxStatus.SENT);
+            assertThat(entry.getSentDate()).isNotNull();
+        });
+        assertThat(meterRegistry.get(MailOutboxDispatcher.SENT_METER_NAME).counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(MailOutboxDispatcher.BACKLOG_METER_NAME).gauge().value()).isZero();
+    }
+
+    @Test
+    void testFailedEmailsAreRetriedLater() {
+        mailOutboxService.enqueueActivationEmail(user("john"));
+
+        dispatcher(ServerSetupTest.SMTP.getPort() + 1).dispatch();
+
+        List<MailOutboxEntry> entries = mailOutboxEntryRepository.findAll();
+        assertThat(entries).singleElement().satisfies(entry -> {
+            assertThat(entry.getStatus()).isEqualTo(MailOutboxStatus.PENDING);
+            assertThat(entry.getAttempts()).isEqualTo(1);
+            assertThat(entry.getNextAttemptAt()).isAfter(Instant.now());
+            assertThat(entry.getLastError()).isNotBlank();
+        });
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+        assertThat(meterRegistry.get(MailOutboxDispatcher.FAILED_METER_NAME).tag("outcome", "retry").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(MailOutboxDispatcher.BACKLOG_METER_NAME).gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void testBackoffGrowsUntilMaxAttempts() {
+        MailOutboxDispatcher dispatcher = dispatcher(ServerSetupTest.SMTP.getPort());
+        ApplicationProperties.MailOutbox properties = applicationProperties.getMailOutbox();
+
+        assertThat(dispatcher.backoff(1)).isEqualTo(properties.getInitialBackoff());
+        assertThat(dispatcher.backoff(2)).isEqualTo(properties.getInitialBackoff().multipliedBy(2));
+        assertThat(dispatcher.backoff(properties.getMaxAttempts() - 1)).isLessThanOrEqualTo(properties.getMaxBackoff());
+        assertThat(dispatcher.backoff(properties.getMaxAttempts())).isNull();
+    }
+
+    private MailOutboxDispatcher dispatcher(int port) {
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(port);
+        javaMailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "1000");
+        return new MailOutboxDispatcher(mailOutboxService, mailService, javaMailSender, applicationProperties, meterRegistry);
+    }
+
+    private static User user(String login) {
+        User user = new User();
+        user.setLogin(login);
+        user.setEmail(login + "@example.com");
+        user.setLangKey(Constants.DEFAULT_LANGUAGE);
+        user.setActivationKey("activation-key");
+        user.setResetKey("reset-key");
+        return user;
+    }
+}
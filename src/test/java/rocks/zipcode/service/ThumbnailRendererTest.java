@@ -0,0 +1,72 @@
+package rocks.zipcode.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+
+class ThumbnailRendererTest {
+
+    private final ThumbnailRenderer renderer = new ThumbnailRenderer(40_000_000L, 0.8f);
+
+    @Test
+    void imageIsScaledToFitEachBox() throws IOException {
+        List<byte[]> renderings = renderer.render(png(3000, 1500), 200, 1024);
+
+        assertThat(renderings).hasSize(2);
+        assertThat(read(renderings.get(0))).satisfies(thumbnail -> {
+            assertThat(thumbnail.getWidth()).isEqualTo(200);
+            assertThat(thumbnail.getHeight()).isEqualTo(100);
+        });
+        assertThat(read(renderings.get(1))).satisfies(preview -> {
+            assertThat(preview.getWidth()).isEqualTo(1024);
+            assertThat(preview.getHeight()).isEqualTo(512);
+        });
+    }
+
+    @Test
+    void smallImageIsNotEnlarged() throws IOException {
+        BufferedImage thumbnail = read(renderer.render(png(120, 80), 200).get(0));
+
+        assertThat(thumbnail.getWidth()).isEqualTo(120);
+        assertThat(thumbnail.getHeight()).isEqualTo(80);
+    }
+
+    @Test
+    void transparentAreasAreRenderedOnWhite() throws IOException {
+        BufferedImage thumbnail = read(renderer.render(png(400, 400), 200).get(0));
+
+        assertThat(thumbnail.getRGB(100, 100) & 0xffffff).isGreaterThan(0xf0f0f0);
+    }
+
+    @Test
+    void imageWithTooManyPixelsIsRefused() throws IOException {
+        ThumbnailRenderer small = new ThumbnailRenderer(1_000L, 0.8f);
+
+        assertThatThrownBy(() -> small.render(png(100, 100), 200)).isInstanceOf(IOException.class).hasMessageContaining("100x100");
+    }
+
+    @Test
+    void otherContentIsRefused() {
+        assertThatThrownBy(() -> renderer.render(new ByteArrayInputStream(new byte[] { 1, 2, 3 }), 200)).isInstanceOf(IOException.class);
+        assertThat(ThumbnailRenderer.isSupported("image/png")).isTrue();
+        assertThat(ThumbnailRenderer.isSupported("text/plain")).isFalse();
+        assertThat(ThumbnailRenderer.isSupported(null)).isFalse();
+    }
+
+    private static ByteArrayInputStream png(int width, int height) throws IOException {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", png);
+        return new ByteArrayInputStream(png.toByteArray());
+    }
+
+    private static BufferedImage read(byte[] jpeg) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(jpeg));
+    }
+}
@@ -3,22 +3,29 @@ package rocks.zipcode.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.auditing.AuditingHandler;
 import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.transaction.annotation.Transactional;
 import rocks.zipcode.IntegrationTest;
+import rocks.zipcode.config.ApplicationProperties;
 import rocks.zipcode.domain.User;
 import rocks.zipcode.repository.UserRepository;
+import rocks.zipcode.service.job.JobShard;
 import tech.jhipster.security.RandomUtil;
 
 /**
@@ -49,6 +56,15 @@ class UserServiceIT {
     @Autowired
     private AuditingHandler auditingHandler;
 
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @MockBean
     private DateTimeProvider dateTimeProvider;
 
@@ -178,4 +194,45 @@ class UserServiceIT {
         Optional<User> maybeDbUser = userRepository.findById(dbUser.getId());
         assertThat(maybeDbUser).contains(dbUser);
     }
+
+    @Test
+    @Transactional
+    void assertThatNotActivatedUsersAreDeletedInChunks() {
+        int chunkSize = applicationProperties.getUserCleanup().getChunkSize();
+        applicationProperties.getUserCleanup().setChunkSize(2);
+        try {
+            Instant now = Instant.now();
+            when(dateTimeProvider.getNow()).thenReturn(Optional.of(now.minus(4, ChronoUnit.DAYS)));
+            List<User> notActivatedUsers = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                User notActivatedUser = new User();
+                notActivatedUser.setLogin("not-activated-" + i);
+                notActivatedUser.setPassword(RandomStringUtils.randomAlphanumeric(60));
+                notActivatedUser.setActivated(false);
+                notActivatedUser.setActivationKey(RandomStringUtils.randomAlphanumeric(20));
+                notActivatedUser.setEmail("not-activated-" + i + "@localhost");
+                notActivatedUser.setLangKey(DEFAULT_LANGKEY);
+                notActivatedUsers.add(userRepository.saveAndFlush(notActivatedUser));
+            }
+            Cache usersByLogin = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE));
+            Cache usersByEmail = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE));
+            notActivatedUsers.forEach(notActivatedUser -> {
+                usersByLogin.put(notActivatedUser.getLogin(), notActivatedUser);
+                usersByEmail.put(notActivatedUser.getEmail(), notActivatedUser);
+            });
+            double deletedBefore = meterRegistry.get("users.not-activated.deleted").counter().count();
+
+            long deleted = userService.removeNotActivatedUsers(JobShard.SINGLE);
+
+            assertThat(deleted).isEqualTo(5);
+            assertThat(userRepository.findAllById(notActivatedUsers.stream().map(User::getId).toList())).isEmpty();
+            notActivatedUsers.forEach(notActivatedUser -> {
+                assertThat(usersByLogin.get(notActivatedUser.getLogin())).isNull();
+                assertThat(usersByEmail.get(notActivatedUser.getEmail())).isNull();
+            });
+            assertThat(meterRegistry.get("users.not-activated.deleted").counter().count()).isEqualTo(deletedBefore + 5);
+        } finally {
+            applicationProperties.getUserCleanup().setChunkSize(chunkSize);
+        }
+    }
 }
@@ -0,0 +1,106 @@
+package rocks.zipcode.service.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.CronTrigger;
+import rocks.zipcode.IntegrationTest;
+import rocks.zipcode.domain.enumeration.JobRunStatus;
+import rocks.zipcode.repository.JobLeaseRepository;
+import rocks.zipcode.repository.JobRunRepository;
+
+/**
+ * Integration tests for {@link ClusteredJobRunner}.
+ */
+@IntegrationTest
+class ClusteredJobRunnerIT {
+
+    @Autowired
+    private ClusteredJobRunner clusteredJobRunner;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Autowired
+    private JobRunRepository jobRunRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    public void cleanup() {
+        jobRunRepository.deleteAll();
+        jobLeaseRepository.deleteAll();
+    }
+
+    @Test
+    void testJobRunsOnceWhileItsLeaseIsHeld() {
+        CountingJob job = new CountingJob("test-job", 1);
+
+        assertThat(clusteredJobRunner.run(job)).isEqualTo(1);
+        assertThat(clusteredJobRunner.run(job)).isZero();
+
+        assertThat(job.executions).hasValue(1);
+        assertThat(jobRunRepository.findTop20ByJobNameOrderByStartedAtDesc("test-job")).singleElement().satisfies(run -> {
+            assertThat(run.getStatus()).isEqualTo(JobRunStatus.SUCCEEDED);
+            assertThat(run.getRowsProcessed()).isEqualTo(7);
+        });
+        assertThat(meterRegistry.get(ClusteredJobRunner.ROWS_METER_NAME).tag("job", "test-job").counter().count()).isEqualTo(7);
+    }
+
+    @Test
+    void testLeaseHeldByAnotherNodeIsRespected() {
+        CountingJob job = new CountingJob("test-sharded-job", 3);
+        JobShard busyShard = new JobShard(1, 3);
+        jobLeaseService.createIfMissing(busyShard.leaseKey(job.getName()));
+        assertThat(jobLeaseService.tryAcquire(busyShard.leaseKey(job.getName()), "other-node", Instant.now(), Duration.ofMinutes(5))).isTrue();
+
+        assertThat(clusteredJobRunner.run(job)).isEqualTo(2);
+        assertThat(job.executions).hasValue(2);
+    }
+
+    private static class CountingJob implements ClusteredJob {
+
+        private final String name;
+
+        private final int shardCount;
+
+        private final AtomicInteger executions = new AtomicInteger();
+
+        CountingJob(String name, int shardCount) {
+            this.name = name;
+            this.shardCount = shardCount;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Trigger getTrigger() {
+            return new CronTrigger("0 0 0 1 1 ?");
+        }
+
+        @Override
+        public int getShardCount() {
+            return shardCount;
+        }
+
+        @Override
+        public long execute(JobShard shard) {
+            executions.incrementAndGet();
+            return 7;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package rocks.zipcode.service.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class JobShardTest {
+
+    @Test
+    void testShardsCoverTheWholeRangeWithoutOverlap() {
+        int count = 3;
+        long expectedLower = 1;
+        for (int index = 0; index < count; index++) {
+            JobShard shard = new JobShard(index, count);
+            assertThat(shard.lowerBound(1, 10)).isEqualTo(expectedLower);
+            expectedLower = shard.upperBound(1, 10);
+        }
+        assertThat(expectedLower).isEqualTo(11);
+        assertThat(new JobShard(0, 3).upperBound(1, 10)).isEqualTo(5);
+    }
+
+    @Test
+    void testSingleShardCoversEverything() {
+        assertThat(JobShard.SINGLE.lowerBound(1, 42)).isEqualTo(1);
+        assertThat(JobShard.SINGLE.upperBound(1, 42)).isEqualTo(43);
+        assertThat(JobShard.SINGLE.leaseKey("job")).isEqualTo("job");
+        assertThat(new JobShard(1, 4).leaseKey("job")).isEqualTo("job#1/4");
+    }
+
+    @Test
+    void testInvalidShardIsRejected() {
+        assertThatThrownBy(() -> new JobShard(2, 2)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new JobShard(0, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,101 @@
+package rocks.zipcode.service.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import rocks.zipcode.config.ApplicationProperties;
+import rocks.zipcode.repository.MessagePartitionRepository;
+import rocks.zipcode.repository.MessagePartitionRepository.MessagePartition;
+
+class MessagePartitionRotationJobTest {
+
+    private MessagePartitionRepository messagePartitionRepository;
+
+    private ApplicationProperties applicationProperties;
+
+    private MessagePartitionRotationJob job;
+
+    @BeforeEach
+    void setUp() {
+        messagePartitionRepository = mock(MessagePartitionRepository.class);
+        applicationProperties = new ApplicationProperties();
+        job = new MessagePartitionRotationJob(messagePartitionRepository, applicationProperties);
+    }
+
+    @Test
+    void testFutureMonthsAreCreatedInOrder() {
+        when(messagePartitionRepository.findMonthlyPartitions()).thenReturn(List.of(partition(2026, 10)));
+
+        assertThat(job.rotate(YearMonth.of(2026, 10))).isEqualTo(3);
+
+        InOrder inOrder = inOrder(messagePartitionRepository);
+        inOrder.verify(messagePartitionRepository).addPartition("p202611", LocalDate.of(2026, 12, 1));
+        inOrder.verify(messagePartitionRepository).addPartition("p202612", LocalDate.of(2027, 1, 1));
+        inOrder.verify(messagePartitionRepository).addPartition("p202701", LocalDate.of(2027, 2, 1));
+        verify(messagePartitionRepository, never()).dropPartition(anyString());
+    }
+
+    @Test
+    void testNothingToDoWhenPartitionsAreAhead() {
+        when(messagePartitionRepository.findMonthlyPartitions()).thenReturn(
+            List.of(partition(2026, 10), partition(2026, 11), partition(2026, 12), partition(2027, 1))
+        );
+
+        assertThat(job.rotate(YearMonth.of(2026, 10))).isZero();
+
+        verify(messagePartitionRepository, never()).addPartition(anyString(), any());
+    }
+
+    @Test
+    void testExpiredMonthsAreDropped() {
+        applicationProperties.getMessagePartitions().setRetentionMonths(2);
+        when(messagePartitionRepository.findMonthlyPartitions()).thenReturn(
+            List.of(partition(2026, 7), partition(2026, 8), partition(2026, 9), partition(2027, 1))
+        );
+
+        assertThat(job.rotate(YearMonth.of(2026, 10))).isEqualTo(1);
+
+        verify(messagePartitionRepository).dropPartition("p202607");
+        verify(messagePartitionRepository, never()).dropPartition("p202608");
+    }
+
+    @Test
+    void testExpiredMonthsAreArchived() {
+        applicationProperties.getMessagePartitions().setRetentionMonths(1);
+        applicationProperties.getMessagePartitions().setExpiredAction(ApplicationProperties.MessagePartitions.ExpiredAction.ARCHIVE);
+        when(messagePartitionRepository.findMonthlyPartitions()).thenReturn(List.of(partition(2026, 8), partition(2027, 1)));
+
+        job.rotate(YearMonth.of(2026, 10));
+
+        verify(messagePartitionRepository).archivePartition("p202608");
+        verify(messagePartitionRepository, never()).dropPartition(anyString());
+    }
+
+    @Test
+    void testUnpartitionedTableIsLeftAlone() {
+        applicationProperties.getMessagePartitions().setRetentionMonths(1);
+        when(messagePartitionRepository.findMonthlyPartitions()).thenReturn(List.of());
+
+        assertThat(job.rotate(YearMonth.of(2026, 10))).isZero();
+
+        verify(messagePartitionRepository, never()).addPartition(anyString(), any());
+        verify(messagePartitionRepository, never()).dropPartition(anyString());
+    }
+
+    private static MessagePartition partition(int year, int month) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        return new MessagePartition(String.format("p%04d%02d", year, month), yearMonth.plusMonths(1).atDay(1));
+    }
+}
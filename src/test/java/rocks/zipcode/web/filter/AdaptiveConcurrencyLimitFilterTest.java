@@ -0,0 +1,125 @@
+package rocks.zipcode.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import rocks.zipcode.web.filter.AdaptiveConcurrencyLimitFilter.Priority;
+
+class AdaptiveConcurrencyLimitFilterTest {
+
+    private MeterRegistry meterRegistry;
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    private AdaptiveConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter(4, 2, 8, Duration.ofMillis(100), 0.5, Duration.ofMinutes(1));
+        filter = new AdaptiveConcurrencyLimitFilter(limiter, Duration.ofSeconds(3), meterRegistry);
+    }
+
+    @Test
+    void testRequestsArePrioritized() {
+        assertThat(AdaptiveConcurrencyLimitFilter.priorityOf(request("POST", "/api/authenticate"))).isEqualTo(Priority.CRITICAL);
+        assertThat(AdaptiveConcurrencyLimitFilter.priorityOf(request("POST", "/api/messages"))).isEqualTo(Priority.HIGH);
+        assertThat(AdaptiveConcurrencyLimitFilter.priorityOf(request("GET", "/api/messages/1"))).isEqualTo(Priority.NORMAL);
+        assertThat(AdaptiveConcurrencyLimitFilter.priorityOf(request("GET", "/api/workspaces"))).isEqualTo(Priority.LOW);
+        assertThat(AdaptiveConcurrencyLimitFilter.priorityOf(request("GET", "/api/workspaces/1"))).isEqualTo(Priority.NORMAL);
+    }
+
+    @Test
+    void testLowPriorityRequestsAreShedFirst() throws Exception {
+        assertThat(limiter.tryAcquire(1.0)).isTrue();
+        assertThat(limiter.tryAcquire(1.0)).isTrue();
+
+        MockHttpServletResponse listing = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/users"), listing, new MockFilterChain());
+        assertThat(listing.getStatus()).isEqualTo(503);
+        assertThat(listing.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+
+        MockHttpServletResponse login = new MockHttpServletResponse();
+        filter.doFilter(request("POST", "/api/authenticate"), login, new MockFilterChain());
+        assertThat(login.getStatus()).isEqualTo(200);
+
+        assertThat(meterRegistry.get(AdaptiveConcurrencyLimitFilter.REJECTED_METER_NAME).tag("priority", "low").counter().count())
+            .isEqualTo(1);
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void testNonApiRequestsAreNotLimited() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire(1.0);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/management/health"), response, new MockFilterChain());
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void testLimitAdaptsToLatency() {
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire(1.0);
+        }
+        limiter.release(Duration.ofMillis(10).toNanos(), false);
+        assertThat(limiter.getLimit()).isEqualTo(5);
+
+        limiter.release(Duration.ofMillis(500).toNanos(), false);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        limiter.release(Duration.ofMillis(10).toNanos(), true);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(meterRegistry.get(AdaptiveConcurrencyLimitFilter.LIMIT_METER_NAME).gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void testLimitIsDecreasedOncePerInterval() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 16, Duration.ofMillis(100), 0.5, Duration.ofMinutes(1));
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(1.0);
+        }
+        for (int i = 0; i < 3; i++) {
+            limiter.release(Duration.ofMillis(500).toNanos(), false);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void testTransfersDoNotAdjustTheLimit() throws Exception {
+        assertThat(AdaptiveConcurrencyLimitFilter.isTransfer(request("GET", "/api/attachments/1/content"))).isTrue();
+        assertThat(AdaptiveConcurrencyLimitFilter.isTransfer(request("PATCH", "/api/attachments/1/content"))).isTrue();
+        assertThat(AdaptiveConcurrencyLimitFilter.isTransfer(request("GET", "/api/admin/workspace-exports/1/archive"))).isTrue();
+        assertThat(AdaptiveConcurrencyLimitFilter.isTransfer(request("GET", "/api/messages"))).isTrue();
+        assertThat(AdaptiveConcurrencyLimitFilter.isTransfer(request("POST", "/api/messages"))).isFalse();
+        assertThat(AdaptiveConcurrencyLimitFilter.isTransfer(request("GET", "/api/attachments/1"))).isFalse();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/attachments/1/content"), response, (request, servletResponse) -> sleep(150));
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+}
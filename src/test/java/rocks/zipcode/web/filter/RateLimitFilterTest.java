@@ -0,0 +1,106 @@
+package rocks.zipcode.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+class RateLimitFilterTest {
+
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    private MeterRegistry meterRegistry;
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(
+            List.of(
+                new RateLimitFilter.Rule(
+                    "message-post",
+                    List.of("/api/messages"),
+                    Set.of("POST"),
+                    RateLimitFilter.KeyBy.USER,
+                    2,
+                    Duration.ofSeconds(10)
+                )
+            ),
+            100,
+            meterRegistry
+        );
+    }
+
+    @AfterEach
+    public void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testBucketAllowsBurstThenRefills() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, Duration.ofSeconds(10), 100);
+        long now = 0;
+
+        assertThat(limiter.tryAcquire("key", now)).isZero();
+        assertThat(limiter.tryAcquire("key", now)).isZero();
+        assertThat(limiter.tryAcquire("key", now)).isEqualTo(5 * SECOND);
+        assertThat(limiter.tryAcquire("other", now)).isZero();
+
+        assertThat(limiter.tryAcquire("key", now + 5 * SECOND)).isZero();
+        assertThat(limiter.tryAcquire("key", now + 5 * SECOND)).isPositive();
+    }
+
+    @Test
+    void testIdleBucketsAreEvictedWhenFull() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, Duration.ofSeconds(1), 2);
+        long now = System.nanoTime();
+
+        limiter.tryAcquire("a", now);
+        limiter.tryAcquire("b", now);
+        // the map is full and no bucket is idle yet: unknown keys are rejected without being tracked
+        assertThat(limiter.tryAcquire("c", now)).isEqualTo(SECOND);
+        assertThat(limiter.size()).isEqualTo(2);
+
+        assertThat(limiter.tryAcquire("c", now + 2 * SECOND)).isZero();
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testRequestsOverTheLimitGet429() throws Exception {
+        SecurityContextHolder.getContext()
+            .setAuthentication(new UsernamePasswordAuthenticationToken("bot", "", List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        assertThat(post("/api/messages").getStatus()).isEqualTo(200);
+        assertThat(post("/api/messages").getStatus()).isEqualTo(200);
+        MockHttpServletResponse rejected = post("/api/messages");
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(Long.parseLong(rejected.getHeader(HttpHeaders.RETRY_AFTER))).isBetween(1L, 5L);
+        assertThat(post("/api/channels").getStatus()).isEqualTo(200);
+
+        SecurityContextHolder.getContext()
+            .setAuthentication(new UsernamePasswordAuthenticationToken("human", "", List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        assertThat(post("/api/messages").getStatus()).isEqualTo(200);
+
+        assertThat(meterRegistry.get(RateLimitFilter.REJECTED_METER_NAME).tag("group", "message-post").counter().count()).isEqualTo(1);
+    }
+
+    private MockHttpServletResponse post(String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", uri), response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,160 @@
+package rocks.zipcode.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import rocks.zipcode.web.filter.RequestCoalescingFilter.Scope;
+
+class RequestCoalescingFilterTest {
+
+    private static final int FOLLOWERS = 3;
+
+    private MeterRegistry meterRegistry;
+
+    private RequestCoalescingFilter filter;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private final CountDownLatch leaderEntered = new CountDownLatch(1);
+
+    private final CountDownLatch leaderReleased = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RequestCoalescingFilter(
+            List.of(new RequestCoalescingFilter.Route("channels", List.of("/api/channels/*"), Scope.AUTHORITIES)),
+            Duration.ofSeconds(5),
+            meterRegistry
+        );
+    }
+
+    @AfterEach
+    public void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testConcurrentIdenticalReadsShareOneExecution() throws Exception {
+        List<MockHttpServletResponse> responses = runConcurrently(HttpServletResponse.SC_OK);
+
+        assertThat(executions).hasValue(1);
+        assertThat(responses).allSatisfy(response -> {
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(response.getContentAsString()).isEqualTo("{\"id\":1}");
+            assertThat(response.getContentType()).startsWith(MediaType.APPLICATION_JSON_VALUE);
+            assertThat(response.getHeader("X-Test")).isEqualTo("leader");
+        });
+        assertThat(meterRegistry.get(RequestCoalescingFilter.REQUESTS_METER_NAME).tag("role", "leader").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(RequestCoalescingFilter.REQUESTS_METER_NAME).tag("role", "follower").counter().count())
+            .isEqualTo(FOLLOWERS);
+    }
+
+    @Test
+    void testFollowersRunThemselvesWhenTheLeaderFails() throws Exception {
+        List<MockHttpServletResponse> responses = runConcurrently(HttpServletResponse.SC_NOT_FOUND);
+
+        assertThat(executions).hasValue(1 + FOLLOWERS);
+        assertThat(responses).allSatisfy(response -> assertThat(response.getStatus()).isEqualTo(404));
+        assertThat(meterRegistry.get(RequestCoalescingFilter.REQUESTS_METER_NAME).tag("role", "fallback").counter().count())
+            .isEqualTo(FOLLOWERS);
+    }
+
+    @Test
+    void testKeyDependsOnQueryAndScope() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/channels/1");
+        request.setQueryString("page=1");
+        SecurityContextHolder.getContext()
+            .setAuthentication(new UsernamePasswordAuthenticationToken("john", "", List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        String john = RequestCoalescingFilter.keyOf(request, Scope.AUTHORITIES);
+        String johnOnly = RequestCoalescingFilter.keyOf(request, Scope.USER);
+
+        SecurityContextHolder.getContext()
+            .setAuthentication(new UsernamePasswordAuthenticationToken("jane", "", List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        assertThat(RequestCoalescingFilter.keyOf(request, Scope.AUTHORITIES)).isEqualTo(john);
+        assertThat(RequestCoalescingFilter.keyOf(request, Scope.USER)).isNotEqualTo(johnOnly);
+
+        SecurityContextHolder.getContext()
+            .setAuthentication(new UsernamePasswordAuthenticationToken("admin", "", List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        assertThat(RequestCoalescingFilter.keyOf(request, Scope.AUTHORITIES)).isNotEqualTo(john);
+
+        request.setQueryString("page=2");
+        SecurityContextHolder.getContext()
+            .setAuthentication(new UsernamePasswordAuthenticationToken("john", "", List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        assertThat(RequestCoalescingFilter.keyOf(request, Scope.AUTHORITIES)).isNotEqualTo(john);
+    }
+
+    private List<MockHttpServletResponse> runConcurrently(int status) throws Exception {
+        FilterChain chain = (request, response) -> {
+            executions.incrementAndGet();
+            leaderEntered.countDown();
+            try {
+                leaderReleased.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            httpResponse.setStatus(status);
+            httpResponse.setHeader("X-Test", "leader");
+            httpResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            httpResponse.getOutputStream().write("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+        };
+
+        List<MockHttpServletResponse> responses = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i <= FOLLOWERS; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            responses.add(response);
+            threads.add(
+                new Thread(() -> {
+                    try {
+                        filter.doFilter(new MockHttpServletRequest("GET", "/api/channels/1"), response, chain);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+            );
+        }
+
+        threads.get(0).start();
+        assertThat(leaderEntered.await(5, TimeUnit.SECONDS)).isTrue();
+        for (Thread follower : threads.subList(1, threads.size())) {
+            follower.start();
+        }
+        awaitWaiting(threads.subList(1, threads.size()));
+        leaderReleased.countDown();
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        return responses;
+    }
+
+    private static void awaitWaiting(List<Thread> threads) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            if (threads.stream().allMatch(thread -> thread.getState() == Thread.State.TIMED_WAITING)) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package rocks.zipcode.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+class ResourceAccountingFilterTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ResourceAccountingFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ResourceAccountingFilter(meterRegistry);
+    }
+
+    @Test
+    void testAllocationsAreAccountedPerEndpoint() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/messages");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/messages");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new AllocatingServlet()));
+
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled()) {
+            DistributionSummary allocated = meterRegistry
+                .get(ResourceAccountingFilter.ALLOCATED_METER_NAME)
+                .tag("method", "GET")
+                .tag("uri", "/api/messages")
+                .summary();
+            assertThat(allocated.count()).isEqualTo(1);
+            assertThat(allocated.totalAmount()).isGreaterThanOrEqualTo(AllocatingServlet.ALLOCATED);
+        }
+        if (threadMXBean.isCurrentThreadCpuTimeSupported() && threadMXBean.isThreadCpuTimeEnabled()) {
+            assertThat(meterRegistry.get(ResourceAccountingFilter.CPU_METER_NAME).tag("uri", "/api/messages").timer().count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void testAsyncRequestsAreNotAccounted() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/messages");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertThat(meterRegistry.find(ResourceAccountingFilter.ALLOCATED_METER_NAME).meters()).isEmpty();
+        assertThat(meterRegistry.find(ResourceAccountingFilter.CPU_METER_NAME).meters()).isEmpty();
+    }
+
+    private static class AllocatingServlet extends HttpServlet {
+
+        static final int ALLOCATED = 1024 * 1024;
+
+        private byte[] buffer;
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            buffer = new byte[ALLOCATED];
+            response.getWriter().print(buffer.length);
+        }
+    }
+}
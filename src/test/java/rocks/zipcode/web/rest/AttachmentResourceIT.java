@@ -0,0 +1,337 @@
+package rocks.zipcode.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.UUID;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import rocks.zipcode.IntegrationTest;
+import rocks.zipcode.config.ApplicationProperties;
+import rocks.zipcode.domain.Attachment;
+import rocks.zipcode.domain.enumeration.AttachmentStatus;
+import rocks.zipcode.domain.enumeration.PreviewStatus;
+import rocks.zipcode.repository.AttachmentRepository;
+import rocks.zipcode.repository.ContentBlobRepository;
+import rocks.zipcode.service.AttachmentService;
+import rocks.zipcode.service.ContentBlobService;
+import rocks.zipcode.service.job.ContentBlobCollectionJob;
+
+/**
+ * Integration tests for the {@link AttachmentResource} REST controller.
+ * <p>
+ * Not transactional: the chunks are stored outside of any transaction.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class AttachmentResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/attachments";
+    private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+    private static final String CONTENT_API_URL = ENTITY_API_URL_ID + "/content";
+
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+
+    @Autowired
+    private AttachmentService attachmentService;
+
+    @Autowired
+    private ContentBlobRepository contentBlobRepository;
+
+    @Autowired
+    private ContentBlobCollectionJob contentBlobCollectionJob;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private MockMvc restAttachmentMockMvc;
+
+    @AfterEach
+    public void cleanup() {
+        attachmentRepository.findAll().forEach(attachment -> attachmentService.delete(attachment.getId()));
+        contentBlobCollectionJob.collect(Instant.now().plusSeconds(1));
+    }
+
+    @Test
+    void uploadIsResumedFromTheStoredOffset() throws Exception {
+        long id = createAttachment(CONTENT.length, 42L);
+
+        uploadChunk(id, 0, Arrays.copyOfRange(CONTENT, 0, 4))
+            .andExpect(status().isOk())
+            .andExpect(header().string(AttachmentResource.UPLOAD_OFFSET, "4"))
+            .andExpect(jsonPath("$.status").value(AttachmentStatus.UPLOADING.toString()));
+        restAttachmentMockMvc
+            .perform(head(CONTENT_API_URL, id))
+            .andExpect(status().isOk())
+            .andExpect(header().string(AttachmentResource.UPLOAD_OFFSET, "4"))
+            .andExpect(header().string(AttachmentResource.UPLOAD_LENGTH, "10"));
+        // a retried chunk that was already stored
+        uploadChunk(id, 0, Arrays.copyOfRange(CONTENT, 0, 4))
+            .andExpect(status().isConflict())
+            .andExpect(header().string(AttachmentResource.UPLOAD_OFFSET, "4"));
+        restAttachmentMockMvc.perform(get(CONTENT_API_URL, id)).andExpect(status().isConflict());
+
+        uploadChunk(id, 4, Arrays.copyOfRange(CONTENT, 4, CONTENT.length))
+            .andExpect(status().isOk())
+            .andExpect(header().string(AttachmentResource.UPLOAD_OFFSET, "10"))
+            .andExpect(jsonPath("$.status").value(AttachmentStatus.COMPLETE.toString()));
+
+        byte[] downloaded = restAttachmentMockMvc
+            .perform(get(CONTENT_API_URL, id))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN))
+            .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "10"))
+            .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + id + "\""))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+        assertThat(downloaded).isEqualTo(CONTENT);
+        restAttachmentMockMvc
+            .perform(get(ENTITY_API_URL + "?messageId=42"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem((int) id)));
+    }
+
+    @Test
+    void rangesAreServed() throws Exception {
+        long id = createAttachment(CONTENT.length, null);
+        uploadChunk(id, 0, CONTENT).andExpect(status().isOk());
+
+        restAttachmentMockMvc
+            .perform(get(CONTENT_API_URL, id).header(HttpHeaders.RANGE, "bytes=2-5"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+            .andExpect(content().bytes("2345".getBytes(StandardCharsets.US_ASCII)));
+        restAttachmentMockMvc
+            .perform(get(CONTENT_API_URL, id).header(HttpHeaders.RANGE, "bytes=-3"))
+            .andExpect(status().isPartialContent())
+            .andExpect(content().bytes("789".getBytes(StandardCharsets.US_ASCII)));
+        restAttachmentMockMvc
+            .perform(get(CONTENT_API_URL, id).header(HttpHeaders.RANGE, "bytes=20-"))
+            .andExpect(status().isRequestedRangeNotSatisfiable())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+        restAttachmentMockMvc
+            .perform(get(CONTENT_API_URL, id).header(HttpHeaders.RANGE, "bytes=2-5").header(HttpHeaders.IF_RANGE, "\"other\""))
+            .andExpect(status().isOk())
+            .andExpect(content().bytes(CONTENT));
+        restAttachmentMockMvc
+            .perform(get(CONTENT_API_URL, id).header(HttpHeaders.IF_NONE_MATCH, "\"" + id + "\""))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void imagesGetAThumbnailAndAPreview() throws Exception {
+        BufferedImage image = new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_ARGB);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+        long id = createAttachment("photo.png", MediaType.IMAGE_PNG_VALUE, png.size(), null);
+
+        uploadChunk(id, 0, png.toByteArray())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.previewStatus").value(PreviewStatus.PENDING.toString()))
+            .andExpect(jsonPath("$.thumbnailUrl").value(Attachment.PREVIEW_PLACEHOLDER_URL));
+        restAttachmentMockMvc.perform(get(ENTITY_API_URL + "/{id}/thumbnail", id)).andExpect(status().isNotFound());
+
+        for (int i = 0; i < 100 && attachmentRepository.findById(id).orElseThrow().getPreviewStatus() == PreviewStatus.PENDING; i++) {
+            Thread.sleep(100);
+        }
+        restAttachmentMockMvc
+            .perform(get(ENTITY_API_URL_ID, id))
+            .andExpect(jsonPath("$.previewStatus").value(PreviewStatus.READY.toString()))
+            .andExpect(jsonPath("$.thumbnailUrl").value(ENTITY_API_URL + "/" + id + "/thumbnail"));
+        byte[] thumbnail = restAttachmentMockMvc
+            .perform(get(ENTITY_API_URL + "/{id}/thumbnail", id))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+        assertThat(ImageIO.read(new ByteArrayInputStream(thumbnail))).satisfies(rendered -> {
+            assertThat(rendered.getWidth()).isEqualTo(200);
+            assertThat(rendered.getHeight()).isEqualTo(100);
+        });
+        restAttachmentMockMvc.perform(get(ENTITY_API_URL + "/{id}/preview", id)).andExpect(status().isOk());
+    }
+
+    @Test
+    void otherContentsHaveNoPreview() throws Exception {
+        long id = createAttachment(CONTENT.length, null);
+
+        uploadChunk(id, 0, CONTENT)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.previewStatus").value(PreviewStatus.NONE.toString()))
+            .andExpect(jsonPath("$.thumbnailUrl").doesNotExist());
+        restAttachmentMockMvc.perform(get(ENTITY_API_URL + "/{id}/preview", id)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void duplicateUploadsShareOneBlob() throws Exception {
+        byte[] content = UUID.randomUUID().toString().getBytes(StandardCharsets.US_ASCII);
+        long first = createAttachment(content.length, null);
+        uploadChunk(first, 0, Arrays.copyOfRange(content, 0, 10)).andExpect(status().isOk());
+        uploadChunk(first, 10, Arrays.copyOfRange(content, 10, content.length)).andExpect(status().isOk());
+        long second = createAttachment(content.length, null);
+        uploadChunk(second, 0, content).andExpect(status().isOk());
+
+        String hash = attachmentRepository.findById(first).orElseThrow().getContentHash();
+        assertThat(hash).hasSize(64);
+        assertThat(attachmentRepository.findById(second).orElseThrow().getContentHash()).isEqualTo(hash);
+        assertThat(contentBlobRepository.findById(hash)).hasValueSatisfying(blob -> assertThat(blob.getRefCount()).isEqualTo(2));
+        Path directory = Path.of(applicationProperties.getAttachments().getDirectory());
+        assertThat(directory.resolve(ContentBlobService.key(hash))).hasBinaryContent(content);
+        assertThat(directory.resolve("attachments/" + first)).doesNotExist();
+        assertThat(directory.resolve("attachments/" + second)).doesNotExist();
+        restAttachmentMockMvc.perform(get(CONTENT_API_URL, second)).andExpect(status().isOk()).andExpect(content().bytes(content));
+
+        attachmentRepository.findAll().forEach(attachment -> attachmentService.delete(attachment.getId()));
+        assertThat(contentBlobCollectionJob.collect(Instant.now().plusSeconds(1))).isPositive();
+        assertThat(contentBlobRepository.findById(hash)).isEmpty();
+        assertThat(directory.resolve(ContentBlobService.key(hash))).doesNotExist();
+    }
+
+    @Test
+    void declaredHashDoesNotGiveAccessToAStoredContent() throws Exception {
+        byte[] content = UUID.randomUUID().toString().getBytes(StandardCharsets.US_ASCII);
+        long stored = createAttachment(content.length, null);
+        uploadChunk(stored, 0, content).andExpect(status().isOk());
+        String hash = attachmentRepository.findById(stored).orElseThrow().getContentHash();
+
+        String json = declareAttachment(hash, content.length)
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.status").value(AttachmentStatus.UPLOADING.toString()))
+            .andExpect(jsonPath("$.contentHash").doesNotExist())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        long declared = om.readValue(json, Attachment.class).getId();
+        restAttachmentMockMvc.perform(get(CONTENT_API_URL, declared)).andExpect(status().isConflict());
+        assertThat(contentBlobRepository.findById(hash)).hasValueSatisfying(blob -> assertThat(blob.getRefCount()).isEqualTo(1));
+
+        // the content still has to be uploaded, and is then stored once
+        uploadChunk(declared, 0, content).andExpect(status().isOk()).andExpect(jsonPath("$.contentHash").value(hash));
+        assertThat(contentBlobRepository.findById(hash)).hasValueSatisfying(blob -> assertThat(blob.getRefCount()).isEqualTo(2));
+    }
+
+    @Test
+    void declaredHashIsReusedWhenEnabled() throws Exception {
+        byte[] content = UUID.randomUUID().toString().getBytes(StandardCharsets.US_ASCII);
+        long stored = createAttachment(content.length, null);
+        uploadChunk(stored, 0, content).andExpect(status().isOk());
+        String hash = attachmentRepository.findById(stored).orElseThrow().getContentHash();
+
+        applicationProperties.getAttachments().setReuseDeclaredHash(true);
+        try {
+            declareAttachment(hash, content.length)
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value(AttachmentStatus.COMPLETE.toString()))
+                .andExpect(jsonPath("$.contentHash").value(hash));
+        } finally {
+            applicationProperties.getAttachments().setReuseDeclaredHash(false);
+        }
+        assertThat(contentBlobRepository.findById(hash)).hasValueSatisfying(blob -> assertThat(blob.getRefCount()).isEqualTo(2));
+    }
+
+    @Test
+    void unknownDeclaredHashIsUploaded() throws Exception {
+        applicationProperties.getAttachments().setReuseDeclaredHash(true);
+        try {
+            declareAttachment("0".repeat(64), CONTENT.length)
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value(AttachmentStatus.UPLOADING.toString()))
+                .andExpect(jsonPath("$.contentHash").doesNotExist());
+        } finally {
+            applicationProperties.getAttachments().setReuseDeclaredHash(false);
+        }
+    }
+
+    @Test
+    void chunkPastTheDeclaredLengthIsRejected() throws Exception {
+        long id = createAttachment(4, null);
+
+        uploadChunk(id, 0, CONTENT).andExpect(status().isBadRequest());
+
+        assertThat(attachmentRepository.findById(id)).hasValueSatisfying(attachment -> assertThat(attachment.getReceived()).isZero());
+    }
+
+    @Test
+    void tooLargeAttachmentIsRejected() throws Exception {
+        Attachment attachment = new Attachment().filename("huge.bin").contentType("application/octet-stream").contentLength(1L << 40);
+
+        restAttachmentMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(attachment)))
+            .andExpect(status().isBadRequest());
+    }
+
+    private long createAttachment(long contentLength, Long messageId) throws Exception {
+        return createAttachment("notes.txt", MediaType.TEXT_PLAIN_VALUE, contentLength, messageId);
+    }
+
+    private long createAttachment(String filename, String contentType, long contentLength, Long messageId) throws Exception {
+        Attachment attachment = new Attachment()
+            .filename(filename)
+            .contentType(contentType)
+            .contentLength(contentLength)
+            .messageId(messageId);
+        Attachment created = om.readValue(
+            restAttachmentMockMvc
+                .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(attachment)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            Attachment.class
+        );
+        return created.getId();
+    }
+
+    private ResultActions declareAttachment(String contentHash, long contentLength) throws Exception {
+        Attachment attachment = new Attachment()
+            .filename("copy.txt")
+            .contentType(MediaType.TEXT_PLAIN_VALUE)
+            .contentLength(contentLength);
+        attachment.setContentHash(contentHash);
+        return restAttachmentMockMvc.perform(
+            post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(attachment))
+        );
+    }
+
+    private ResultActions uploadChunk(long id, long offset, byte[] chunk) throws Exception {
+        return restAttachmentMockMvc.perform(
+            patch(CONTENT_API_URL, id)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(AttachmentResource.UPLOAD_OFFSET, offset)
+                .content(chunk)
+        );
+    }
+}
@@ -5,6 +5,7 @@ import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static rocks.zipcode.domain.ChannelAsserts.*;
+import static rocks.zipcode.web.rest.StatementCountMatchers.statementsAtMost;
 import static rocks.zipcode.web.rest.TestUtil.createUpdateProxyForBean;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -21,6 +22,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import rocks.zipcode.IntegrationTest;
 import rocks.zipcode.domain.Channel;
+import rocks.zipcode.domain.Message;
 import rocks.zipcode.repository.ChannelRepository;
 
 /**
@@ -121,6 +123,21 @@ class ChannelResourceIT {
         assertSameRepositoryCount(databaseSizeBeforeCreate);
     }
 
+    @Test
+    @Transactional
+    void createChannelWithUnknownMessage() throws Exception {
+        channel.setMessages(new Message().id(Long.MAX_VALUE));
+
+        long databaseSizeBeforeCreate = getRepositoryCount();
+
+        // there is no foreign key to the message table, the reference is checked against the message store
+        restChannelMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(channel)))
+            .andExpect(status().isBadRequest());
+
+        assertSameRepositoryCount(databaseSizeBeforeCreate);
+    }
+
     @Test
     @Transactional
     void checkNameIsRequired() throws Exception {
@@ -147,6 +164,7 @@ class ChannelResourceIT {
         restChannelMockMvc
             .perform(get(ENTITY_API_URL + "?sort=id,desc"))
             .andExpect(status().isOk())
+            .andExpect(statementsAtMost(2))
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(channel.getId().intValue())))
             .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
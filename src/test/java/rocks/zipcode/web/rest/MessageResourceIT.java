@@ -2,13 +2,16 @@ package rocks.zipcode.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static rocks.zipcode.domain.MessageAsserts.*;
+import static rocks.zipcode.web.rest.StatementCountMatchers.statementsAtMost;
 import static rocks.zipcode.web.rest.TestUtil.createUpdateProxyForBean;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
+import java.time.Instant;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,7 +23,9 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import rocks.zipcode.IntegrationTest;
+import rocks.zipcode.domain.Attachment;
 import rocks.zipcode.domain.Message;
+import rocks.zipcode.domain.enumeration.PreviewStatus;
 import rocks.zipcode.repository.MessageRepository;
 
 /**
@@ -134,6 +139,7 @@ class MessageResourceIT {
         restMessageMockMvc
             .perform(get(ENTITY_API_URL + "?sort=id,desc"))
             .andExpect(status().isOk())
+            .andExpect(statementsAtMost(2))
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(message.getId().intValue())))
             .andExpect(jsonPath("$.[*].uploads").value(hasItem(DEFAULT_UPLOADS)))
@@ -141,6 +147,23 @@ class MessageResourceIT {
             .andExpect(jsonPath("$.[*].timestamp").value(hasItem(DEFAULT_TIMESTAMP)));
     }
 
+    @Test
+    @Transactional
+    void getAllMessagesCreatedBetween() throws Exception {
+        // Initialize the database
+        messageRepository.saveAndFlush(message.createdDate(Instant.parse("2026-10-15T10:00:00Z")));
+
+        restMessageMockMvc
+            .perform(get(ENTITY_API_URL + "?from=2026-10-01T00:00:00Z&to=2026-11-01T00:00:00Z"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(message.getId().intValue())));
+        restMessageMockMvc
+            .perform(get(ENTITY_API_URL + "?from=2026-11-01T00:00:00Z&to=2026-12-01T00:00:00Z"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(message.getId().intValue()))));
+        restMessageMockMvc.perform(get(ENTITY_API_URL + "?from=2026-10-01T00:00:00Z")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getMessage() throws Exception {
@@ -165,6 +188,28 @@ class MessageResourceIT {
         restMessageMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
     }
 
+    @Test
+    @Transactional
+    void getMessageAttachments() throws Exception {
+        messageRepository.saveAndFlush(message);
+        Attachment attachment = new Attachment()
+            .filename("photo.png")
+            .contentType("image/png")
+            .contentLength(10L)
+            .messageId(message.getId());
+        attachment.setPreviewStatus(PreviewStatus.PENDING);
+        em.persist(attachment);
+        em.flush();
+
+        restMessageMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/attachments", message.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(attachment.getId().intValue()))
+            .andExpect(jsonPath("$.[0].thumbnailUrl").value(Attachment.PREVIEW_PLACEHOLDER_URL))
+            .andExpect(jsonPath("$.[0].previewUrl").value(Attachment.PREVIEW_PLACEHOLDER_URL));
+        restMessageMockMvc.perform(get(ENTITY_API_URL_ID + "/attachments", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
     @Test
     @Transactional
     void putExistingMessage() throws Exception {
@@ -0,0 +1,26 @@
+package rocks.zipcode.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+import rocks.zipcode.web.filter.StatementCountingFilter;
+
+/**
+ * {@link ResultMatcher}s on the JDBC statements counted by {@link StatementCountingFilter}, to catch N+1 queries in the
+ * resource tests.
+ */
+public final class StatementCountMatchers {
+
+    private StatementCountMatchers() {}
+
+    /**
+     * Asserts that the request executed at most {@code max} JDBC statements.
+     */
+    public static ResultMatcher statementsAtMost(int max) {
+        return result -> {
+            Object count = result.getRequest().getAttribute(StatementCountingFilter.STATEMENTS_ATTRIBUTE);
+            assertThat(count).as("statements executed by %s", result.getRequest().getRequestURI()).isNotNull();
+            assertThat((Integer) count).as("statements executed by %s", result.getRequest().getRequestURI()).isLessThanOrEqualTo(max);
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package rocks.zipcode.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class StreamingJsonWriterTest {
+
+    private EntityManager entityManager;
+
+    private StreamingJsonWriter writer;
+
+    @BeforeEach
+    public void setup() {
+        entityManager = mock(EntityManager.class);
+        writer = new StreamingJsonWriter(new ObjectMapper(), entityManager);
+    }
+
+    @Test
+    void testRowsAreWrittenAsAnArrayAndDetached() throws Exception {
+        Map<String, Integer> first = Map.of("id", 1);
+        Map<String, Integer> second = Map.of("id", 2);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.writeArray(response, Stream.of(first, second));
+
+        assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(response.getContentAsString()).isEqualTo("[{\"id\":1},{\"id\":2}]");
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+    }
+
+    @Test
+    void testRowsAreLoadedByChunks() throws Exception {
+        List<Integer> chunkSizes = new ArrayList<>();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.writeArray(
+            response,
+            Stream.of(1, 2, 3, 4, 5),
+            2,
+            chunk -> {
+                chunkSizes.add(chunk.size());
+                return chunk;
+            }
+        );
+
+        assertThat(chunkSizes).containsExactly(2, 2, 1);
+        assertThat(response.getContentAsString()).isEqualTo("[1,2,3,4,5]");
+    }
+
+    @Test
+    void testEmptyStreamIsAnEmptyArray() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.writeArray(response, Stream.empty());
+
+        assertThat(response.getContentAsString()).isEqualTo("[]");
+    }
+}
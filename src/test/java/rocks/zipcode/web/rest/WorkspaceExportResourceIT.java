@@ -0,0 +1,184 @@
+package rocks.zipcode.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import rocks.zipcode.IntegrationTest;
+import rocks.zipcode.domain.Mention;
+import rocks.zipcode.domain.Message;
+import rocks.zipcode.domain.Workspace;
+import rocks.zipcode.domain.WorkspaceExport;
+import rocks.zipcode.domain.enumeration.WorkspaceExportStatus;
+import rocks.zipcode.repository.MentionRepository;
+import rocks.zipcode.repository.MessageRepository;
+import rocks.zipcode.repository.WorkspaceExportRepository;
+import rocks.zipcode.repository.WorkspaceRepository;
+import rocks.zipcode.security.AuthoritiesConstants;
+import rocks.zipcode.service.WorkspaceExportService;
+
+/**
+ * Integration tests for the {@link WorkspaceExportResource} REST controller.
+ * <p>
+ * Not transactional: the export runs on another thread and reads what is committed.
+ */
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+@IntegrationTest
+class WorkspaceExportResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/admin/workspace-exports";
+    private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private MentionRepository mentionRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private WorkspaceExportRepository workspaceExportRepository;
+
+    @Autowired
+    private WorkspaceExportService workspaceExportService;
+
+    @Autowired
+    private MockMvc restWorkspaceExportMockMvc;
+
+    private Workspace workspace;
+
+    private Mention mention;
+
+    private Message message;
+
+    @BeforeEach
+    public void initTest() {
+        workspace = workspaceRepository.save(new Workspace().name("export-" + UUID.randomUUID()).status("active"));
+        mention = mentionRepository.save(new Mention().userName("john").text("hello \"john\"\nsee below"));
+        message = messageRepository.save(new Message().uploads("none").pinned(0).timestamp(1).mentions(mention));
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        for (WorkspaceExport export : workspaceExportRepository.findAll()) {
+            Files.deleteIfExists(workspaceExportService.archive(export));
+            workspaceExportRepository.delete(export);
+        }
+        messageRepository.delete(message);
+        mentionRepository.delete(mention);
+        workspaceRepository.delete(workspace);
+    }
+
+    @Test
+    void exportIsWrittenInTheBackgroundAndDownloaded() throws Exception {
+        WorkspaceExport started = om.readValue(
+            restWorkspaceExportMockMvc
+                .perform(post(ENTITY_API_URL))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.requestedBy").value("user"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            WorkspaceExport.class
+        );
+
+        WorkspaceExport export = started;
+        for (int i = 0; i < 100 && export.getStatus() == WorkspaceExportStatus.RUNNING; i++) {
+            Thread.sleep(100);
+            export = workspaceExportRepository.findById(started.getId()).orElseThrow();
+        }
+        assertThat(export.getStatus()).isEqualTo(WorkspaceExportStatus.COMPLETE);
+        assertThat(export.getRowsExported()).isGreaterThanOrEqualTo(3);
+        assertThat(export.getArchiveSize()).isPositive();
+
+        byte[] archive = restWorkspaceExportMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/archive", export.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(WorkspaceExportService.CONTENT_TYPE))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+        Map<String, List<JsonNode>> entries = unzip(archive);
+        assertThat(entries).containsOnlyKeys(
+            "workspace.ndjson",
+            "user_profile.ndjson",
+            "rel_user_profile__workspaces.ndjson",
+            "channel.ndjson",
+            "rel_user_profile__channels.ndjson",
+            "message.ndjson",
+            "mention.ndjson"
+        );
+        assertThat(entries.get("workspace.ndjson")).anySatisfy(row -> {
+            assertThat(row.get("id").asLong()).isEqualTo(workspace.getId());
+            assertThat(row.get("name").asText()).isEqualTo(workspace.getName());
+        });
+        assertThat(entries.get("message.ndjson")).anySatisfy(row -> {
+            assertThat(row.get("id").asLong()).isEqualTo(message.getId());
+            assertThat(row.get("mentions_id").asLong()).isEqualTo(mention.getId());
+            assertThat(row.get("created_date").asText()).endsWith("Z");
+        });
+        assertThat(entries.get("mention.ndjson")).anySatisfy(row -> assertThat(row.get("text").asText()).isEqualTo(mention.getText()));
+    }
+
+    @Test
+    void incompleteExportIsNotDownloaded() throws Exception {
+        WorkspaceExport export = workspaceExportRepository.save(new WorkspaceExport().requestedBy("admin"));
+
+        restWorkspaceExportMockMvc.perform(get(ENTITY_API_URL_ID + "/archive", export.getId())).andExpect(status().isConflict());
+        restWorkspaceExportMockMvc
+            .perform(get(ENTITY_API_URL_ID, export.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value(WorkspaceExportStatus.RUNNING.toString()));
+    }
+
+    @Test
+    @WithMockUser
+    void exportsAreForAdministratorsOnly() throws Exception {
+        restWorkspaceExportMockMvc.perform(post(ENTITY_API_URL)).andExpect(status().isForbidden());
+    }
+
+    private Map<String, List<JsonNode>> unzip(byte[] archive) throws IOException {
+        Map<String, List<JsonNode>> entries = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(archive))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                List<JsonNode> rows = new String(zip.readAllBytes(), StandardCharsets.UTF_8).lines().map(this::parse).toList();
+                entries.put(entry.getName(), rows);
+            }
+        }
+        return entries;
+    }
+
+    private JsonNode parse(String line) {
+        try {
+            return om.readTree(line);
+        } catch (IOException e) {
+            throw new AssertionError("Invalid NDJSON line: " + line, e);
+        }
+    }
+}